@@ -0,0 +1,64 @@
+package com.erp.pos.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+import org.springframework.core.env.Environment;
+
+/**
+ * Puts a {@link BulkheadDataSource} in front of the Hikari pool. On by default in virtual-thread
+ * mode, where the request thread pool no longer limits how many callers reach the database.
+ */
+@Configuration
+@ConditionalOnProperty(name = "app.datasource.bulkhead.enabled", havingValue = "true")
+public class DataSourceBulkheadConfig {
+    private static final Logger logger = LoggerFactory.getLogger(DataSourceBulkheadConfig.class);
+
+    @Bean
+    public static BeanPostProcessor dataSourceBulkheadPostProcessor(Environment environment) {
+        return new BulkheadPostProcessor(environment);
+    }
+
+    /**
+     * Runs first, so that wrappers added by other post-processors sit in front of the bulkhead
+     */
+    private static class BulkheadPostProcessor implements BeanPostProcessor, Ordered {
+        private final Environment environment;
+
+        BulkheadPostProcessor(Environment environment) {
+            this.environment = environment;
+        }
+
+        @Override
+        public Object postProcessAfterInitialization(Object bean, String beanName) {
+            if (!(bean instanceof HikariDataSource hikari)) {
+                return bean;
+            }
+            // 0 means the pool size less the headroom, and Hikari's own connection timeout.
+            // The pool size is still unset (-1) here unless configured; Hikari defaults it to 10.
+            int permits = environment.getProperty("app.datasource.bulkhead.permits", Integer.class, 0);
+            int headroom = environment.getProperty("app.datasource.bulkhead.headroom", Integer.class, 2);
+            long timeoutMs = environment.getProperty("app.datasource.bulkhead.timeout-ms", Long.class, 0L);
+            int poolSize = hikari.getMaximumPoolSize() > 0 ? hikari.getMaximumPoolSize() : 10;
+            // Spare connections absorb the ones Hikari is retiring or replacing, so a permit holder
+            // does not queue a second time inside the pool while the bulkhead is saturated
+            permits = permits > 0 ? permits : Math.max(1, poolSize - headroom);
+            if (permits >= poolSize) {
+                logger.warn("Bulkhead permits ({}) leave no headroom in a pool of {} connections", permits, poolSize);
+            }
+            timeoutMs = timeoutMs > 0 ? timeoutMs : hikari.getConnectionTimeout();
+            logger.info("Limiting {} to {} concurrent connection holders of {} pooled connections", beanName, permits, poolSize);
+            return new BulkheadDataSource(hikari, permits, timeoutMs);
+        }
+
+        @Override
+        public int getOrder() {
+            return Ordered.HIGHEST_PRECEDENCE;
+        }
+    }
+}
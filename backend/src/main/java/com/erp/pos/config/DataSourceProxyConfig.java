@@ -0,0 +1,58 @@
+package com.erp.pos.config;
+
+import com.erp.pos.monitoring.DbStatsListener;
+import io.micrometer.core.instrument.MeterRegistry;
+import net.ttddyy.dsproxy.support.ProxyDataSource;
+import net.ttddyy.dsproxy.support.ProxyDataSourceBuilder;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+import org.springframework.core.env.Environment;
+
+import javax.sql.DataSource;
+
+/**
+ * Puts a JDBC proxy in front of the application data source that feeds {@link DbStatsListener}.
+ * It sits outside the bulkhead, so time spent waiting for a permit is not counted as JDBC time.
+ */
+@Configuration
+@ConditionalOnProperty(name = "app.db.stats.enabled", havingValue = "true", matchIfMissing = true)
+public class DataSourceProxyConfig {
+
+    @Bean
+    public static BeanPostProcessor dataSourceProxyPostProcessor(Environment environment,
+                                                                 ObjectProvider<MeterRegistry> meterRegistry) {
+        return new ProxyPostProcessor(environment, meterRegistry);
+    }
+
+    private static class ProxyPostProcessor implements BeanPostProcessor, Ordered {
+        private final Environment environment;
+        private final ObjectProvider<MeterRegistry> meterRegistry;
+
+        ProxyPostProcessor(Environment environment, ObjectProvider<MeterRegistry> meterRegistry) {
+            this.environment = environment;
+            this.meterRegistry = meterRegistry;
+        }
+
+        @Override
+        public Object postProcessAfterInitialization(Object bean, String beanName) {
+            if (!(bean instanceof DataSource dataSource) || bean instanceof ProxyDataSource) {
+                return bean;
+            }
+            long slowQueryMs = environment.getProperty("app.db.slow-query-ms", Long.class, 200L);
+            DbStatsListener listener = new DbStatsListener(meterRegistry, slowQueryMs);
+            return ProxyDataSourceBuilder.create(beanName, dataSource)
+                    .listener(listener)
+                    .methodListener(listener)
+                    .build();
+        }
+
+        @Override
+        public int getOrder() {
+            return Ordered.LOWEST_PRECEDENCE;
+        }
+    }
+}
@@ -9,21 +9,29 @@ import com.erp.pos.model.Role;
 import com.erp.pos.model.User;
 import com.erp.pos.repository.RoleRepository;
 import com.erp.pos.repository.UserRepository;
+import com.erp.pos.security.jwt.JwtKeyRing;
 import com.erp.pos.security.jwt.JwtUtils;
+import com.erp.pos.security.services.LoginAttemptService;
+import com.erp.pos.security.services.LoginExecutor;
 import com.erp.pos.security.services.UserDetailsImpl;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.Authentication;
+import org.springframework.security.core.AuthenticationException;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.web.bind.annotation.*;
 
 import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.RejectedExecutionException;
 import java.util.stream.Collectors;
 
 @CrossOrigin(origins = "*", maxAge = 3600)
@@ -45,11 +53,36 @@ public class AuthController {
     @Autowired
     JwtUtils jwtUtils;
 
+    @Autowired
+    JwtKeyRing jwtKeyRing;
+
+    @Autowired
+    LoginExecutor loginExecutor;
+
+    @Autowired
+    LoginAttemptService loginAttemptService;
+
     @PostMapping("/signin")
     public ResponseEntity<?> authenticateUser(@Valid @RequestBody LoginRequest loginRequest) {
+        String username = loginRequest.getUsername();
 
-        Authentication authentication = authenticationManager.authenticate(
-                new UsernamePasswordAuthenticationToken(loginRequest.getUsername(), loginRequest.getPassword()));
+        long lockedForMs = loginAttemptService.lockedForMs(username);
+        if (lockedForMs > 0) {
+            return tooManyRequests(lockedForMs, "Error: Too many failed logins, try again later");
+        }
+
+        Authentication authentication;
+        try {
+            authentication = loginExecutor.authenticate(() -> authenticationManager.authenticate(
+                    new UsernamePasswordAuthenticationToken(username, loginRequest.getPassword())));
+        } catch (RejectedExecutionException e) {
+            return tooManyRequests(1000, "Error: Too many logins in progress, try again shortly");
+        } catch (AuthenticationException e) {
+            loginAttemptService.loginFailed(username);
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED)
+                    .body(new MessageResponse("Error: Invalid username or password"));
+        }
+        loginAttemptService.loginSucceeded(username);
 
         SecurityContextHolder.getContext().setAuthentication(authentication);
         String jwt = jwtUtils.generateJwtToken(authentication);
@@ -67,6 +100,18 @@ public class AuthController {
                                                  roles));
     }
 
+    private ResponseEntity<MessageResponse> tooManyRequests(long retryAfterMs, String message) {
+        return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(Math.max(1, (retryAfterMs + 999) / 1000)))
+                .body(new MessageResponse(message));
+    }
+
+    @GetMapping("/jwks")
+    public ResponseEntity<Map<String, Object>> getJwks() {
+        // Public keys only; empty when tokens are signed with the shared HMAC secret
+        return ResponseEntity.ok(Map.of("keys", jwtKeyRing.toJwks()));
+    }
+
     @PostMapping("/signup")
     public ResponseEntity<?> registerUser(@Valid @RequestBody SignupRequest signUpRequest) {
         if (userRepository.existsByUsername(signUpRequest.getUsername())) {
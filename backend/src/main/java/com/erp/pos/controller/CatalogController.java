@@ -0,0 +1,68 @@
+package com.erp.pos.controller;
+
+import com.erp.pos.dto.CatalogPayload;
+import com.erp.pos.dto.CategoryDTO;
+import com.erp.pos.dto.ProductDTO;
+import com.erp.pos.service.CatalogSnapshotService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.media.ArraySchema;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.CrossOrigin;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RestController;
+
+/**
+ * The full product and category listings, served from the catalog snapshot. Clients send
+ * If-None-Match to get 304 while the catalog is unchanged.
+ */
+@Tag(name = "Catalog", description = "Catalog listing API")
+@CrossOrigin(origins = "*", maxAge = 3600)
+@RestController
+public class CatalogController {
+
+    @Autowired
+    private CatalogSnapshotService catalogSnapshotService;
+
+    @Operation(summary = "Get all products",
+            description = "Retrieve a list of all products. Served from the catalog snapshot; send If-None-Match to get 304 while the catalog is unchanged.")
+    @ApiResponse(responseCode = "200", content = @Content(array = @ArraySchema(schema = @Schema(implementation = ProductDTO.class))))
+    @GetMapping("/api/products")
+    public ResponseEntity<byte[]> getAllProducts(@RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding) {
+        return toResponse(catalogSnapshotService.getProducts(), acceptEncoding);
+    }
+
+    @Operation(summary = "Get all categories",
+            description = "Retrieve a list of all categories. Served from the catalog snapshot; send If-None-Match to get 304 while the catalog is unchanged.")
+    @ApiResponse(responseCode = "200", content = @Content(array = @ArraySchema(schema = @Schema(implementation = CategoryDTO.class))))
+    @GetMapping("/api/categories")
+    public ResponseEntity<byte[]> getAllCategories(@RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding) {
+        return toResponse(catalogSnapshotService.getCategories(), acceptEncoding);
+    }
+
+    /**
+     * The response for a client with the given {@code Accept-Encoding}. Each encoding has its own
+     * strong ETag; Spring answers a matching {@code If-None-Match} with 304 and no body.
+     */
+    private ResponseEntity<byte[]> toResponse(CatalogPayload payload, String acceptEncoding) {
+        boolean gzipped = acceptEncoding != null && acceptEncoding.contains("gzip");
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_JSON)
+                .cacheControl(CacheControl.noCache())
+                .eTag(gzipped ? payload.getETag() + "-gzip" : payload.getETag())
+                .header(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING)
+                .header("X-Catalog-Version", String.valueOf(payload.getVersion()));
+        if (gzipped) {
+            response.header(HttpHeaders.CONTENT_ENCODING, "gzip");
+        }
+        return response.body(gzipped ? payload.getGzip() : payload.getJson());
+    }
+}
@@ -22,13 +22,7 @@ public class CategoryController {
     @Autowired
     private CategoryService categoryService;
 
-    @GetMapping
-    public List<CategoryDTO> getAllCategories() {
-        List<Category> categories = categoryService.getAllCategories();
-        return categories.stream()
-                .map(CategoryDTO::fromEntity)
-                .collect(Collectors.toList());
-    }
+    // The category listing (GET /api/categories) is served by CatalogController
 
     @GetMapping("/{id}")
     public CategoryDTO getCategoryById(@PathVariable Long id) {
@@ -2,14 +2,25 @@ package com.erp.pos.controller;
 
 import com.erp.pos.dto.DashboardStatsDTO;
 import com.erp.pos.dto.RecentOrderDTO;
+import com.erp.pos.dto.SalesBucketDTO;
+import com.erp.pos.dto.response.MessageResponse;
+import com.erp.pos.enums.RollupGranularity;
 import com.erp.pos.service.DashboardService;
+import com.erp.pos.service.SalesRollupService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.CrossOrigin;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
+import java.time.LocalDateTime;
 import java.util.List;
 
 @CrossOrigin(origins = "*", maxAge = 3600)
@@ -20,6 +31,9 @@ public class DashboardController {
     @Autowired
     private DashboardService dashboardService;
 
+    @Autowired
+    private SalesRollupService salesRollupService;
+
     @GetMapping("/stats")
     public DashboardStatsDTO getDashboardStats() {
         return dashboardService.getDashboardStats();
@@ -29,4 +43,44 @@ public class DashboardController {
     public List<RecentOrderDTO> getRecentOrders() {
         return dashboardService.getRecentOrders();
     }
+
+    /**
+     * Get pre-aggregated sales for a time range.
+     *
+     * @param granularity Bucket size: hour, day or month
+     * @param from Start of the range (inclusive, ISO date-time)
+     * @param to End of the range (exclusive, ISO date-time)
+     * @return One entry per non-empty bucket, in chronological order
+     */
+    @GetMapping("/sales/{granularity}")
+    @PreAuthorize("hasRole('MANAGER') or hasRole('ADMIN')")
+    public ResponseEntity<List<SalesBucketDTO>> getSales(
+            @PathVariable String granularity,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to) {
+        try {
+            RollupGranularity rollupGranularity = RollupGranularity.valueOf(granularity.toUpperCase());
+            return ResponseEntity.ok(salesRollupService.getSales(rollupGranularity, from, to));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
+    /**
+     * Recompute sales rollups for a time range from the orders table
+     */
+    @PostMapping("/sales/rebuild")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<MessageResponse> rebuildSales(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to) {
+        if (!from.isBefore(to)) {
+            return ResponseEntity.badRequest().body(new MessageResponse("Error: 'from' must be before 'to'"));
+        }
+        if (!salesRollupService.rebuild(from, to)) {
+            return ResponseEntity.status(HttpStatus.CONFLICT)
+                    .body(new MessageResponse("Error: a sales rollup rebuild is already running"));
+        }
+        return ResponseEntity.ok(new MessageResponse("Sales rollups rebuilt"));
+    }
 }
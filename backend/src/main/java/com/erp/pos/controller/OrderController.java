@@ -1,5 +1,9 @@
 package com.erp.pos.controller;
 
+import com.erp.pos.dto.BatchOrderDTO;
+import com.erp.pos.dto.BatchOrderResultDTO;
+import com.erp.pos.dto.OrderCursor;
+import com.erp.pos.dto.OrderFilter;
 import com.erp.pos.enums.OrderStatus;
 import com.erp.pos.enums.OrderType;
 import com.erp.pos.exception.ResourceNotFoundException;
@@ -11,6 +15,8 @@ import com.erp.pos.service.OrderService;
 import com.erp.pos.service.ProductService;
 import com.erp.pos.service.CustomerService;
 import com.erp.pos.util.SecurityUtils;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.media.Content;
@@ -20,14 +26,21 @@ import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
@@ -46,17 +59,36 @@ public class OrderController {
     @Autowired
     private CustomerService customerService;
 
-    @Operation(summary = "Get all orders", description = "Retrieves a list of all orders in the system")
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    public static final String NDJSON_VALUE = "application/x-ndjson";
+    public static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+
+    private static final int MAX_PAGE_SIZE = 1000;
+    private static final int MAX_BATCH_SIZE = 1000;
+
+    @Operation(summary = "Get all orders", description = "Retrieves one page of orders, newest first. " +
+            "Pass the X-Next-Cursor response header back as 'cursor' to fetch the next page.")
     @ApiResponses(value = {
-        @ApiResponse(responseCode = "200", description = "Successfully retrieved all orders",
+        @ApiResponse(responseCode = "200", description = "Successfully retrieved the page of orders",
                 content = @Content(mediaType = "application/json", schema = @Schema(implementation = Order.class))),
+        @ApiResponse(responseCode = "400", description = "Invalid cursor"),
         @ApiResponse(responseCode = "403", description = "Forbidden - requires CASHIER, MANAGER, or ADMIN role")
     })
     @GetMapping
     @PreAuthorize("hasRole('CASHIER') or hasRole('MANAGER') or hasRole('ADMIN')")
-    public ResponseEntity<List<Order>> getAllOrders() {
-        List<Order> orders = orderService.getAllOrders();
-        return new ResponseEntity<>(orders, HttpStatus.OK);
+    public ResponseEntity<List<Order>> getAllOrders(
+            @Parameter(description = "Cursor returned by the previous page") @RequestParam(required = false) String cursor,
+            @Parameter(description = "Page size (max 1000)") @RequestParam(defaultValue = "100") int limit) {
+        return orderPage(OrderFilter.all(), cursor, limit);
+    }
+
+    @Operation(summary = "Stream all orders", description = "Streams every order, newest first, as newline-delimited JSON")
+    @GetMapping(produces = NDJSON_VALUE)
+    @PreAuthorize("hasRole('CASHIER') or hasRole('MANAGER') or hasRole('ADMIN')")
+    public ResponseEntity<StreamingResponseBody> streamAllOrders() {
+        return orderStream(OrderFilter.all());
     }
 
     @Operation(summary = "Get order by ID", description = "Retrieves a specific order by its ID")
@@ -99,9 +131,17 @@ public class OrderController {
     @GetMapping("/customer/{customerId}")
     @PreAuthorize("hasRole('CASHIER') or hasRole('MANAGER') or hasRole('ADMIN')")
     public ResponseEntity<List<Order>> getOrdersByCustomerId(
-            @Parameter(description = "ID of the customer to retrieve orders for", required = true) @PathVariable Long customerId) {
-        List<Order> orders = orderService.getOrdersByCustomerId(customerId);
-        return new ResponseEntity<>(orders, HttpStatus.OK);
+            @Parameter(description = "ID of the customer to retrieve orders for", required = true) @PathVariable Long customerId,
+            @Parameter(description = "Cursor returned by the previous page") @RequestParam(required = false) String cursor,
+            @Parameter(description = "Page size (max 1000)") @RequestParam(defaultValue = "100") int limit) {
+        return orderPage(OrderFilter.byCustomer(customerId), cursor, limit);
+    }
+
+    @Operation(summary = "Stream orders by customer ID", description = "Streams all orders for a customer as newline-delimited JSON")
+    @GetMapping(value = "/customer/{customerId}", produces = NDJSON_VALUE)
+    @PreAuthorize("hasRole('CASHIER') or hasRole('MANAGER') or hasRole('ADMIN')")
+    public ResponseEntity<StreamingResponseBody> streamOrdersByCustomerId(@PathVariable Long customerId) {
+        return orderStream(OrderFilter.byCustomer(customerId));
     }
 
     @Operation(summary = "Get orders by status", description = "Retrieves all orders with a specific status")
@@ -115,11 +155,23 @@ public class OrderController {
     @PreAuthorize("hasRole('CASHIER') or hasRole('MANAGER') or hasRole('ADMIN')")
     public ResponseEntity<List<Order>> getOrdersByStatus(
             @Parameter(description = "Status to filter orders by (PENDING, IN_PROGRESS, READY, COMPLETED, CANCELLED)", required = true)
-            @PathVariable String status) {
+            @PathVariable String status,
+            @Parameter(description = "Cursor returned by the previous page") @RequestParam(required = false) String cursor,
+            @Parameter(description = "Page size (max 1000)") @RequestParam(defaultValue = "100") int limit) {
         try {
             OrderStatus orderStatus = OrderStatus.valueOf(status.toUpperCase());
-            List<Order> orders = orderService.getOrdersByStatus(orderStatus);
-            return new ResponseEntity<>(orders, HttpStatus.OK);
+            return orderPage(OrderFilter.byStatus(orderStatus), cursor, limit);
+        } catch (IllegalArgumentException e) {
+            return new ResponseEntity<>(HttpStatus.BAD_REQUEST);
+        }
+    }
+
+    @Operation(summary = "Stream orders by status", description = "Streams all orders with a status as newline-delimited JSON")
+    @GetMapping(value = "/status/{status}", produces = NDJSON_VALUE)
+    @PreAuthorize("hasRole('CASHIER') or hasRole('MANAGER') or hasRole('ADMIN')")
+    public ResponseEntity<StreamingResponseBody> streamOrdersByStatus(@PathVariable String status) {
+        try {
+            return orderStream(OrderFilter.byStatus(OrderStatus.valueOf(status.toUpperCase())));
         } catch (IllegalArgumentException e) {
             return new ResponseEntity<>(HttpStatus.BAD_REQUEST);
         }
@@ -147,6 +199,52 @@ public class OrderController {
         return new ResponseEntity<>(createdOrder, HttpStatus.CREATED);
     }
 
+    @Operation(summary = "Create orders in bulk", description = "Ingests orders queued by an offline terminal. " +
+            "Each order must carry a client-generated idempotencyKey; orders whose key is already stored are " +
+            "reported as DUPLICATE instead of being created again. Returns one result per order, in request order.")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Orders processed; see the per-order results",
+                content = @Content(mediaType = "application/json", schema = @Schema(implementation = BatchOrderResultDTO.class))),
+        @ApiResponse(responseCode = "400", description = "More than " + MAX_BATCH_SIZE + " orders in one request"),
+        @ApiResponse(responseCode = "403", description = "Forbidden - requires CASHIER, MANAGER, or ADMIN role")
+    })
+    @PostMapping(value = "/batch", consumes = MediaType.APPLICATION_JSON_VALUE)
+    @PreAuthorize("hasRole('CASHIER') or hasRole('MANAGER') or hasRole('ADMIN')")
+    public ResponseEntity<List<BatchOrderResultDTO>> createOrdersBatch(
+            @Parameter(description = "Orders to be created", required = true) @RequestBody List<BatchOrderDTO> orders) {
+        if (orders.size() > MAX_BATCH_SIZE) {
+            return new ResponseEntity<>(HttpStatus.BAD_REQUEST);
+        }
+
+        List<BatchOrderResultDTO> results = new ArrayList<>(orders.size());
+        orderService.ingestOrders(orders.iterator(), SecurityUtils.getCurrentUser(), results::add);
+        return new ResponseEntity<>(results, HttpStatus.OK);
+    }
+
+    @Operation(summary = "Create orders in bulk from an NDJSON stream", description = "Same as the JSON variant, but " +
+            "reads one order per line and streams one result per line back as each chunk is committed, so the " +
+            "request size is not limited.")
+    @PostMapping(value = "/batch", consumes = NDJSON_VALUE, produces = NDJSON_VALUE)
+    @PreAuthorize("hasRole('CASHIER') or hasRole('MANAGER') or hasRole('ADMIN')")
+    public ResponseEntity<StreamingResponseBody> streamOrdersBatch(InputStream requestBody) {
+        User currentUser = SecurityUtils.getCurrentUser();
+        StreamingResponseBody body = out -> {
+            try (MappingIterator<BatchOrderDTO> orders = objectMapper.readerFor(BatchOrderDTO.class).readValues(requestBody)) {
+                orderService.ingestOrders(orders, currentUser, result -> {
+                    try {
+                        out.write(objectMapper.writeValueAsBytes(result));
+                        out.write('\n');
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                });
+            }
+        };
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(NDJSON_VALUE))
+                .body(body);
+    }
+
     @Operation(summary = "Update an existing order", description = "Updates an existing order with new details")
     @ApiResponses(value = {
         @ApiResponse(responseCode = "200", description = "Order successfully updated",
@@ -232,10 +330,7 @@ public class OrderController {
                 return new ResponseEntity<>(HttpStatus.BAD_REQUEST);
             }
 
-            Order order = orderService.getOrderById(id);
-            order.setStatus(OrderStatus.valueOf(status.toUpperCase()));
-
-            Order updatedOrder = orderService.updateOrder(id, order);
+            Order updatedOrder = orderService.updateOrderStatus(id, status);
             return new ResponseEntity<>(updatedOrder, HttpStatus.OK);
         } catch (IllegalArgumentException e) {
             return new ResponseEntity<>(HttpStatus.BAD_REQUEST);
@@ -253,16 +348,69 @@ public class OrderController {
     @PreAuthorize("hasRole('CASHIER') or hasRole('MANAGER') or hasRole('ADMIN')")
     public ResponseEntity<List<Order>> getOrdersByType(
             @Parameter(description = "Order type to filter by (DINE_IN, TAKEAWAY, DELIVERY)", required = true)
-            @PathVariable String orderType) {
+            @PathVariable String orderType,
+            @Parameter(description = "Cursor returned by the previous page") @RequestParam(required = false) String cursor,
+            @Parameter(description = "Page size (max 1000)") @RequestParam(defaultValue = "100") int limit) {
         try {
             OrderType type = OrderType.valueOf(orderType.toUpperCase());
-            List<Order> orders = orderService.getOrdersByType(type);
-            return new ResponseEntity<>(orders, HttpStatus.OK);
+            return orderPage(OrderFilter.byType(type), cursor, limit);
+        } catch (IllegalArgumentException e) {
+            return new ResponseEntity<>(HttpStatus.BAD_REQUEST);
+        }
+    }
+
+    @Operation(summary = "Stream orders by order type", description = "Streams all orders of a type as newline-delimited JSON")
+    @GetMapping(value = "/type/{orderType}", produces = NDJSON_VALUE)
+    @PreAuthorize("hasRole('CASHIER') or hasRole('MANAGER') or hasRole('ADMIN')")
+    public ResponseEntity<StreamingResponseBody> streamOrdersByType(@PathVariable String orderType) {
+        try {
+            return orderStream(OrderFilter.byType(OrderType.valueOf(orderType.toUpperCase())));
         } catch (IllegalArgumentException e) {
             return new ResponseEntity<>(HttpStatus.BAD_REQUEST);
         }
     }
 
+    /**
+     * Fetch one keyset page and expose the cursor of the next page, if any, as a response header
+     */
+    private ResponseEntity<List<Order>> orderPage(OrderFilter filter, String cursor, int limit) {
+        OrderCursor after;
+        try {
+            after = cursor != null && !cursor.isEmpty() ? OrderCursor.decode(cursor) : null;
+        } catch (IllegalArgumentException e) {
+            return new ResponseEntity<>(HttpStatus.BAD_REQUEST);
+        }
+
+        int pageSize = Math.max(1, Math.min(limit, MAX_PAGE_SIZE));
+        // Fetch one extra row to learn whether another page exists
+        List<Order> orders = orderService.getOrdersPage(filter, after, pageSize + 1);
+
+        HttpHeaders headers = new HttpHeaders();
+        if (orders.size() > pageSize) {
+            orders = orders.subList(0, pageSize);
+            Order last = orders.get(pageSize - 1);
+            headers.set(NEXT_CURSOR_HEADER, new OrderCursor(last.getOrderDate(), last.getId()).encode());
+        }
+        return new ResponseEntity<>(orders, headers, HttpStatus.OK);
+    }
+
+    /**
+     * Write matching orders one JSON document per line, reading them from a forward-only cursor
+     */
+    private ResponseEntity<StreamingResponseBody> orderStream(OrderFilter filter) {
+        StreamingResponseBody body = out -> orderService.streamOrders(filter, order -> {
+            try {
+                out.write(objectMapper.writeValueAsBytes(order));
+                out.write('\n');
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(NDJSON_VALUE))
+                .body(body);
+    }
+
 
 
 
@@ -0,0 +1,66 @@
+package com.erp.pos.controller;
+
+import com.erp.pos.dto.PriceOverrideDTO;
+import com.erp.pos.dto.PriceQuoteDTO;
+import com.erp.pos.service.PriceBookService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.validation.Valid;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+@Tag(name = "Price book", description = "Server-side prices and time-window price overrides")
+@CrossOrigin(origins = "*", maxAge = 3600)
+@RestController
+@RequestMapping("/api/price-book")
+public class PriceBookController {
+    @Autowired
+    private PriceBookService priceBookService;
+
+    @Operation(summary = "Quote prices", description = "Current unit prices of the given products, as table orders will " +
+            "charge them, with the price book version that resolved them")
+    @GetMapping("/quote")
+    public PriceQuoteDTO quote(@RequestParam List<Long> productIds) {
+        return priceBookService.quote(productIds);
+    }
+
+    @Operation(summary = "Get all price overrides")
+    @GetMapping("/overrides")
+    public List<PriceOverrideDTO> getAllOverrides() {
+        return priceBookService.getAllOverrides();
+    }
+
+    @Operation(summary = "Get a price override by ID")
+    @GetMapping("/overrides/{id}")
+    public PriceOverrideDTO getOverrideById(@PathVariable Long id) {
+        return priceBookService.getOverrideById(id);
+    }
+
+    @Operation(summary = "Create a price override", description = "Adds a fixed price or percentage discount for a " +
+            "product or category, optionally limited to days of the week, a daily time window and a date range")
+    @PostMapping("/overrides")
+    @PreAuthorize("hasRole('MANAGER') or hasRole('ADMIN')")
+    @ResponseStatus(HttpStatus.CREATED)
+    public PriceOverrideDTO createOverride(@Valid @RequestBody PriceOverrideDTO override) {
+        return priceBookService.createOverride(override);
+    }
+
+    @Operation(summary = "Update a price override")
+    @PutMapping("/overrides/{id}")
+    @PreAuthorize("hasRole('MANAGER') or hasRole('ADMIN')")
+    public PriceOverrideDTO updateOverride(@PathVariable Long id, @Valid @RequestBody PriceOverrideDTO override) {
+        return priceBookService.updateOverride(id, override);
+    }
+
+    @Operation(summary = "Delete a price override", description = "Deactivates the override; it stays listed with active set to false")
+    @DeleteMapping("/overrides/{id}")
+    @PreAuthorize("hasRole('MANAGER') or hasRole('ADMIN')")
+    @ResponseStatus(HttpStatus.NO_CONTENT)
+    public void deleteOverride(@PathVariable Long id) {
+        priceBookService.deleteOverride(id);
+    }
+}
@@ -1,17 +1,42 @@
 package com.erp.pos.controller;
 
+import com.erp.pos.dto.PriceAdjustmentDTO;
+import com.erp.pos.dto.PriceAdjustmentResultDTO;
 import com.erp.pos.dto.ProductDTO;
+import com.erp.pos.dto.ProductImportResultDTO;
+import com.erp.pos.dto.ProductImportRowDTO;
+import com.erp.pos.dto.ProductScanDTO;
+import com.erp.pos.dto.ProductScanRequestDTO;
+import com.erp.pos.dto.ProductScanResultDTO;
 import com.erp.pos.model.Product;
+import com.erp.pos.service.ProductScanService;
+import com.erp.pos.service.ProductSearchService;
 import com.erp.pos.service.ProductService;
 
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.dataformat.csv.CsvMapper;
+import com.fasterxml.jackson.dataformat.csv.CsvParser;
+import com.fasterxml.jackson.dataformat.csv.CsvSchema;
 import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
 import java.util.List;
 import java.util.stream.Collectors;
 
@@ -24,14 +49,25 @@ public class ProductController {
     @Autowired
     private ProductService productService;
 
-    @Operation(summary = "Get all products", description = "Retrieve a list of all products")
-    @GetMapping
-    public List<ProductDTO> getAllProducts() {
-        List<Product> products = productService.getAllProducts();
-        return products.stream()
-                .map(ProductDTO::fromEntity)
-                .collect(Collectors.toList());
-    }
+    @Autowired
+    private ProductSearchService productSearchService;
+
+    @Autowired
+    private ProductScanService productScanService;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    public static final String CSV_VALUE = "text/csv";
+
+    // Header row names the columns; empty cells are absent values. Unknown columns are rejected rather than ignored.
+    private static final ObjectReader CSV_ROW_READER = new CsvMapper()
+            .enable(CsvParser.Feature.EMPTY_STRING_AS_NULL)
+            .enable(CsvParser.Feature.TRIM_SPACES)
+            .readerFor(ProductImportRowDTO.class)
+            .with(CsvSchema.emptySchema().withHeader());
+
+    // The product listing (GET /api/products) is served by CatalogController
 
     @Operation(summary = "Get product by ID", description = "Retrieve a product by its ID")
     @GetMapping("/{id}")
@@ -49,13 +85,25 @@ public class ProductController {
                 .collect(Collectors.toList());
     }
 
-    @Operation(summary = "Search products by name", description = "Retrieve a list of products by name")
+    @Operation(summary = "Search products",
+            description = "Typeahead search over product name, category, SKU and barcode; tolerates small typos and partly typed words")
     @GetMapping("/search")
-    public List<ProductDTO> searchProducts(@RequestParam String name) {
-        List<Product> products = productService.searchProducts(name);
-        return products.stream()
-                .map(ProductDTO::fromEntity)
-                .collect(Collectors.toList());
+    public List<ProductDTO> searchProducts(@RequestParam String name,
+                                           @RequestParam(defaultValue = "20") int limit) {
+        return productSearchService.search(name, Math.min(Math.max(limit, 1), 100));
+    }
+
+    @Operation(summary = "Scan a product", description = "Look up a product by exact barcode or SKU (case-insensitive)")
+    @GetMapping("/scan/{code}")
+    public ProductScanDTO scanProduct(@PathVariable String code) {
+        return productScanService.scan(code);
+    }
+
+    @Operation(summary = "Scan several products",
+            description = "Look up up to 500 barcodes or SKUs at once; results are in request order, with no product for unknown codes")
+    @PostMapping("/scan")
+    public List<ProductScanResultDTO> scanProducts(@Valid @RequestBody ProductScanRequestDTO request) {
+        return productScanService.scanAll(request.getCodes());
     }
 
     @Operation(summary = "Create a new product", description = "Create a new product")
@@ -67,6 +115,36 @@ public class ProductController {
         return ProductDTO.fromEntity(newProduct);
     }
 
+    @Operation(summary = "Import products from CSV", description = "Upserts products by SKU. The first line names the " +
+            "columns (sku, name, description, price, stockQuantity, barcode, category, active); empty cells keep the " +
+            "current value. Rows are written in chunks and one result per row is streamed back as NDJSON as each chunk " +
+            "is committed; failed rows do not stop the import.")
+    @ApiResponse(responseCode = "200", content = @Content(mediaType = OrderController.NDJSON_VALUE,
+            schema = @Schema(implementation = ProductImportResultDTO.class)))
+    @PostMapping(value = "/import", consumes = CSV_VALUE, produces = OrderController.NDJSON_VALUE)
+    @PreAuthorize("hasRole('MANAGER') or hasRole('ADMIN')")
+    public ResponseEntity<StreamingResponseBody> importProductsCsv(InputStream requestBody) {
+        return streamImport(CSV_ROW_READER, requestBody);
+    }
+
+    @Operation(summary = "Import products from NDJSON", description = "Same as the CSV variant, with one product per line")
+    @ApiResponse(responseCode = "200", content = @Content(mediaType = OrderController.NDJSON_VALUE,
+            schema = @Schema(implementation = ProductImportResultDTO.class)))
+    @PostMapping(value = "/import", consumes = OrderController.NDJSON_VALUE, produces = OrderController.NDJSON_VALUE)
+    @PreAuthorize("hasRole('MANAGER') or hasRole('ADMIN')")
+    public ResponseEntity<StreamingResponseBody> importProductsNdjson(InputStream requestBody) {
+        return streamImport(objectMapper.readerFor(ProductImportRowDTO.class)
+                .with(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES), requestBody);
+    }
+
+    @Operation(summary = "Adjust prices", description = "Changes the price of every product in a category (or of all " +
+            "products) by a percentage in a single statement")
+    @PostMapping("/prices/adjust")
+    @PreAuthorize("hasRole('MANAGER') or hasRole('ADMIN')")
+    public PriceAdjustmentResultDTO adjustPrices(@Valid @RequestBody PriceAdjustmentDTO adjustment) {
+        return new PriceAdjustmentResultDTO(productService.adjustPrices(adjustment.getCategoryId(), adjustment.getPercent()));
+    }
+
     @Operation(summary = "Update a product", description = "Update a product")
     @PutMapping("/{id}")
     @PreAuthorize("hasRole('MANAGER') or hasRole('ADMIN')")
@@ -82,4 +160,22 @@ public class ProductController {
     public void deleteProduct(@PathVariable Long id) {
         productService.deleteProduct(id);
     }
+
+    private ResponseEntity<StreamingResponseBody> streamImport(ObjectReader rowReader, InputStream requestBody) {
+        StreamingResponseBody body = out -> {
+            try (MappingIterator<ProductImportRowDTO> rows = rowReader.readValues(requestBody)) {
+                productService.importProducts(rows, result -> {
+                    try {
+                        out.write(objectMapper.writeValueAsBytes(result));
+                        out.write('\n');
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                });
+            }
+        };
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(OrderController.NDJSON_VALUE))
+                .body(body);
+    }
 }
@@ -5,15 +5,18 @@ import com.erp.pos.enums.TableStatus;
 import com.erp.pos.model.Order;
 import com.erp.pos.model.RestaurantTable;
 import com.erp.pos.service.OrderService;
+import com.erp.pos.service.TableEventService;
 import com.erp.pos.service.TableService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 import java.util.List;
 import java.util.Map;
@@ -31,6 +34,9 @@ public class TableController {
     @Autowired
     private OrderService orderService;
 
+    @Autowired
+    private TableEventService tableEventService;
+
     /**
      * Get all tables
      */
@@ -202,7 +208,8 @@ public class TableController {
             @PathVariable Long tableId,
             @RequestBody Map<String, Object> positionUpdate) {
 
-        RestaurantTable table = tableService.getTableById(tableId);
+        // Only the floor plan fields are sent, so the rest of the row is left as it is in the database
+        RestaurantTable table = new RestaurantTable();
 
         if (positionUpdate.containsKey("positionX")) {
             table.setPositionX((Integer) positionUpdate.get("positionX"));
@@ -224,7 +231,7 @@ public class TableController {
             table.setShape((String) positionUpdate.get("shape"));
         }
 
-        RestaurantTable updatedTable = tableService.updateTable(tableId, table);
+        RestaurantTable updatedTable = tableService.updateTablePosition(tableId, table);
         return TableDTO.fromEntity(updatedTable);
     }
 
@@ -240,6 +247,17 @@ public class TableController {
                 .collect(Collectors.toList());
     }
 
+    /**
+     * Stream floor plan changes (Server-Sent Events)
+     */
+    @Operation(summary = "Stream floor plan changes", description = "Server-Sent Events stream: a 'snapshot' event with all tables " +
+            "on connect, then 'delta' events with the tables changed or removed since the previous event. " +
+            "Replaces polling the floor plan; browsers can pass the JWT as the 'token' query parameter.")
+    @GetMapping(value = "/events", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamTableEvents() {
+        return tableEventService.subscribe();
+    }
+
     /**
      * Mark a table as available after cleaning
      */
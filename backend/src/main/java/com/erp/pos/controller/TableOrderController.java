@@ -70,7 +70,7 @@ public class TableOrderController {
             @Parameter(description = "ID of the table to create order for", required = true) @PathVariable Long tableId,
             @Parameter(description = "Order details", required = true) @Valid @RequestBody CreateTableOrderDTO orderDTO) {
         Order createdOrder = orderService.createTableOrder(tableId, orderDTO);
-        return TableOrderResponseDTO.fromEntity(createdOrder);
+        return orderService.getTableOrderResponse(createdOrder.getId());
     }
 
     @Operation(summary = "Get current active order for a table", description = "Retrieves the current active order for a specific table")
@@ -84,9 +84,9 @@ public class TableOrderController {
     @PreAuthorize("hasRole('CASHIER') or hasRole('MANAGER') or hasRole('ADMIN')")
     public ResponseEntity<TableOrderResponseDTO> getCurrentTableOrder(
             @Parameter(description = "ID of the table to get current order for", required = true) @PathVariable Long tableId) {
-        Optional<Order> orderOpt = orderService.getCurrentTableOrder(tableId);
+        Optional<TableOrderResponseDTO> orderOpt = orderService.getCurrentTableOrderResponse(tableId);
 
-        return orderOpt.map(order -> new ResponseEntity<>(TableOrderResponseDTO.fromEntity(order), HttpStatus.OK))
+        return orderOpt.map(order -> new ResponseEntity<>(order, HttpStatus.OK))
                 .orElseGet(() -> new ResponseEntity<>(HttpStatus.NOT_FOUND));
     }
 
@@ -101,9 +101,9 @@ public class TableOrderController {
     @PreAuthorize("hasRole('CASHIER') or hasRole('MANAGER') or hasRole('ADMIN')")
     public ResponseEntity<TableOrderResponseDTO> getTableCart(
             @Parameter(description = "ID of the table to get cart for", required = true) @PathVariable Long tableId) {
-        Optional<Order> orderOpt = orderService.getActiveTableOrder(tableId);
+        Optional<TableOrderResponseDTO> orderOpt = orderService.getActiveTableOrderResponse(tableId);
 
-        return orderOpt.map(order -> new ResponseEntity<>(TableOrderResponseDTO.fromEntity(order), HttpStatus.OK))
+        return orderOpt.map(order -> new ResponseEntity<>(order, HttpStatus.OK))
                 .orElseGet(() -> new ResponseEntity<>(HttpStatus.NOT_FOUND));
     }
 
@@ -122,7 +122,7 @@ public class TableOrderController {
             @Parameter(description = "Item details to add to cart", required = true) @Valid @RequestBody AddToTableCartDTO cartItemDTO) {
         try {
             Order updatedOrder = orderService.addItemToTableOrder(tableId, cartItemDTO);
-            return new ResponseEntity<>(TableOrderResponseDTO.fromEntity(updatedOrder), HttpStatus.OK);
+            return new ResponseEntity<>(orderService.getTableOrderResponse(updatedOrder.getId()), HttpStatus.OK);
         } catch (IllegalArgumentException e) {
             return new ResponseEntity<>(HttpStatus.BAD_REQUEST);
         } catch (ResourceNotFoundException e) {
@@ -145,7 +145,7 @@ public class TableOrderController {
             @Parameter(description = "Details of the item to remove", required = true) @Valid @RequestBody RemoveFromTableCartDTO removeItemDTO) {
         try {
             Order updatedOrder = orderService.removeItemFromTableOrder(tableId, removeItemDTO);
-            return new ResponseEntity<>(TableOrderResponseDTO.fromEntity(updatedOrder), HttpStatus.OK);
+            return new ResponseEntity<>(orderService.getTableOrderResponse(updatedOrder.getId()), HttpStatus.OK);
         } catch (IllegalArgumentException e) {
             return new ResponseEntity<>(HttpStatus.BAD_REQUEST);
         } catch (ResourceNotFoundException e) {
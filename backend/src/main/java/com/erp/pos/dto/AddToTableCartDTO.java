@@ -28,8 +28,7 @@ public class AddToTableCartDTO {
     @Min(value = 1, message = "Quantity must be at least 1")
     private Integer quantity;
 
-    @Schema(description = "Unit price of the product", required = true)
-    @NotNull(message = "Unit price is required")
+    @Schema(description = "Ignored: the unit price is taken from the server's price book", deprecated = true)
     private BigDecimal unitPrice;
 
     @Schema(description = "Number of guests - required for new orders, optional for updates")
@@ -0,0 +1,103 @@
+package com.erp.pos.dto;
+
+import com.erp.pos.enums.OrderStatus;
+import com.erp.pos.enums.OrderType;
+import com.erp.pos.enums.PaymentMethod;
+import com.erp.pos.model.Customer;
+import com.erp.pos.model.Order;
+import com.erp.pos.model.OrderItem;
+import com.erp.pos.model.Product;
+import com.erp.pos.model.RestaurantTable;
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@Schema(description = "One order queued by an offline terminal. The creator is always the authenticated user.")
+public class BatchOrderDTO {
+    @Schema(description = "Client-generated key identifying the order across replays", required = true)
+    private String idempotencyKey;
+
+    @Schema(description = "Order number printed by the terminal; generated when absent")
+    private String orderNumber;
+
+    @Schema(description = "Time the order was taken; defaults to the time it is received")
+    private LocalDateTime orderDate;
+
+    @Schema(description = "Customer ID - optional")
+    private Long customerId;
+
+    @Schema(description = "Table ID - optional")
+    private Long tableId;
+
+    @Schema(description = "Order items; only productId, quantity, unitPrice and subtotal are read")
+    private List<OrderItemDTO> orderItems = new ArrayList<>();
+
+    @Schema(description = "Total amount of the order")
+    private BigDecimal totalAmount;
+
+    @Schema(description = "Order status; defaults to PENDING", enumAsRef = true)
+    private OrderStatus status;
+
+    @Schema(description = "Order type; defaults to DINE_IN with a table and TAKEOUT without", enumAsRef = true)
+    private OrderType orderType;
+
+    @Schema(description = "Payment method", enumAsRef = true)
+    private PaymentMethod paymentMethod;
+
+    @Schema(description = "Payment reference")
+    private String paymentReference;
+
+    @Schema(description = "Number of guests")
+    private Integer numberOfGuests;
+
+    @Schema(description = "Special instructions for the order")
+    private String specialInstructions;
+
+    // Build a new order; customer, table and products are referenced by id only
+    public Order toEntity() {
+        Order order = new Order();
+        order.setIdempotencyKey(idempotencyKey);
+        order.setOrderNumber(orderNumber);
+        order.setOrderDate(orderDate);
+        if (customerId != null) {
+            Customer customer = new Customer();
+            customer.setId(customerId);
+            order.setCustomer(customer);
+        }
+        if (tableId != null) {
+            RestaurantTable table = new RestaurantTable();
+            table.setId(tableId);
+            order.setTable(table);
+        }
+        order.setTotalAmount(totalAmount);
+        order.setStatus(status);
+        order.setOrderType(orderType);
+        order.setPaymentMethod(paymentMethod);
+        order.setPaymentReference(paymentReference);
+        order.setNumberOfGuests(numberOfGuests);
+        order.setSpecialInstructions(specialInstructions);
+
+        if (orderItems != null) {
+            for (OrderItemDTO itemDTO : orderItems) {
+                OrderItem item = new OrderItem();
+                if (itemDTO.getProductId() != null) {
+                    Product product = new Product();
+                    product.setId(itemDTO.getProductId());
+                    item.setProduct(product);
+                }
+                item.setQuantity(itemDTO.getQuantity());
+                item.setUnitPrice(itemDTO.getUnitPrice());
+                item.setSubtotal(itemDTO.getSubtotal());
+                order.getOrderItems().add(item);
+            }
+        }
+        return order;
+    }
+}
@@ -0,0 +1,39 @@
+package com.erp.pos.dto;
+
+import com.erp.pos.enums.BatchOrderStatus;
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "Result for one order of a bulk ingestion request")
+public class BatchOrderResultDTO {
+    @Schema(description = "Position of the order in the request (0-based)")
+    private int index;
+
+    @Schema(description = "Client-generated idempotency key of the order")
+    private String idempotencyKey;
+
+    @Schema(description = "CREATED, DUPLICATE (already stored, nothing written) or FAILED", enumAsRef = true)
+    private BatchOrderStatus status;
+
+    @Schema(description = "ID of the stored order")
+    private Long orderId;
+
+    @Schema(description = "Order number of the stored order")
+    private String orderNumber;
+
+    @Schema(description = "Reason the order was rejected")
+    private String error;
+
+    public static BatchOrderResultDTO of(int index, String idempotencyKey, BatchOrderStatus status, Long orderId, String orderNumber) {
+        return new BatchOrderResultDTO(index, idempotencyKey, status, orderId, orderNumber, null);
+    }
+
+    public static BatchOrderResultDTO failed(int index, String idempotencyKey, String error) {
+        return new BatchOrderResultDTO(index, idempotencyKey, BatchOrderStatus.FAILED, null, null, error);
+    }
+}
@@ -0,0 +1,16 @@
+package com.erp.pos.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * A catalog listing serialized once, as plain and gzip-compressed JSON. The arrays are never modified.
+ */
+@Getter
+@AllArgsConstructor
+public class CatalogPayload {
+    private long version;
+    private String eTag;
+    private byte[] json;
+    private byte[] gzip;
+}
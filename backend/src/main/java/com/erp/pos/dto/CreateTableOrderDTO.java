@@ -36,8 +36,7 @@ public class CreateTableOrderDTO {
     @Schema(description = "Special instructions for the order")
     private String specialInstructions;
 
-    @Schema(description = "Total amount of the order", required = true)
-    @NotNull(message = "Total amount is required")
+    @Schema(description = "Ignored: the total is computed from the server's price book", deprecated = true)
     private BigDecimal totalAmount;
 
     @Schema(description = "Payment method - optional at order creation time", enumAsRef = true)
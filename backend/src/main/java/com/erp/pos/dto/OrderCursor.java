@@ -0,0 +1,40 @@
+package com.erp.pos.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+
+/**
+ * Opaque keyset position in an order listing sorted by (orderDate desc, id desc).
+ */
+@Getter
+@AllArgsConstructor
+public class OrderCursor {
+    private final LocalDateTime orderDate;
+    private final Long id;
+
+    public String encode() {
+        String raw = orderDate + "_" + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Parse a cursor previously returned by {@link #encode()}
+     *
+     * @throws IllegalArgumentException if the value is not a valid cursor
+     */
+    public static OrderCursor decode(String value) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(value), StandardCharsets.UTF_8);
+            int separator = raw.lastIndexOf('_');
+            return new OrderCursor(LocalDateTime.parse(raw.substring(0, separator)),
+                                   Long.parseLong(raw.substring(separator + 1)));
+        } catch (IndexOutOfBoundsException | DateTimeParseException e) {
+            throw new IllegalArgumentException("Invalid cursor: " + value);
+        }
+    }
+}
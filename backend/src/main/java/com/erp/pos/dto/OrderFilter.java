@@ -0,0 +1,37 @@
+package com.erp.pos.dto;
+
+import com.erp.pos.enums.OrderStatus;
+import com.erp.pos.enums.OrderType;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * Optional criteria for order listings. Null fields are not applied.
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class OrderFilter {
+    private OrderStatus status;
+    private OrderType orderType;
+    private Long customerId;
+
+    public static OrderFilter all() {
+        return new OrderFilter();
+    }
+
+    public static OrderFilter byStatus(OrderStatus status) {
+        return new OrderFilter(status, null, null);
+    }
+
+    public static OrderFilter byType(OrderType orderType) {
+        return new OrderFilter(null, orderType, null);
+    }
+
+    public static OrderFilter byCustomer(Long customerId) {
+        return new OrderFilter(null, null, customerId);
+    }
+}
@@ -24,10 +24,10 @@ public class OrderItemDTO {
     @Schema(description = "Quantity of the product")
     private Integer quantity;
 
-    @Schema(description = "Unit price of the product")
+    @Schema(description = "Unit price of the product; set by the server's price book and ignored in table order requests")
     private BigDecimal unitPrice;
 
-    @Schema(description = "Subtotal for this item (quantity * unit price)")
+    @Schema(description = "Subtotal for this item (quantity * unit price); ignored in table order requests")
     private BigDecimal subtotal;
 
     // Convert from OrderItem entity to OrderItemDTO
@@ -46,4 +46,16 @@ public class OrderItemDTO {
 
         return dto;
     }
+
+    // Convert from the item columns of a flat order/item projection row
+    public static OrderItemDTO fromRow(OrderLineRow row) {
+        OrderItemDTO dto = new OrderItemDTO();
+        dto.setId(row.getItemId());
+        dto.setProductId(row.getProductId());
+        dto.setProductName(row.getProductName());
+        dto.setQuantity(row.getQuantity());
+        dto.setUnitPrice(row.getUnitPrice());
+        dto.setSubtotal(row.getSubtotal());
+        return dto;
+    }
 }
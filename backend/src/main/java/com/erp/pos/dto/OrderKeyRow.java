@@ -0,0 +1,15 @@
+package com.erp.pos.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * Idempotency key of an already stored order, with just enough to report it back to the client
+ */
+@Getter
+@AllArgsConstructor
+public class OrderKeyRow {
+    private String idempotencyKey;
+    private Long orderId;
+    private String orderNumber;
+}
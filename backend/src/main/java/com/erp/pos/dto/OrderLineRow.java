@@ -0,0 +1,44 @@
+package com.erp.pos.dto;
+
+import com.erp.pos.enums.OrderStatus;
+import com.erp.pos.enums.OrderType;
+import com.erp.pos.enums.PaymentMethod;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * Flat projection of one order joined with one of its items (item columns are null
+ * for orders without items). Lets order reads run as a single query without loading entities.
+ */
+@Getter
+@AllArgsConstructor
+public class OrderLineRow {
+    private Long orderId;
+    private String orderNumber;
+    private LocalDateTime orderDate;
+    private Long customerId;
+    private String customerName;
+    private Long tableId;
+    private String tableNumber;
+    private BigDecimal totalAmount;
+    private Long priceBookVersion;
+    private OrderStatus status;
+    private OrderType orderType;
+    private PaymentMethod paymentMethod;
+    private String paymentReference;
+    private Integer numberOfGuests;
+    private String specialInstructions;
+    private Long createdById;
+    private String createdByUsername;
+    private LocalDateTime createdAt;
+    private LocalDateTime updatedAt;
+    private Long itemId;
+    private Long productId;
+    private String productName;
+    private Integer quantity;
+    private BigDecimal unitPrice;
+    private BigDecimal subtotal;
+}
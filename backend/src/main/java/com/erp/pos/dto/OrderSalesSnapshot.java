@@ -0,0 +1,45 @@
+package com.erp.pos.dto;
+
+import com.erp.pos.enums.OrderStatus;
+import com.erp.pos.enums.OrderType;
+import com.erp.pos.enums.PaymentMethod;
+import com.erp.pos.model.Order;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * The fields of an order that its sales aggregates depend on, captured before the order is changed
+ * so that the change can be recorded as a delta between two snapshots
+ */
+@Getter
+@AllArgsConstructor
+public class OrderSalesSnapshot {
+    private OrderStatus status;
+    private BigDecimal totalAmount;
+    private LocalDateTime orderDate;
+    private OrderType orderType;
+    private PaymentMethod paymentMethod;
+    private Integer numberOfGuests;
+
+    public static OrderSalesSnapshot of(Order order) {
+        return new OrderSalesSnapshot(order.getStatus(), order.getTotalAmount(), order.getOrderDate(),
+                order.getOrderType(), order.getPaymentMethod(), order.getNumberOfGuests());
+    }
+
+    /**
+     * Whether the order counts as revenue
+     */
+    public boolean isCompleted() {
+        return status == OrderStatus.COMPLETED;
+    }
+
+    /**
+     * Revenue contributed by the order: its total when completed, otherwise zero
+     */
+    public BigDecimal revenue() {
+        return isCompleted() && totalAmount != null ? totalAmount : BigDecimal.ZERO;
+    }
+}
@@ -0,0 +1,26 @@
+package com.erp.pos.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.constraints.DecimalMax;
+import jakarta.validation.constraints.DecimalMin;
+import jakarta.validation.constraints.NotNull;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+
+@Schema(description = "Percentage price change applied to a category, or to every product")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class PriceAdjustmentDTO {
+    @Schema(description = "Category whose products are repriced; all products when absent")
+    private Long categoryId;
+
+    @Schema(description = "Change in percent, e.g. 5 for +5% or -10 for a 10% reduction; prices are rounded to cents and never drop below 0.01")
+    @NotNull
+    @DecimalMin(value = "-100", inclusive = false)
+    @DecimalMax("1000")
+    private BigDecimal percent;
+}
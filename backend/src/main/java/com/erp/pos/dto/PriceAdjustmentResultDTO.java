@@ -0,0 +1,15 @@
+package com.erp.pos.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Schema(description = "Outcome of a bulk price adjustment")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class PriceAdjustmentResultDTO {
+    @Schema(description = "Number of products repriced")
+    private int updatedProducts;
+}
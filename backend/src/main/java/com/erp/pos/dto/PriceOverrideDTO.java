@@ -0,0 +1,134 @@
+package com.erp.pos.dto;
+
+import com.erp.pos.model.PriceOverride;
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.constraints.AssertTrue;
+import jakarta.validation.constraints.DecimalMax;
+import jakarta.validation.constraints.DecimalMin;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.Positive;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.Arrays;
+import java.util.EnumSet;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+@Schema(description = "Time-window price for a product or a category, e.g. a happy hour")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class PriceOverrideDTO {
+    @Schema(description = "Override ID", accessMode = Schema.AccessMode.READ_ONLY)
+    private Long id;
+
+    @Schema(description = "Name shown to staff, e.g. Happy hour", required = true)
+    @NotBlank
+    @Size(max = 100)
+    private String name;
+
+    @Schema(description = "Product the override applies to; set either this or categoryId")
+    private Long productId;
+
+    @Schema(description = "Category whose products the override applies to; product overrides take precedence")
+    private Long categoryId;
+
+    @Schema(description = "Fixed unit price while the override applies; set either this or percentOff")
+    @Positive
+    private BigDecimal price;
+
+    @Schema(description = "Percentage taken off the base price while the override applies")
+    @DecimalMin(value = "0", inclusive = false)
+    @DecimalMax(value = "100", inclusive = false)
+    private BigDecimal percentOff;
+
+    @Schema(description = "Days the override applies; every day when empty")
+    private Set<DayOfWeek> daysOfWeek;
+
+    @Schema(description = "Start of the daily window; all day when start and end are absent", example = "17:00:00")
+    private LocalTime startTime;
+
+    @Schema(description = "End of the daily window (exclusive); an end not after the start runs past midnight", example = "19:00:00")
+    private LocalTime endTime;
+
+    @Schema(description = "First day the override applies")
+    private LocalDate validFrom;
+
+    @Schema(description = "Last day the override applies")
+    private LocalDate validTo;
+
+    @Schema(description = "Whether the override is in use")
+    private boolean active = true;
+
+    @Schema(description = "Creation timestamp", accessMode = Schema.AccessMode.READ_ONLY)
+    private LocalDateTime createdAt;
+
+    @Schema(description = "Last update timestamp", accessMode = Schema.AccessMode.READ_ONLY)
+    private LocalDateTime updatedAt;
+
+    @JsonIgnore
+    @AssertTrue(message = "Set either productId or categoryId")
+    public boolean isTargetValid() {
+        return (productId == null) != (categoryId == null);
+    }
+
+    @JsonIgnore
+    @AssertTrue(message = "Set either price or percentOff")
+    public boolean isAmountValid() {
+        return (price == null) != (percentOff == null);
+    }
+
+    @JsonIgnore
+    @AssertTrue(message = "Set both startTime and endTime, or neither")
+    public boolean isWindowValid() {
+        return (startTime == null) == (endTime == null);
+    }
+
+    @JsonIgnore
+    @AssertTrue(message = "validTo must not be before validFrom")
+    public boolean isValidityValid() {
+        return validFrom == null || validTo == null || !validTo.isBefore(validFrom);
+    }
+
+    /**
+     * Days in the column format of {@link PriceOverride#getDaysOfWeek()}, or null for every day
+     */
+    public String daysOfWeekColumn() {
+        if (daysOfWeek == null || daysOfWeek.isEmpty()) {
+            return null;
+        }
+        return EnumSet.copyOf(daysOfWeek).stream()
+                .map(DayOfWeek::name)
+                .collect(Collectors.joining(","));
+    }
+
+    public static PriceOverrideDTO fromEntity(PriceOverride override) {
+        PriceOverrideDTO dto = new PriceOverrideDTO();
+        dto.setId(override.getId());
+        dto.setName(override.getName());
+        dto.setProductId(override.getProduct() != null ? override.getProduct().getId() : null);
+        dto.setCategoryId(override.getCategory() != null ? override.getCategory().getId() : null);
+        dto.setPrice(override.getPrice());
+        dto.setPercentOff(override.getPercentOff());
+        dto.setDaysOfWeek(override.getDaysOfWeek() == null ? null : Arrays.stream(override.getDaysOfWeek().split(","))
+                .map(DayOfWeek::valueOf)
+                .collect(Collectors.toCollection(() -> EnumSet.noneOf(DayOfWeek.class))));
+        dto.setStartTime(override.getStartTime());
+        dto.setEndTime(override.getEndTime());
+        dto.setValidFrom(override.getValidFrom());
+        dto.setValidTo(override.getValidTo());
+        dto.setActive(override.isActive());
+        dto.setCreatedAt(override.getCreatedAt());
+        dto.setUpdatedAt(override.getUpdatedAt());
+        return dto;
+    }
+}
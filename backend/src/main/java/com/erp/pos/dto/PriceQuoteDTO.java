@@ -0,0 +1,24 @@
+package com.erp.pos.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Schema(description = "Prices the server charges for a set of products at one point in time")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class PriceQuoteDTO {
+    @Schema(description = "Version of the price book that resolved the prices")
+    private long priceBookVersion;
+
+    @Schema(description = "Time the prices apply to")
+    private LocalDateTime pricedAt;
+
+    @Schema(description = "Price of each requested product")
+    private List<PriceQuoteLineDTO> prices;
+}
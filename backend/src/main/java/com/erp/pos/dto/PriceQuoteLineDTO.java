@@ -0,0 +1,26 @@
+package com.erp.pos.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+
+@Schema(description = "Effective price of one product")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class PriceQuoteLineDTO {
+    @Schema(description = "Product ID")
+    private Long productId;
+
+    @Schema(description = "Catalog price of the product")
+    private BigDecimal basePrice;
+
+    @Schema(description = "Price charged per unit")
+    private BigDecimal unitPrice;
+
+    @Schema(description = "Override that set the unit price; null when the base price applies")
+    private Long overrideId;
+}
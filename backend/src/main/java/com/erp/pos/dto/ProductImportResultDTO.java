@@ -0,0 +1,36 @@
+package com.erp.pos.dto;
+
+import com.erp.pos.enums.ProductImportStatus;
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "Result for one row of a product import")
+public class ProductImportResultDTO {
+    @Schema(description = "Position of the row in the input (0-based, not counting the CSV header)")
+    private int index;
+
+    @Schema(description = "SKU of the row")
+    private String sku;
+
+    @Schema(description = "CREATED, UPDATED or FAILED", enumAsRef = true)
+    private ProductImportStatus status;
+
+    @Schema(description = "ID of the created or updated product")
+    private Long productId;
+
+    @Schema(description = "Reason the row was rejected")
+    private String error;
+
+    public static ProductImportResultDTO of(int index, String sku, ProductImportStatus status, Long productId) {
+        return new ProductImportResultDTO(index, sku, status, productId, null);
+    }
+
+    public static ProductImportResultDTO failed(int index, String sku, String error) {
+        return new ProductImportResultDTO(index, sku, ProductImportStatus.FAILED, null, error);
+    }
+}
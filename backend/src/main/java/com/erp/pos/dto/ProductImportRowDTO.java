@@ -0,0 +1,38 @@
+package com.erp.pos.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+
+@Schema(description = "One product of a catalog import (a CSV row or an NDJSON line). On update, absent fields keep their current value.")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ProductImportRowDTO {
+    @Schema(description = "Product SKU; the product with this SKU is updated, or created if there is none")
+    private String sku;
+
+    @Schema(description = "Product name (required for new products)")
+    private String name;
+
+    @Schema(description = "Product description")
+    private String description;
+
+    @Schema(description = "Product price (required for new products)")
+    private BigDecimal price;
+
+    @Schema(description = "Product stock quantity (required for new products)")
+    private Integer stockQuantity;
+
+    @Schema(description = "Product barcode")
+    private String barcode;
+
+    @Schema(description = "Name of an existing category (case-insensitive)")
+    private String category;
+
+    @Schema(description = "Product active status (new products default to active)")
+    private Boolean active;
+}
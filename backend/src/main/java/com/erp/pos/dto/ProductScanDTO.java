@@ -0,0 +1,43 @@
+package com.erp.pos.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+
+@Schema(description = "Product summary returned for a scanned barcode or SKU")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ProductScanDTO {
+    @Schema(description = "Product ID")
+    private Long id;
+
+    @Schema(description = "Product name")
+    private String name;
+
+    @Schema(description = "Product price")
+    private BigDecimal price;
+
+    @Schema(description = "Product SKU")
+    private String sku;
+
+    @Schema(description = "Product barcode")
+    private String barcode;
+
+    @Schema(description = "Category ID")
+    private Long categoryId;
+
+    @Schema(description = "Category name")
+    private String categoryName;
+
+    @Schema(description = "Product active status")
+    private boolean active;
+
+    public static ProductScanDTO fromProduct(ProductDTO product) {
+        return new ProductScanDTO(product.getId(), product.getName(), product.getPrice(), product.getSku(),
+                product.getBarcode(), product.getCategoryId(), product.getCategoryName(), product.isActive());
+    }
+}
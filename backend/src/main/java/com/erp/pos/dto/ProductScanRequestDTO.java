@@ -0,0 +1,22 @@
+package com.erp.pos.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Schema(description = "Barcodes or SKUs scanned together, e.g. a basket or a queued offline scan buffer")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ProductScanRequestDTO {
+    @Schema(description = "Scanned barcodes or SKUs, in scan order")
+    @NotEmpty
+    @Size(max = 500)
+    private List<String> codes = new ArrayList<>();
+}
@@ -0,0 +1,18 @@
+package com.erp.pos.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Schema(description = "Lookup result for one scanned code")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ProductScanResultDTO {
+    @Schema(description = "The code as scanned")
+    private String code;
+
+    @Schema(description = "Product with this barcode or SKU; null when the code is unknown")
+    private ProductScanDTO product;
+}
@@ -0,0 +1,43 @@
+package com.erp.pos.dto;
+
+import com.erp.pos.enums.RollupGranularity;
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+@Data
+@NoArgsConstructor
+@Schema(description = "Aggregated sales for one time bucket")
+public class SalesBucketDTO {
+    @Schema(description = "Bucket size", enumAsRef = true)
+    private RollupGranularity granularity;
+
+    @Schema(description = "Start of the bucket (inclusive)")
+    private LocalDateTime bucketStart;
+
+    @Schema(description = "Total revenue of completed orders in the bucket")
+    private BigDecimal revenue = BigDecimal.ZERO;
+
+    @Schema(description = "Number of completed orders in the bucket")
+    private long orderCount;
+
+    @Schema(description = "Total number of guests served in the bucket")
+    private long guests;
+
+    @Schema(description = "Revenue broken down by order type")
+    private Map<String, BigDecimal> revenueByOrderType = new LinkedHashMap<>();
+
+    @Schema(description = "Order count broken down by order type")
+    private Map<String, Long> ordersByOrderType = new LinkedHashMap<>();
+
+    @Schema(description = "Revenue broken down by payment method")
+    private Map<String, BigDecimal> revenueByPaymentMethod = new LinkedHashMap<>();
+
+    @Schema(description = "Order count broken down by payment method")
+    private Map<String, Long> ordersByPaymentMethod = new LinkedHashMap<>();
+}
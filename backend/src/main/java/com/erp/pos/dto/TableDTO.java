@@ -1,6 +1,7 @@
 package com.erp.pos.dto;
 
 import com.erp.pos.enums.TableStatus;
+import com.erp.pos.model.Order;
 import com.erp.pos.model.RestaurantTable;
 import io.swagger.v3.oas.annotations.media.Schema;
 import lombok.AllArgsConstructor;
@@ -76,4 +77,29 @@ public class TableDTO {
 
         return dto;
     }
+
+    // Convert back to a detached RestaurantTable; the current order is a reference carrying only its ID
+    public RestaurantTable toEntity() {
+        RestaurantTable table = new RestaurantTable();
+        table.setId(id);
+        table.setTableNumber(tableNumber);
+        table.setCapacity(capacity);
+        table.setStatus(status);
+        table.setLocation(location);
+        table.setPositionX(positionX);
+        table.setPositionY(positionY);
+        table.setWidth(width);
+        table.setHeight(height);
+        table.setShape(shape);
+        table.setCreatedAt(createdAt);
+        table.setUpdatedAt(updatedAt);
+
+        if (currentOrderId != null) {
+            Order currentOrder = new Order();
+            currentOrder.setId(currentOrderId);
+            table.setCurrentOrder(currentOrder);
+        }
+
+        return table;
+    }
 }
@@ -0,0 +1,21 @@
+package com.erp.pos.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Schema(description = "Tables changed since the previous floor-plan event")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class TableDeltaDTO {
+    @Schema(description = "Current state of every table created or changed")
+    private List<TableDTO> tables = new ArrayList<>();
+
+    @Schema(description = "IDs of deleted tables")
+    private List<Long> removedIds = new ArrayList<>();
+}
@@ -45,6 +45,9 @@ public class TableOrderResponseDTO {
     @Schema(description = "Total amount of the order")
     private BigDecimal totalAmount;
 
+    @Schema(description = "Version of the server price book that priced the order; null when the client supplied the prices")
+    private Long priceBookVersion;
+
     @Schema(description = "Order status", enumAsRef = true)
     private OrderStatus status;
 
@@ -102,6 +105,7 @@ public class TableOrderResponseDTO {
         }
 
         dto.setTotalAmount(order.getTotalAmount());
+        dto.setPriceBookVersion(order.getPriceBookVersion());
         dto.setStatus(order.getStatus());
         dto.setOrderType(order.getOrderType());
         dto.setPaymentMethod(order.getPaymentMethod());
@@ -120,4 +124,40 @@ public class TableOrderResponseDTO {
 
         return dto;
     }
+
+    // Convert from the order columns of a flat order/item projection row; items are added separately
+    public static TableOrderResponseDTO fromRow(OrderLineRow row) {
+        TableOrderResponseDTO dto = new TableOrderResponseDTO();
+        dto.setId(row.getOrderId());
+        dto.setOrderNumber(row.getOrderNumber());
+        dto.setOrderDate(row.getOrderDate());
+        dto.setCustomerId(row.getCustomerId());
+        dto.setCustomerName(row.getCustomerName());
+        dto.setTableId(row.getTableId());
+        dto.setTableNumber(row.getTableNumber());
+        dto.setTotalAmount(row.getTotalAmount());
+        dto.setPriceBookVersion(row.getPriceBookVersion());
+        dto.setStatus(row.getStatus());
+        dto.setOrderType(row.getOrderType());
+        dto.setPaymentMethod(row.getPaymentMethod());
+        dto.setPaymentReference(row.getPaymentReference());
+        dto.setNumberOfGuests(row.getNumberOfGuests());
+        dto.setSpecialInstructions(row.getSpecialInstructions());
+        dto.setCreatedById(row.getCreatedById());
+        dto.setCreatedByUsername(row.getCreatedByUsername());
+        dto.setCreatedAt(row.getCreatedAt());
+        dto.setUpdatedAt(row.getUpdatedAt());
+        return dto;
+    }
+
+    // Convert from all projection rows of a single order
+    public static TableOrderResponseDTO fromRows(List<OrderLineRow> rows) {
+        TableOrderResponseDTO dto = fromRow(rows.get(0));
+        for (OrderLineRow row : rows) {
+            if (row.getItemId() != null) {
+                dto.getOrderItems().add(OrderItemDTO.fromRow(row));
+            }
+        }
+        return dto;
+    }
 }
@@ -0,0 +1,16 @@
+package com.erp.pos.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.time.LocalDateTime;
+
+/**
+ * Last modification time of a table, used to detect changes made by other instances
+ */
+@Getter
+@AllArgsConstructor
+public class TableVersionRow {
+    private Long id;
+    private LocalDateTime updatedAt;
+}
@@ -0,0 +1,15 @@
+package com.erp.pos.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * Current security stamp and active flag of a user, used to check JWTs without loading the user
+ */
+@Getter
+@AllArgsConstructor
+public class UserStampRow {
+    private Long id;
+    private Long securityStamp;
+    private boolean active;
+}
@@ -0,0 +1,8 @@
+package com.erp.pos.enums;
+
+/**
+ * Outcome of one order in a bulk ingestion request
+ */
+public enum BatchOrderStatus {
+    CREATED, DUPLICATE, FAILED
+}
@@ -0,0 +1,8 @@
+package com.erp.pos.enums;
+
+/**
+ * Outcome of one row of a product import
+ */
+public enum ProductImportStatus {
+    CREATED, UPDATED, FAILED
+}
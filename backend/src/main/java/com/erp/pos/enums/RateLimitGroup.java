@@ -0,0 +1,45 @@
+package com.erp.pos.enums;
+
+/**
+ * Endpoint groups that get their own request rate limit per terminal
+ */
+public enum RateLimitGroup {
+    AUTH("auth"),
+    CART_WRITES("cart-writes"),
+    DASHBOARD("dashboard"),
+    WRITES("writes"),
+    READS("reads");
+
+    private final String propertyName;
+
+    RateLimitGroup(String propertyName) {
+        this.propertyName = propertyName;
+    }
+
+    /**
+     * Name used in the {@code app.rate-limit.<name>.*} properties
+     */
+    public String getPropertyName() {
+        return propertyName;
+    }
+
+    /**
+     * Group for a request under /api
+     */
+    public static RateLimitGroup of(String method, String path) {
+        if (path.startsWith("/api/auth/")) {
+            return AUTH;
+        }
+        if (path.startsWith("/api/dashboard")) {
+            return DASHBOARD;
+        }
+        // A batch scan is a lookup sent as POST for its body
+        if ("GET".equals(method) || "HEAD".equals(method) || path.equals("/api/products/scan")) {
+            return READS;
+        }
+        if (path.startsWith("/api/table-orders/")) {
+            return CART_WRITES;
+        }
+        return WRITES;
+    }
+}
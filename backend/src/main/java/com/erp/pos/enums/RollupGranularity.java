@@ -0,0 +1,46 @@
+package com.erp.pos.enums;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+
+/**
+ * Enum for sales rollup bucket sizes
+ */
+public enum RollupGranularity {
+    HOUR, DAY, MONTH;
+
+    /**
+     * Truncate a timestamp to the start of the bucket that contains it
+     */
+    public LocalDateTime bucketStart(LocalDateTime time) {
+        switch (this) {
+            case HOUR:
+                return time.truncatedTo(ChronoUnit.HOURS);
+            case DAY:
+                return time.truncatedTo(ChronoUnit.DAYS);
+            default:
+                return time.truncatedTo(ChronoUnit.DAYS).withDayOfMonth(1);
+        }
+    }
+
+    /**
+     * Start of the bucket following the one that starts at the given time
+     */
+    public LocalDateTime nextBucket(LocalDateTime bucketStart) {
+        switch (this) {
+            case HOUR:
+                return bucketStart.plusHours(1);
+            case DAY:
+                return bucketStart.plusDays(1);
+            default:
+                return bucketStart.plusMonths(1);
+        }
+    }
+
+    /**
+     * Unit name understood by PostgreSQL date_trunc
+     */
+    public String sqlUnit() {
+        return name().toLowerCase();
+    }
+}
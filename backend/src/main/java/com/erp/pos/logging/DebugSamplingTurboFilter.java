@@ -0,0 +1,49 @@
+package com.erp.pos.logging;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.turbo.TurboFilter;
+import ch.qos.logback.core.spi.FilterReply;
+import org.slf4j.Marker;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Keeps roughly one in {@code rate} DEBUG and TRACE events from loggers under {@code loggerPrefix}
+ * and denies the rest before a message is formatted. INFO and above always pass, as do
+ * {@code isDebugEnabled()} checks, so guarded blocks still run and emit sampled output.
+ */
+public class DebugSamplingTurboFilter extends TurboFilter {
+
+    private static final LongAdder SAMPLED_OUT = new LongAdder();
+
+    private int rate = 1;
+    private String loggerPrefix = "com.erp.pos";
+
+    public static long sampledOutCount() {
+        return SAMPLED_OUT.sum();
+    }
+
+    @Override
+    public FilterReply decide(Marker marker, Logger logger, Level level, String format, Object[] params, Throwable t) {
+        if (rate <= 1 || format == null || level.isGreaterOrEqual(Level.INFO)
+                || !level.isGreaterOrEqual(logger.getEffectiveLevel())
+                || !logger.getName().startsWith(loggerPrefix)) {
+            return FilterReply.NEUTRAL;
+        }
+        if (ThreadLocalRandom.current().nextInt(rate) == 0) {
+            return FilterReply.NEUTRAL;
+        }
+        SAMPLED_OUT.increment();
+        return FilterReply.DENY;
+    }
+
+    public void setRate(int rate) {
+        this.rate = rate;
+    }
+
+    public void setLoggerPrefix(String loggerPrefix) {
+        this.loggerPrefix = loggerPrefix;
+    }
+}
@@ -0,0 +1,26 @@
+package com.erp.pos.logging;
+
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.Appender;
+import net.logstash.logback.appender.listener.LoggingEventAppenderListenerImpl;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Counts log events the async appender dropped because its ring buffer was full. Logback creates
+ * the listener before the application context exists, so the count is static and exported by
+ * {@link LoggingMetrics}.
+ */
+public class DroppedEventListener extends LoggingEventAppenderListenerImpl {
+
+    private static final LongAdder DROPPED = new LongAdder();
+
+    public static long droppedCount() {
+        return DROPPED.sum();
+    }
+
+    @Override
+    public void eventAppendFailed(Appender<ILoggingEvent> appender, ILoggingEvent event, Throwable reason) {
+        DROPPED.increment();
+    }
+}
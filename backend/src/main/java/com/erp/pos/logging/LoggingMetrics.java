@@ -0,0 +1,27 @@
+package com.erp.pos.logging;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+/**
+ * Exports the counters of the logging pipeline, which lives outside the application context
+ */
+@Component
+public class LoggingMetrics {
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @PostConstruct
+    void init() {
+        FunctionCounter.builder("logging.events.dropped", this, ignored -> DroppedEventListener.droppedCount())
+                .description("Log events dropped because the async appender was full")
+                .register(meterRegistry);
+        FunctionCounter.builder("logging.events.sampled_out", this, ignored -> DebugSamplingTurboFilter.sampledOutCount())
+                .description("Debug events skipped by sampling")
+                .register(meterRegistry);
+    }
+}
@@ -0,0 +1,27 @@
+package com.erp.pos.model;
+
+import jakarta.persistence.*;
+import jakarta.validation.constraints.NotNull;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * The catalog change counter, a single row. Catalog writes take their change numbers from it
+ * inside the database (V16); the application only reads it.
+ */
+@Entity
+@Table(name = "catalog_changes")
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class CatalogChange {
+
+    @Id
+    private Integer id;
+
+    @NotNull
+    private Long seq;
+}
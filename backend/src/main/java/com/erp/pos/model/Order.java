@@ -22,11 +22,21 @@ import java.util.List;
 @Setter
 @NoArgsConstructor
 @AllArgsConstructor
-public class Order extends BaseEntity {
+public class Order extends AuditableEntity {
+
+    // Pooled sequence (blocks of 50) instead of IDENTITY so inserts can be JDBC-batched
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "orders_seq")
+    @SequenceGenerator(name = "orders_seq", sequenceName = "orders_id_seq", allocationSize = 50)
+    private Long id;
 
     @Column(unique = true)
     private String orderNumber;
 
+    // Client-generated key that makes replays from offline terminals safe
+    @Column(unique = true, length = 100)
+    private String idempotencyKey;
+
     @NotNull
     private LocalDateTime orderDate;
 
@@ -49,6 +59,9 @@ public class Order extends BaseEntity {
     @NotNull
     private BigDecimal totalAmount;
 
+    // Price book version that priced the latest line change of a table order; null when the client supplied the prices
+    private Long priceBookVersion;
+
     @Enumerated(EnumType.STRING)
     private OrderStatus status;
 
@@ -0,0 +1,29 @@
+package com.erp.pos.model;
+
+import jakarta.persistence.*;
+import jakarta.validation.constraints.NotNull;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.LocalDate;
+
+/**
+ * Per-day order number counter. Backend instances reserve blocks of numbers from this row
+ * and hand them out from memory.
+ */
+@Entity
+@Table(name = "order_number_counters")
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class OrderNumberCounter {
+
+    @Id
+    private LocalDate businessDate;
+
+    @NotNull
+    private Long nextValue;
+}
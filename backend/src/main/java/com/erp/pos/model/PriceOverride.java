@@ -0,0 +1,59 @@
+package com.erp.pos.model;
+
+import jakarta.persistence.*;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalTime;
+
+/**
+ * A time-window price for one product or for every product of a category, e.g. a happy hour.
+ * Either {@code price} replaces the base price or {@code percentOff} is taken off it.
+ */
+@Entity
+@Table(name = "price_overrides")
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class PriceOverride extends BaseEntity {
+
+    @NotBlank
+    @Size(max = 100)
+    private String name;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "product_id")
+    private Product product;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "category_id")
+    private Category category;
+
+    @Column(precision = 10, scale = 2)
+    private BigDecimal price;
+
+    @Column(precision = 5, scale = 2)
+    private BigDecimal percentOff;
+
+    // Comma-separated DayOfWeek names, e.g. "FRIDAY,SATURDAY"; null applies every day
+    @Column(length = 70)
+    private String daysOfWeek;
+
+    // Null start and end apply all day; an end not after the start runs past midnight
+    private LocalTime startTime;
+
+    private LocalTime endTime;
+
+    private LocalDate validFrom;
+
+    private LocalDate validTo;
+
+    private boolean active = true;
+}
@@ -9,6 +9,7 @@ import lombok.AllArgsConstructor;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
+import org.hibernate.annotations.ColumnDefault;
 
 import java.math.BigDecimal;
 
@@ -18,7 +19,13 @@ import java.math.BigDecimal;
 @Setter
 @NoArgsConstructor
 @AllArgsConstructor
-public class Product extends BaseEntity {
+public class Product extends AuditableEntity {
+
+    // Pooled sequence (blocks of 50) instead of IDENTITY so imported products can be JDBC-batched
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "products_seq")
+    @SequenceGenerator(name = "products_seq", sequenceName = "products_id_seq", allocationSize = 50)
+    private Long id;
 
     @NotBlank
     @Size(max = 100)
@@ -46,4 +53,9 @@ public class Product extends BaseEntity {
     private Category category;
 
     private boolean active = true;
+
+    // Number of the catalog change that last wrote the row, set by the database in commit order (V16)
+    @Column(insertable = false, updatable = false)
+    @ColumnDefault("0")
+    private long changeSeq;
 }
@@ -0,0 +1,38 @@
+package com.erp.pos.model;
+
+import jakarta.persistence.*;
+import jakarta.validation.constraints.NotNull;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * Single-row aggregate of completed order revenue, maintained incrementally
+ * as orders are completed and periodically reconciled against the orders table.
+ */
+@Entity
+@Table(name = "revenue_summary")
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class RevenueSummary {
+
+    public static final Long SINGLETON_ID = 1L;
+
+    @Id
+    private Long id;
+
+    @NotNull
+    @Column(precision = 14, scale = 2)
+    private BigDecimal totalRevenue;
+
+    @NotNull
+    private Long completedOrders;
+
+    private LocalDateTime reconciledAt;
+}
@@ -0,0 +1,59 @@
+package com.erp.pos.model;
+
+import jakarta.persistence.*;
+import jakarta.validation.constraints.NotNull;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * Pre-aggregated sales for one time bucket, broken down by order type and payment method.
+ * Rows are written with native upserts, so this entity is read-only from JPA's point of view.
+ */
+@Entity
+@Table(name = "sales_rollups",
+       uniqueConstraints = {
+           @UniqueConstraint(columnNames = {"granularity", "bucket_start", "order_type", "payment_method"})
+       })
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class SalesRollup {
+
+    public static final String UNSPECIFIED = "UNSPECIFIED";
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @NotNull
+    @Column(length = 10)
+    private String granularity;
+
+    @NotNull
+    @Column(name = "bucket_start")
+    private LocalDateTime bucketStart;
+
+    @NotNull
+    @Column(name = "order_type", length = 20)
+    private String orderType;
+
+    @NotNull
+    @Column(name = "payment_method", length = 20)
+    private String paymentMethod;
+
+    @NotNull
+    @Column(precision = 14, scale = 2)
+    private BigDecimal revenue;
+
+    @NotNull
+    private Long orderCount;
+
+    @NotNull
+    private Long guests;
+}
@@ -8,6 +8,7 @@ import lombok.AllArgsConstructor;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
+import org.hibernate.annotations.ColumnDefault;
 
 import java.util.HashSet;
 import java.util.Set;
@@ -48,4 +49,9 @@ public class User extends BaseEntity {
     private Set<Role> roles = new HashSet<>();
 
     private boolean active = true;
+
+    // Bumped by the database whenever roles, password or active change; tokens carry the value they were issued with
+    @ColumnDefault("0")
+    @Column(nullable = false, insertable = false, updatable = false)
+    private Long securityStamp;
 }
@@ -0,0 +1,74 @@
+package com.erp.pos.monitoring;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.io.IOException;
+
+/**
+ * Collects the database work of each request. The totals up to the point the response body is
+ * written go out in the {@code X-DB-*} headers; the final totals, including lazy loading during
+ * serialization, are recorded as {@code db.request.*} metrics by route and logged at debug.
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE + 1)
+public class DbStatsFilter extends OncePerRequestFilter {
+    private static final Logger logger = LoggerFactory.getLogger(DbStatsFilter.class);
+
+    public static final String ROUND_TRIPS_HEADER = "X-DB-Round-Trips";
+    public static final String STATEMENTS_HEADER = "X-DB-Statements";
+    public static final String TIME_HEADER = "X-DB-Time-Ms";
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        RequestDbStats.start();
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            RequestDbStats stats = RequestDbStats.stop();
+            record(request, stats);
+        }
+    }
+
+    private void record(HttpServletRequest request, RequestDbStats stats) {
+        Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        String uri = pattern != null ? pattern.toString() : "UNKNOWN";
+        String method = request.getMethod();
+
+        DistributionSummary.builder("db.request.statements")
+                .description("SQL statements executed per request")
+                .tags("method", method, "uri", uri)
+                .register(meterRegistry)
+                .record(stats.getStatements());
+        DistributionSummary.builder("db.request.round_trips")
+                .description("Database round trips per request")
+                .tags("method", method, "uri", uri)
+                .register(meterRegistry)
+                .record(stats.getRoundTrips());
+        DistributionSummary.builder("db.request.time")
+                .description("Time spent in JDBC per request")
+                .baseUnit("milliseconds")
+                .tags("method", method, "uri", uri)
+                .register(meterRegistry)
+                .record(stats.getJdbcMillis());
+
+        logger.debug("{} {}: {} statements, {} round trips, {} ms in JDBC", method, request.getRequestURI(),
+                stats.getStatements(), stats.getRoundTrips(), stats.getJdbcMillis());
+    }
+}
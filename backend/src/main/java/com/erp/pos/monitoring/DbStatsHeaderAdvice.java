@@ -0,0 +1,36 @@
+package com.erp.pos.monitoring;
+
+import org.springframework.core.MethodParameter;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.server.ServerHttpRequest;
+import org.springframework.http.server.ServerHttpResponse;
+import org.springframework.web.bind.annotation.ControllerAdvice;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyAdvice;
+
+/**
+ * Adds the request's database statistics to response bodies, just before they are written
+ */
+@ControllerAdvice
+public class DbStatsHeaderAdvice implements ResponseBodyAdvice<Object> {
+
+    @Override
+    public boolean supports(MethodParameter returnType, Class<? extends HttpMessageConverter<?>> converterType) {
+        return true;
+    }
+
+    @Override
+    public Object beforeBodyWrite(Object body, MethodParameter returnType, MediaType selectedContentType,
+                                  Class<? extends HttpMessageConverter<?>> selectedConverterType,
+                                  ServerHttpRequest request, ServerHttpResponse response) {
+        RequestDbStats stats = RequestDbStats.current();
+        if (stats != null) {
+            HttpHeaders headers = response.getHeaders();
+            headers.set(DbStatsFilter.ROUND_TRIPS_HEADER, String.valueOf(stats.getRoundTrips()));
+            headers.set(DbStatsFilter.STATEMENTS_HEADER, String.valueOf(stats.getStatements()));
+            headers.set(DbStatsFilter.TIME_HEADER, String.valueOf(stats.getJdbcMillis()));
+        }
+        return body;
+    }
+}
@@ -0,0 +1,154 @@
+package com.erp.pos.monitoring;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import net.ttddyy.dsproxy.ExecutionInfo;
+import net.ttddyy.dsproxy.QueryInfo;
+import net.ttddyy.dsproxy.listener.MethodExecutionContext;
+import net.ttddyy.dsproxy.listener.MethodExecutionListener;
+import net.ttddyy.dsproxy.listener.QueryExecutionListener;
+import net.ttddyy.dsproxy.proxy.ParameterSetOperation;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * JDBC listener behind the data source proxy. Adds every execution to the request's
+ * {@link RequestDbStats}, times it as {@code db.query} by statement type and logs executions at or
+ * above the slow query threshold with their parameters and the application method that issued them.
+ */
+public class DbStatsListener implements QueryExecutionListener, MethodExecutionListener {
+    private static final Logger slowQueryLogger = LoggerFactory.getLogger("com.erp.pos.SlowQuery");
+
+    private static final int MAX_PARAMETER_LENGTH = 100;
+
+    // Resolved on first use; the data source is created before the registry
+    private final ObjectProvider<MeterRegistry> meterRegistry;
+    private final long slowQueryMs;
+    private final Map<String, Timer> timers = new ConcurrentHashMap<>();
+
+    public DbStatsListener(ObjectProvider<MeterRegistry> meterRegistry, long slowQueryMs) {
+        this.meterRegistry = meterRegistry;
+        this.slowQueryMs = slowQueryMs;
+    }
+
+    @Override
+    public void beforeQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+    }
+
+    @Override
+    public void afterQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+        long elapsedMs = execInfo.getElapsedTime();
+        int statementCount = statementCount(execInfo, queryInfoList);
+
+        RequestDbStats stats = RequestDbStats.current();
+        if (stats != null) {
+            stats.recordExecution(statementCount, elapsedMs);
+        }
+
+        String type = queryInfoList.isEmpty() ? "other" : statementType(queryInfoList.get(0).getQuery());
+        boolean batch = execInfo.isBatch();
+        timers.computeIfAbsent(type + ":" + batch, key -> Timer.builder("db.query")
+                        .description("JDBC statement executions")
+                        .tag("type", type)
+                        .tag("batch", String.valueOf(batch))
+                        .register(meterRegistry.getObject()))
+                .record(elapsedMs, TimeUnit.MILLISECONDS);
+
+        if (elapsedMs >= slowQueryMs) {
+            slowQueryLogger.warn("Slow query: {} ms, {} statement(s) from {}: {}", elapsedMs, statementCount,
+                    callingMethod(), describe(queryInfoList));
+        }
+    }
+
+    @Override
+    public void beforeMethod(MethodExecutionContext executionContext) {
+    }
+
+    @Override
+    public void afterMethod(MethodExecutionContext executionContext) {
+        // Called for every JDBC method; only transaction ends are round trips of their own
+        String method = executionContext.getMethod().getName();
+        if ("commit".equals(method) || "rollback".equals(method)) {
+            RequestDbStats stats = RequestDbStats.current();
+            if (stats != null) {
+                stats.recordTransactionEnd(executionContext.getElapsedTime());
+            }
+        }
+    }
+
+    private static int statementCount(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+        if (!execInfo.isBatch()) {
+            return 1;
+        }
+        // A prepared batch is one query with a parameter set per statement; a plain batch is a list of queries
+        if (queryInfoList.size() == 1) {
+            return Math.max(1, queryInfoList.get(0).getParametersList().size());
+        }
+        return queryInfoList.size();
+    }
+
+    private static String statementType(String sql) {
+        String trimmed = sql.stripLeading();
+        int end = 0;
+        while (end < trimmed.length() && Character.isLetter(trimmed.charAt(end))) {
+            end++;
+        }
+        String keyword = trimmed.substring(0, end).toLowerCase(Locale.ROOT);
+        switch (keyword) {
+            case "select":
+            case "insert":
+            case "update":
+            case "delete":
+                return keyword;
+            default:
+                return "other";
+        }
+    }
+
+    /**
+     * The innermost application method on the stack, skipping this package and Spring proxies
+     */
+    private static String callingMethod() {
+        return StackWalker.getInstance().walk(frames -> frames
+                .filter(frame -> frame.getClassName().startsWith("com.erp.pos.")
+                        && !frame.getClassName().startsWith("com.erp.pos.monitoring.")
+                        && !frame.getClassName().contains("$$"))
+                .findFirst()
+                .map(frame -> frame.getClassName().substring(frame.getClassName().lastIndexOf('.') + 1)
+                        + "." + frame.getMethodName() + ":" + frame.getLineNumber())
+                .orElse("unknown"));
+    }
+
+    private static String describe(List<QueryInfo> queryInfoList) {
+        return queryInfoList.stream()
+                .map(queryInfo -> queryInfo.getQuery() + describeParameters(queryInfo.getParametersList()))
+                .collect(Collectors.joining("; "));
+    }
+
+    private static String describeParameters(List<List<ParameterSetOperation>> parametersList) {
+        if (parametersList.isEmpty()) {
+            return "";
+        }
+        // A batch repeats the same statement, so only its first parameter set is shown
+        String first = parametersList.get(0).stream()
+                .filter(operation -> operation.getArgs() != null && operation.getArgs().length > 1)
+                .map(operation -> truncate(String.valueOf(operation.getArgs()[1])))
+                .collect(Collectors.joining(", ", " [", "]"));
+        if (parametersList.size() > 1) {
+            return first + " (+" + (parametersList.size() - 1) + " more)";
+        }
+        return first;
+    }
+
+    private static String truncate(String value) {
+        return value.length() > MAX_PARAMETER_LENGTH ? value.substring(0, MAX_PARAMETER_LENGTH) + "..." : value;
+    }
+}
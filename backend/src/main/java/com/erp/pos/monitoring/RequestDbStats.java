@@ -0,0 +1,58 @@
+package com.erp.pos.monitoring;
+
+/**
+ * Database work done on the current request's thread: SQL statements executed, round trips to
+ * the server and time spent in JDBC. Only collected between {@link #start()} and {@link #stop()};
+ * work outside a request is not counted.
+ */
+public final class RequestDbStats {
+
+    private static final ThreadLocal<RequestDbStats> CURRENT = new ThreadLocal<>();
+
+    private int statements;
+    private int roundTrips;
+    private long jdbcMillis;
+
+    private RequestDbStats() {
+    }
+
+    public static void start() {
+        CURRENT.set(new RequestDbStats());
+    }
+
+    /**
+     * Stats of the request on this thread, or null when none are being collected
+     */
+    public static RequestDbStats current() {
+        return CURRENT.get();
+    }
+
+    public static RequestDbStats stop() {
+        RequestDbStats stats = CURRENT.get();
+        CURRENT.remove();
+        return stats;
+    }
+
+    void recordExecution(int statementCount, long elapsedMillis) {
+        statements += statementCount;
+        roundTrips++;
+        jdbcMillis += elapsedMillis;
+    }
+
+    void recordTransactionEnd(long elapsedMillis) {
+        roundTrips++;
+        jdbcMillis += elapsedMillis;
+    }
+
+    public int getStatements() {
+        return statements;
+    }
+
+    public int getRoundTrips() {
+        return roundTrips;
+    }
+
+    public long getJdbcMillis() {
+        return jdbcMillis;
+    }
+}
@@ -0,0 +1,25 @@
+package com.erp.pos.repository;
+
+import com.erp.pos.model.CatalogChange;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import java.util.Optional;
+
+@Repository
+public interface CatalogChangeRepository extends JpaRepository<CatalogChange, Integer> {
+
+    /**
+     * The number of the last committed catalog write. Numbers are handed out in commit order, so
+     * every write with this number or a lower one has committed.
+     */
+    @Query("select c.seq from CatalogChange c where c.id = 1")
+    Optional<Long> findLastSeq();
+
+    @Query(value = "SELECT count(*) FROM pg_trigger WHERE NOT tgisinternal " +
+                   "AND tgname IN ('trg_products_catalog_change', 'trg_categories_catalog_change', " +
+                   "'trg_price_overrides_catalog_change', 'trg_products_change_seq', 'trg_categories_stamp_products')",
+           nativeQuery = true)
+    long countChangeTriggers();
+}
@@ -2,6 +2,7 @@ package com.erp.pos.repository;
 
 import com.erp.pos.model.Category;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
@@ -11,4 +12,7 @@ import java.util.Optional;
 public interface CategoryRepository extends JpaRepository<Category, Long> {
     Optional<Category> findByName(String name);
     List<Category> findByNameContainingIgnoreCase(String name);
+
+    @Query("select c from Category c order by c.id")
+    List<Category> findAllOrdered();
 }
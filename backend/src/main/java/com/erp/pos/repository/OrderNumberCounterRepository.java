@@ -0,0 +1,28 @@
+package com.erp.pos.repository;
+
+import com.erp.pos.model.OrderNumberCounter;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+
+@Repository
+public interface OrderNumberCounterRepository extends JpaRepository<OrderNumberCounter, LocalDate> {
+
+    /**
+     * Atomically reserve {@code blockSize} numbers for the given day and return the first one.
+     * Runs in its own short transaction so the counter row is never locked for the length of
+     * an order transaction, and a rolled-back order does not give its block back. Callers must not
+     * hold a connection of their own while calling it, as that would take a second one from the pool.
+     */
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    @Query(value = "INSERT INTO order_number_counters (business_date, next_value) VALUES (:businessDate, 1 + :blockSize) " +
+                   "ON CONFLICT (business_date) DO UPDATE SET next_value = order_number_counters.next_value + :blockSize " +
+                   "RETURNING next_value - :blockSize",
+           nativeQuery = true)
+    Long allocateBlock(@Param("businessDate") LocalDate businessDate, @Param("blockSize") long blockSize);
+}
@@ -1,17 +1,21 @@
 package com.erp.pos.repository;
 
+import com.erp.pos.dto.OrderKeyRow;
 import com.erp.pos.enums.OrderStatus;
 import com.erp.pos.enums.OrderType;
 import com.erp.pos.model.Order;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
 @Repository
-public interface OrderRepository extends JpaRepository<Order, Long> {
+public interface OrderRepository extends JpaRepository<Order, Long>, OrderRepositoryCustom {
     Optional<Order> findByOrderNumber(String orderNumber);
     List<Order> findByCustomerId(Long customerId);
     List<Order> findByCreatedById(Long userId);
@@ -21,4 +25,15 @@ public interface OrderRepository extends JpaRepository<Order, Long> {
     List<Order> findByOrderType(OrderType orderType);
     List<Order> findByTableId(Long tableId);
     List<Order> findTop5ByOrderByOrderDateDesc();
+
+    // The creator's roles are left to their own select: joined next to the items bag, every item
+    // would be repeated once per role
+    @Query("select o from Order o left join fetch o.table left join fetch o.customer left join fetch o.createdBy " +
+           "left join fetch o.orderItems i left join fetch i.product p left join fetch p.category " +
+           "where o.id = :id")
+    Optional<Order> findWithItemsById(@Param("id") Long id);
+
+    @Query("select new com.erp.pos.dto.OrderKeyRow(o.idempotencyKey, o.id, o.orderNumber) " +
+           "from Order o where o.idempotencyKey in :keys")
+    List<OrderKeyRow> findKeysByIdempotencyKeyIn(@Param("keys") Collection<String> keys);
 }
@@ -0,0 +1,40 @@
+package com.erp.pos.repository;
+
+import com.erp.pos.dto.OrderCursor;
+import com.erp.pos.dto.OrderFilter;
+import com.erp.pos.dto.OrderLineRow;
+import com.erp.pos.model.Order;
+
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * Order queries that need dynamic criteria, keyset pagination or forward-only streaming.
+ */
+public interface OrderRepositoryCustom {
+
+    /**
+     * Fetch up to {@code limit} orders sorted by (orderDate desc, id desc), starting after the cursor,
+     * with their customer, table, creator and items already loaded.
+     */
+    List<Order> findPage(OrderFilter filter, OrderCursor after, int limit);
+
+    /**
+     * Stream matching orders joined with their items as flat rows, sorted by
+     * (orderDate desc, id desc) so rows of one order are contiguous.
+     * Must be consumed and closed inside a transaction.
+     */
+    Stream<OrderLineRow> streamLines(OrderFilter filter);
+
+    /**
+     * Load an order with its items, products, table, customer and creator as flat rows in one query.
+     */
+    List<OrderLineRow> findLinesByOrderId(Long orderId);
+
+    /**
+     * Load the order currently assigned to a table as flat rows in one query.
+     *
+     * @param activeOnly when true, COMPLETED and CANCELLED orders are excluded
+     */
+    List<OrderLineRow> findCurrentLinesByTableId(Long tableId, boolean activeOnly);
+}
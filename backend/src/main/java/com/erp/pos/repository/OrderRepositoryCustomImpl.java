@@ -0,0 +1,137 @@
+package com.erp.pos.repository;
+
+import com.erp.pos.dto.OrderCursor;
+import com.erp.pos.dto.OrderFilter;
+import com.erp.pos.dto.OrderLineRow;
+import com.erp.pos.enums.OrderStatus;
+import com.erp.pos.model.Order;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.TypedQuery;
+import org.hibernate.jpa.HibernateHints;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+public class OrderRepositoryCustomImpl implements OrderRepositoryCustom {
+
+    private static final int STREAM_FETCH_SIZE = 500;
+
+    static final String LINE_SELECT =
+            "select new com.erp.pos.dto.OrderLineRow(o.id, o.orderNumber, o.orderDate, c.id, c.name, " +
+            "t.id, t.tableNumber, o.totalAmount, o.priceBookVersion, o.status, o.orderType, o.paymentMethod, o.paymentReference, " +
+            "o.numberOfGuests, o.specialInstructions, u.id, u.username, o.createdAt, o.updatedAt, " +
+            "i.id, p.id, p.name, i.quantity, i.unitPrice, i.subtotal) " +
+            "from Order o left join o.customer c left join o.table t left join o.createdBy u " +
+            "left join o.orderItems i left join i.product p";
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public List<Order> findPage(OrderFilter filter, OrderCursor after, int limit) {
+        // The page is chosen by id first: fetching collections in the same query would make the row
+        // limit apply in memory
+        StringBuilder jpql = new StringBuilder("select o.id from Order o where 1 = 1");
+        appendFilter(jpql, filter);
+        if (after != null) {
+            jpql.append(" and (o.orderDate < :afterDate or (o.orderDate = :afterDate and o.id < :afterId))");
+        }
+        jpql.append(" order by o.orderDate desc, o.id desc");
+
+        TypedQuery<Long> query = entityManager.createQuery(jpql.toString(), Long.class);
+        bindFilter(query, filter);
+        if (after != null) {
+            query.setParameter("afterDate", after.getOrderDate());
+            query.setParameter("afterId", after.getId());
+        }
+        List<Long> ids = query.setMaxResults(limit).getResultList();
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+
+        // Then the orders with everything they serialize, items in a query of their own since a
+        // second bag cannot be fetched alongside the creator's roles
+        Map<Long, Order> orders = entityManager.createQuery("select distinct o from Order o " +
+                        "left join fetch o.customer left join fetch o.table " +
+                        "left join fetch o.createdBy u left join fetch u.roles where o.id in :ids", Order.class)
+                .setParameter("ids", ids)
+                .getResultStream()
+                .collect(Collectors.toMap(Order::getId, Function.identity()));
+        entityManager.createQuery("select distinct o from Order o left join fetch o.orderItems i " +
+                        "left join fetch i.product p left join fetch p.category where o.id in :ids", Order.class)
+                .setParameter("ids", ids)
+                .getResultList();
+
+        List<Order> page = new ArrayList<>(ids.size());
+        for (Long id : ids) {
+            page.add(orders.get(id));
+        }
+        return page;
+    }
+
+    @Override
+    public Stream<OrderLineRow> streamLines(OrderFilter filter) {
+        StringBuilder jpql = new StringBuilder(LINE_SELECT).append(" where 1 = 1");
+        appendFilter(jpql, filter);
+        jpql.append(" order by o.orderDate desc, o.id desc, i.id");
+
+        TypedQuery<OrderLineRow> query = entityManager.createQuery(jpql.toString(), OrderLineRow.class);
+        bindFilter(query, filter);
+        query.setHint(HibernateHints.HINT_FETCH_SIZE, STREAM_FETCH_SIZE);
+        query.setHint(HibernateHints.HINT_READ_ONLY, true);
+        return query.getResultStream();
+    }
+
+    @Override
+    public List<OrderLineRow> findLinesByOrderId(Long orderId) {
+        return entityManager.createQuery(LINE_SELECT + " where o.id = :orderId order by i.id", OrderLineRow.class)
+                .setParameter("orderId", orderId)
+                .setHint(HibernateHints.HINT_READ_ONLY, true)
+                .getResultList();
+    }
+
+    @Override
+    public List<OrderLineRow> findCurrentLinesByTableId(Long tableId, boolean activeOnly) {
+        String jpql = LINE_SELECT +
+                " where o.id = (select rt.currentOrder.id from RestaurantTable rt where rt.id = :tableId)" +
+                (activeOnly ? " and o.status not in (:closedStatuses)" : "") +
+                " order by i.id";
+
+        TypedQuery<OrderLineRow> query = entityManager.createQuery(jpql, OrderLineRow.class)
+                .setParameter("tableId", tableId)
+                .setHint(HibernateHints.HINT_READ_ONLY, true);
+        if (activeOnly) {
+            query.setParameter("closedStatuses", List.of(OrderStatus.COMPLETED, OrderStatus.CANCELLED));
+        }
+        return query.getResultList();
+    }
+
+    private void appendFilter(StringBuilder jpql, OrderFilter filter) {
+        if (filter.getStatus() != null) {
+            jpql.append(" and o.status = :status");
+        }
+        if (filter.getOrderType() != null) {
+            jpql.append(" and o.orderType = :orderType");
+        }
+        if (filter.getCustomerId() != null) {
+            jpql.append(" and o.customer.id = :customerId");
+        }
+    }
+
+    private void bindFilter(TypedQuery<?> query, OrderFilter filter) {
+        if (filter.getStatus() != null) {
+            query.setParameter("status", filter.getStatus());
+        }
+        if (filter.getOrderType() != null) {
+            query.setParameter("orderType", filter.getOrderType());
+        }
+        if (filter.getCustomerId() != null) {
+            query.setParameter("customerId", filter.getCustomerId());
+        }
+    }
+}
@@ -0,0 +1,12 @@
+package com.erp.pos.repository;
+
+import com.erp.pos.model.PriceOverride;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface PriceOverrideRepository extends JpaRepository<PriceOverride, Long> {
+    List<PriceOverride> findByActiveTrue();
+}
@@ -1,16 +1,63 @@
 package com.erp.pos.repository;
 
+import com.erp.pos.dto.ProductDTO;
 import com.erp.pos.model.Product;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
 @Repository
 public interface ProductRepository extends JpaRepository<Product, Long> {
     List<Product> findByCategoryId(Long categoryId);
-    Optional<Product> findByBarcode(String barcode);
-    Optional<Product> findBySku(String sku);
+    // Codes are not unique; when several products share one, the oldest product wins
+    Optional<Product> findFirstByBarcodeOrderByIdAsc(String barcode);
+    Optional<Product> findFirstBySkuOrderByIdAsc(String sku);
     List<Product> findByNameContainingIgnoreCase(String name);
+
+    @Query("select p from Product p left join fetch p.category order by p.id")
+    List<Product> findAllWithCategory();
+
+    @Query("select p from Product p left join fetch p.category where p.sku in :skus")
+    List<Product> findBySkuInWithCategory(@Param("skus") Collection<String> skus);
+
+    @Query("select new com.erp.pos.dto.ProductDTO(p.id, p.name, p.description, p.price, p.stockQuantity, p.sku, "
+            + "p.barcode, c.id, c.name, p.active, p.createdAt, p.updatedAt) from Product p left join p.category c")
+    List<ProductDTO> findAllSnapshots();
+
+    /**
+     * Products written by catalog changes numbered above {@code seq}, including ones whose category was renamed
+     */
+    @Query("select new com.erp.pos.dto.ProductDTO(p.id, p.name, p.description, p.price, p.stockQuantity, p.sku, "
+            + "p.barcode, c.id, c.name, p.active, p.createdAt, p.updatedAt) from Product p left join p.category c "
+            + "where p.changeSeq > :seq")
+    List<ProductDTO> findSnapshotsChangedAfter(@Param("seq") long seq);
+
+    /**
+     * Fallback search while the in-memory index loads; the trigram operator uses idx_products_name_trgm
+     */
+    @Query(value = "select p.* from products p where p.name % :query or p.name ilike concat('%', :query, '%') "
+            + "or p.sku = :query or p.barcode = :query "
+            + "order by similarity(p.name, :query) desc, p.id limit :limit", nativeQuery = true)
+    List<Product> searchByTrigram(@Param("query") String query, @Param("limit") int limit);
+
+    /**
+     * Reprice every product in one statement; updatedAt is set so other instances pick up the change
+     */
+    @Modifying(clearAutomatically = true)
+    @Query("update Product p set p.price = greatest(round(p.price * :factor, 2), 0.01), p.updatedAt = :now")
+    int adjustAllPrices(@Param("factor") BigDecimal factor, @Param("now") LocalDateTime now);
+
+    @Modifying(clearAutomatically = true)
+    @Query("update Product p set p.price = greatest(round(p.price * :factor, 2), 0.01), p.updatedAt = :now "
+            + "where p.category.id = :categoryId")
+    int adjustCategoryPrices(@Param("categoryId") Long categoryId, @Param("factor") BigDecimal factor,
+                             @Param("now") LocalDateTime now);
 }
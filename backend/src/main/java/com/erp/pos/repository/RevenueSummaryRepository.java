@@ -0,0 +1,49 @@
+package com.erp.pos.repository;
+
+import com.erp.pos.model.RevenueSummary;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.math.BigDecimal;
+import java.util.Optional;
+
+@Repository
+public interface RevenueSummaryRepository extends JpaRepository<RevenueSummary, Long> {
+
+    @Modifying
+    @Query("update RevenueSummary r set r.totalRevenue = r.totalRevenue + :amount, " +
+           "r.completedOrders = r.completedOrders + :count where r.id = :id")
+    int increment(@Param("id") Long id, @Param("amount") BigDecimal amount, @Param("count") long count);
+
+    /**
+     * Take the reconciliation lock for the rest of the transaction, or return false when another
+     * instance holds it.
+     */
+    @Query(value = "SELECT pg_try_advisory_xact_lock(hashtext('revenue_summary.reconcile'))", nativeQuery = true)
+    boolean tryLockReconcile();
+
+    /**
+     * Lock the aggregate row so increments wait until the reconciliation commits
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select r from RevenueSummary r where r.id = :id")
+    Optional<RevenueSummary> lockById(@Param("id") Long id);
+
+    /**
+     * Replace the aggregate with the totals of the orders table, unless it was reconciled less than
+     * minAgeSeconds ago. Run it with the row locked: the sum then includes every increment already
+     * applied, and increments still waiting for the lock are added on top once it is released.
+     */
+    @Modifying
+    @Query(value = "UPDATE revenue_summary SET total_revenue = t.revenue, completed_orders = t.orders, reconciled_at = NOW() " +
+                   "FROM (SELECT COALESCE(SUM(total_amount), 0) AS revenue, COUNT(*) AS orders " +
+                   "FROM orders WHERE status = 'COMPLETED') t WHERE id = :id " +
+                   "AND (reconciled_at IS NULL OR reconciled_at <= NOW() - make_interval(secs => :minAgeSeconds))",
+           nativeQuery = true)
+    int reconcile(@Param("id") Long id, @Param("minAgeSeconds") long minAgeSeconds);
+}
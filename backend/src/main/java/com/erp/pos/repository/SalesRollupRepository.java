@@ -0,0 +1,78 @@
+package com.erp.pos.repository;
+
+import com.erp.pos.model.SalesRollup;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface SalesRollupRepository extends JpaRepository<SalesRollup, Long> {
+
+    List<SalesRollup> findByGranularityAndBucketStartGreaterThanEqualAndBucketStartLessThanOrderByBucketStart(
+            String granularity, LocalDateTime from, LocalDateTime to);
+
+    /**
+     * Add one order's contribution to its hour, day and month buckets in a single statement.
+     */
+    @Modifying
+    @Query(value = "INSERT INTO sales_rollups (granularity, bucket_start, order_type, payment_method, revenue, order_count, guests) " +
+                   "VALUES ('HOUR', :hourStart, :orderType, :paymentMethod, :revenue, :orders, :guests), " +
+                   "('DAY', :dayStart, :orderType, :paymentMethod, :revenue, :orders, :guests), " +
+                   "('MONTH', :monthStart, :orderType, :paymentMethod, :revenue, :orders, :guests) " +
+                   "ON CONFLICT (granularity, bucket_start, order_type, payment_method) DO UPDATE SET " +
+                   "revenue = sales_rollups.revenue + EXCLUDED.revenue, " +
+                   "order_count = sales_rollups.order_count + EXCLUDED.order_count, " +
+                   "guests = sales_rollups.guests + EXCLUDED.guests",
+           nativeQuery = true)
+    int upsert(@Param("hourStart") LocalDateTime hourStart,
+               @Param("dayStart") LocalDateTime dayStart,
+               @Param("monthStart") LocalDateTime monthStart,
+               @Param("orderType") String orderType,
+               @Param("paymentMethod") String paymentMethod,
+               @Param("revenue") BigDecimal revenue,
+               @Param("orders") long orders,
+               @Param("guests") long guests);
+
+    /**
+     * Take the rebuild lock for the rest of the transaction, or return false when another
+     * instance holds it.
+     */
+    @Query(value = "SELECT pg_try_advisory_xact_lock(hashtext('sales_rollups.rebuild'))", nativeQuery = true)
+    boolean tryLockRebuild();
+
+    /**
+     * Zero the buckets of a range. This also locks them, so upserts of live orders wait until the
+     * rebuild commits and are then added to the rebuilt totals.
+     */
+    @Modifying
+    @Query(value = "UPDATE sales_rollups SET revenue = 0, order_count = 0, guests = 0 " +
+                   "WHERE granularity = :granularity AND bucket_start >= :from AND bucket_start < :to",
+           nativeQuery = true)
+    int zeroRange(@Param("granularity") String granularity,
+                  @Param("from") LocalDateTime from,
+                  @Param("to") LocalDateTime to);
+
+    /**
+     * Set the buckets of a range to the totals of the orders table, inserting buckets that are missing
+     */
+    @Modifying
+    @Query(value = "INSERT INTO sales_rollups (granularity, bucket_start, order_type, payment_method, revenue, order_count, guests) " +
+                   "SELECT :granularity, date_trunc(CAST(:unit AS text), order_date), " +
+                   "COALESCE(order_type, 'UNSPECIFIED'), COALESCE(payment_method, 'UNSPECIFIED'), " +
+                   "SUM(total_amount), COUNT(*), COALESCE(SUM(number_of_guests), 0) " +
+                   "FROM orders WHERE status = 'COMPLETED' AND order_date >= :from AND order_date < :to " +
+                   "GROUP BY 2, 3, 4 " +
+                   "ON CONFLICT (granularity, bucket_start, order_type, payment_method) DO UPDATE SET " +
+                   "revenue = EXCLUDED.revenue, order_count = EXCLUDED.order_count, guests = EXCLUDED.guests",
+           nativeQuery = true)
+    int rebuildRange(@Param("granularity") String granularity,
+                     @Param("unit") String unit,
+                     @Param("from") LocalDateTime from,
+                     @Param("to") LocalDateTime to);
+}
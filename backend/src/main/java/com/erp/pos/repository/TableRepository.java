@@ -1,10 +1,15 @@
 package com.erp.pos.repository;
 
+import com.erp.pos.dto.TableDTO;
+import com.erp.pos.dto.TableVersionRow;
 import com.erp.pos.enums.TableStatus;
 import com.erp.pos.model.RestaurantTable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -14,4 +19,26 @@ public interface TableRepository extends JpaRepository<RestaurantTable, Long> {
     List<RestaurantTable> findByStatus(TableStatus status);
     List<RestaurantTable> findByLocation(String location);
     List<RestaurantTable> findByCapacityGreaterThanEqual(Integer capacity);
+
+    // The creator's roles are left to their own select: joined next to the items bag, every item
+    // would be repeated once per role
+    @Query("select t from RestaurantTable t left join fetch t.currentOrder o " +
+           "left join fetch o.customer left join fetch o.createdBy " +
+           "left join fetch o.orderItems i left join fetch i.product p left join fetch p.category " +
+           "where t.id = :id")
+    Optional<RestaurantTable> findWithCurrentOrderItemsById(@Param("id") Long id);
+
+    String SNAPSHOT_SELECT = "select new com.erp.pos.dto.TableDTO(t.id, t.tableNumber, t.capacity, t.status, t.location, " +
+            "t.positionX, t.positionY, t.width, t.height, t.shape, t.createdAt, t.updatedAt, t.currentOrder.id) " +
+            "from RestaurantTable t ";
+
+    // Table state without loading the current order graph, for the in-memory table registry
+    @Query(SNAPSHOT_SELECT)
+    List<TableDTO> findAllSnapshots();
+
+    @Query(SNAPSHOT_SELECT + "where t.id in :ids")
+    List<TableDTO> findSnapshotsByIdIn(@Param("ids") Collection<Long> ids);
+
+    @Query("select new com.erp.pos.dto.TableVersionRow(t.id, t.updatedAt) from RestaurantTable t")
+    List<TableVersionRow> findAllVersions();
 }
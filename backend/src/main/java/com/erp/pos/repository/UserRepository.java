@@ -1,9 +1,13 @@
 package com.erp.pos.repository;
 
+import com.erp.pos.dto.UserStampRow;
 import com.erp.pos.model.User;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.List;
 import java.util.Optional;
 
 @Repository
@@ -12,4 +16,15 @@ public interface UserRepository extends JpaRepository<User, Long> {
     Optional<User> findByEmail(String email);
     Boolean existsByUsername(String username);
     Boolean existsByEmail(String email);
+
+    @Query("select new com.erp.pos.dto.UserStampRow(u.id, u.securityStamp, u.active) from User u")
+    List<UserStampRow> findAllStamps();
+
+    @Query("select new com.erp.pos.dto.UserStampRow(u.id, u.securityStamp, u.active) from User u where u.id = :id")
+    Optional<UserStampRow> findStampById(@Param("id") Long id);
+
+    @Query(value = "SELECT count(*) FROM pg_trigger WHERE NOT tgisinternal " +
+                   "AND tgname IN ('trg_users_security_stamp', 'trg_user_roles_security_stamp')",
+           nativeQuery = true)
+    long countSecurityStampTriggers();
 }
@@ -1,12 +1,17 @@
 package com.erp.pos.security.jwt;
 
+import com.erp.pos.logging.CorrelationIdFilter;
+import com.erp.pos.security.services.SecurityStampService;
+import com.erp.pos.security.services.UserDetailsImpl;
 import com.erp.pos.security.services.UserDetailsServiceImpl;
+import io.jsonwebtoken.Claims;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.slf4j.MDC;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.context.SecurityContextHolder;
@@ -24,23 +29,26 @@ public class AuthTokenFilter extends OncePerRequestFilter {
     @Autowired
     private UserDetailsServiceImpl userDetailsService;
 
+    @Autowired
+    private SecurityStampService securityStampService;
+
     private static final Logger logger = LoggerFactory.getLogger(AuthTokenFilter.class);
 
     @Override
     protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
             throws ServletException, IOException {
         try {
-            // Log the request URL for debugging
-            logger.debug("Processing request: {} {}", request.getMethod(), request.getRequestURI());
-
             String jwt = parseJwt(request);
-            logger.debug("JWT token extracted: {}", jwt != null ? "present" : "null");
-
-            if (jwt != null && jwtUtils.validateJwtToken(jwt)) {
-                String username = jwtUtils.getUserNameFromJwtToken(jwt);
-                logger.debug("Username from JWT: {}", username);
+            Claims claims = jwt != null ? jwtUtils.verifyJwtToken(jwt) : null;
+            if (claims != null) {
+                String username = claims.getSubject();
+                UserDetails userDetails = resolvePrincipal(claims);
+                if (userDetails == null) {
+                    logger.warn("JWT token for {} was revoked by a change to the user", username);
+                    filterChain.doFilter(request, response);
+                    return;
+                }
 
-                UserDetails userDetails = userDetailsService.loadUserByUsername(username);
                 UsernamePasswordAuthenticationToken authentication =
                         new UsernamePasswordAuthenticationToken(
                                 userDetails,
@@ -49,20 +57,31 @@ public class AuthTokenFilter extends OncePerRequestFilter {
                 authentication.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
 
                 SecurityContextHolder.getContext().setAuthentication(authentication);
-                logger.debug("User authenticated successfully: {}", username);
+                MDC.put(CorrelationIdFilter.USER_KEY, username);
+                logger.debug("Authenticated {} for {} {}", username, request.getMethod(), request.getRequestURI());
             } else if (jwt != null) {
                 logger.warn("JWT token validation failed");
             }
         } catch (Exception e) {
             logger.error("Cannot set user authentication: {}", e.getMessage());
-            if (logger.isDebugEnabled()) {
-                e.printStackTrace();
-            }
+            logger.debug("Authentication failure", e);
         }
 
         filterChain.doFilter(request, response);
     }
 
+    /**
+     * The principal described by the token's claims, or null if the user's security stamp has moved
+     * on since the token was issued. Tokens issued before the claims were added are resolved from the database.
+     */
+    private UserDetails resolvePrincipal(Claims claims) {
+        UserDetailsImpl principal = jwtUtils.getPrincipalFromClaims(claims);
+        if (principal == null) {
+            return userDetailsService.loadUserByUsername(claims.getSubject());
+        }
+        return securityStampService.isCurrent(principal.getId(), principal.getSecurityStamp()) ? principal : null;
+    }
+
     private String parseJwt(HttpServletRequest request) {
         String headerAuth = request.getHeader("Authorization");
 
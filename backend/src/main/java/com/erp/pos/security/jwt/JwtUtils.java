@@ -2,28 +2,158 @@ package com.erp.pos.security.jwt;
 
 import com.erp.pos.security.services.UserDetailsImpl;
 import io.jsonwebtoken.*;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import io.jsonwebtoken.security.Keys;
+import io.jsonwebtoken.security.SecurityException;
+import jakarta.annotation.PostConstruct;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.core.Authentication;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.stereotype.Component;
+import org.springframework.util.StringUtils;
 
 import javax.crypto.SecretKey;
 import java.nio.charset.StandardCharsets;
+import java.security.Key;
+import java.time.Instant;
+import java.time.format.DateTimeParseException;
+import java.util.Collection;
 import java.util.Date;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 @Component
 public class JwtUtils {
     private static final Logger logger = LoggerFactory.getLogger(JwtUtils.class);
 
-    @Value("${app.jwt.secret}")
+    // Claims that let a request be authenticated without loading the user
+    static final String USER_ID_CLAIM = "uid";
+    static final String ROLES_CLAIM = "roles";
+    static final String SECURITY_STAMP_CLAIM = "sst";
+
+    @Autowired
+    private JwtKeyRing keyRing;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    // Required in HS512 mode; in RS256 mode only read during an HMAC transition
+    @Value("${app.jwt.secret:}")
     private String jwtSecret;
 
+    // In RS256 mode, keep accepting HMAC tokens issued before the switch until the given instant
+    @Value("${app.jwt.hmac-transition.enabled:false}")
+    private boolean hmacTransitionEnabled;
+
+    @Value("${app.jwt.hmac-transition.until:}")
+    private String hmacTransitionUntil;
+
     @Value("${app.jwt.expiration}")
     private int jwtExpirationMs;
 
-    private SecretKey getSigningKey() {
+    @Value("${app.jwt.verified-cache-size:1024}")
+    private int verifiedCacheSize;
+
+    // Built once; both are immutable and thread-safe. The parser picks the verification key per token.
+    private SecretKey signingKey;
+    private JwtParser jwtParser;
+    private Instant hmacAcceptedUntil;
+
+    // Recently verified tokens, so a token reused by a terminal is only verified once
+    private final Map<String, VerifiedToken> verifiedTokens = new ConcurrentHashMap<>();
+
+    /**
+     * Claims of a verified token and the key that verified it, so a cached token is dropped once
+     * that key is no longer trusted
+     */
+    private record VerifiedToken(Claims claims, String kid, Key key) {
+    }
+
+    private Timer verifyTimer;
+    private Counter cacheHits;
+
+    @PostConstruct
+    void init() {
+        verifyTimer = Timer.builder("auth.jwt.verify")
+                .description("Time spent parsing and verifying JWT signatures (cache misses only)")
+                .publishPercentiles(0.5, 0.99)
+                .register(meterRegistry);
+        cacheHits = Counter.builder("auth.jwt.cache.hits")
+                .description("JWTs answered from the verified-token cache")
+                .register(meterRegistry);
+
+        if (keyRing.isEnabled() && hmacTransitionEnabled) {
+            hmacAcceptedUntil = parseTransitionEnd();
+            if (!StringUtils.hasText(jwtSecret)) {
+                throw new IllegalStateException("app.jwt.secret is required during the HMAC transition");
+            }
+            logger.warn("Accepting HMAC-signed JWTs alongside RS256 until {}", hmacAcceptedUntil);
+        }
+        boolean hmacUsed = !keyRing.isEnabled() || hmacAcceptedUntil != null;
+        signingKey = hmacUsed && StringUtils.hasText(jwtSecret) ? buildSigningKey() : null;
+        jwtParser = Jwts.parserBuilder()
+                .setSigningKeyResolver(new SigningKeyResolverAdapter() {
+                    @Override
+                    public Key resolveSigningKey(JwsHeader header, Claims claims) {
+                        return resolveVerificationKey(header);
+                    }
+
+                    @Override
+                    public Key resolveSigningKey(JwsHeader header, String plaintext) {
+                        return resolveVerificationKey(header);
+                    }
+                })
+                .build();
+    }
+
+    private Key resolveVerificationKey(JwsHeader<?> header) {
+        SignatureAlgorithm algorithm = SignatureAlgorithm.forName(header.getAlgorithm());
+        if (algorithm.isHmac()) {
+            if (!acceptsHmac()) {
+                throw new UnsupportedJwtException("HMAC-signed tokens are not accepted by this node");
+            }
+            return signingKey;
+        }
+        if (algorithm != SignatureAlgorithm.RS256) {
+            throw new UnsupportedJwtException("Unsupported JWT algorithm " + header.getAlgorithm());
+        }
+
+        Key key = keyRing.findVerificationKey(header.getKeyId());
+        if (key == null) {
+            throw new UnsupportedJwtException("Unknown JWT key id " + header.getKeyId());
+        }
+        return key;
+    }
+
+    /**
+     * HMAC tokens are always accepted in HS512 mode; in RS256 mode only while the transition lasts
+     */
+    private boolean acceptsHmac() {
+        if (signingKey == null) {
+            return false;
+        }
+        return !keyRing.isEnabled() || Instant.now().isBefore(hmacAcceptedUntil);
+    }
+
+    private Instant parseTransitionEnd() {
+        if (!StringUtils.hasText(hmacTransitionUntil)) {
+            throw new IllegalStateException("app.jwt.hmac-transition.until is required when the HMAC transition is enabled");
+        }
+        try {
+            return Instant.parse(hmacTransitionUntil.strip());
+        } catch (DateTimeParseException e) {
+            throw new IllegalStateException("app.jwt.hmac-transition.until must be an ISO-8601 instant such as 2025-07-01T00:00:00Z", e);
+        }
+    }
+
+    private SecretKey buildSigningKey() {
         // Use a consistent way to generate the key
         byte[] keyBytes = jwtSecret.getBytes(StandardCharsets.UTF_8);
         // Ensure the key is at least 256 bits (32 bytes) for HS256
@@ -42,35 +172,82 @@ public class JwtUtils {
     public String generateJwtToken(Authentication authentication) {
         UserDetailsImpl userPrincipal = (UserDetailsImpl) authentication.getPrincipal();
 
-        return Jwts.builder()
+        JwtBuilder builder = Jwts.builder()
                 .setSubject((userPrincipal.getUsername()))
+                .claim(USER_ID_CLAIM, userPrincipal.getId())
+                .claim(ROLES_CLAIM, userPrincipal.getAuthorities().stream()
+                        .map(GrantedAuthority::getAuthority)
+                        .toList())
+                .claim(SECURITY_STAMP_CLAIM, userPrincipal.getSecurityStamp())
                 .setIssuedAt(new Date())
-                .setExpiration(new Date((new Date()).getTime() + jwtExpirationMs))
-                .signWith(getSigningKey())
-                .compact();
+                .setExpiration(new Date((new Date()).getTime() + jwtExpirationMs));
+
+        if (keyRing.isEnabled()) {
+            JwtKeyRing.RingKey key = keyRing.getSigningKey();
+            return builder.setHeaderParam(JwsHeader.KEY_ID, key.kid())
+                    .signWith(key.privateKey(), SignatureAlgorithm.RS256)
+                    .compact();
+        }
+        if (signingKey == null) {
+            throw new IllegalStateException("app.jwt.secret is required to sign HMAC tokens");
+        }
+        return builder.signWith(signingKey).compact();
+    }
+
+    /**
+     * Build the principal from verified claims. Email, full name and password are not part of the token.
+     *
+     * @return the principal, or null for tokens issued without the user id, roles and stamp claims
+     */
+    public UserDetailsImpl getPrincipalFromClaims(Claims claims) {
+        Object userId = claims.get(USER_ID_CLAIM);
+        Object roles = claims.get(ROLES_CLAIM);
+        Object stamp = claims.get(SECURITY_STAMP_CLAIM);
+        if (!(userId instanceof Number) || !(roles instanceof Collection<?> roleNames) || !(stamp instanceof Number)) {
+            return null;
+        }
+
+        List<GrantedAuthority> authorities = roleNames.stream()
+                .map(role -> (GrantedAuthority) new SimpleGrantedAuthority(String.valueOf(role)))
+                .toList();
+        return new UserDetailsImpl(((Number) userId).longValue(), claims.getSubject(), null, null, null,
+                authorities, ((Number) stamp).longValue(), true);
     }
 
     public String getUserNameFromJwtToken(String token) {
-        return Jwts.parserBuilder()
-                .setSigningKey(getSigningKey())
-                .build()
-                .parseClaimsJws(token)
-                .getBody()
-                .getSubject();
+        Claims claims = verifyJwtToken(token);
+        return claims != null ? claims.getSubject() : null;
     }
 
     public boolean validateJwtToken(String authToken) {
+        return verifyJwtToken(authToken) != null;
+    }
+
+    /**
+     * Parse and verify a token in one pass.
+     *
+     * @return the token's claims, or null if the token is missing, invalid or expired
+     */
+    public Claims verifyJwtToken(String authToken) {
         if (authToken == null || authToken.isEmpty()) {
             logger.error("JWT token is null or empty");
-            return false;
+            return null;
         }
 
+        VerifiedToken cached = verifiedTokens.get(authToken);
+        if (cached != null) {
+            if (!isExpired(cached.claims()) && isStillTrusted(cached)) {
+                cacheHits.increment();
+                return cached.claims();
+            }
+            verifiedTokens.remove(authToken);
+        }
+
+        Timer.Sample sample = Timer.start();
         try {
-            Jwts.parserBuilder()
-                .setSigningKey(getSigningKey())
-                .build()
-                .parseClaimsJws(authToken);
-            return true;
+            Jws<Claims> jws = jwtParser.parseClaimsJws(authToken);
+            remember(authToken, jws);
+            return jws.getBody();
         } catch (SecurityException e) {
             logger.error("Invalid JWT signature: {}", e.getMessage());
         } catch (MalformedJwtException e) {
@@ -83,8 +260,42 @@ public class JwtUtils {
             logger.error("JWT claims string is empty: {}", e.getMessage());
         } catch (Exception e) {
             logger.error("Unexpected error validating JWT token: {}", e.getMessage());
+        } finally {
+            sample.stop(verifyTimer);
+        }
+
+        return null;
+    }
+
+    /**
+     * Whether the key that verified a cached token is still accepted: the HMAC transition may have
+     * ended, and a key ring reload may have retired or replaced the token's key
+     */
+    private boolean isStillTrusted(VerifiedToken token) {
+        if (token.key() instanceof SecretKey) {
+            return acceptsHmac();
         }
+        return token.key().equals(keyRing.findVerificationKey(token.kid()));
+    }
+
+    private void remember(String token, Jws<Claims> jws) {
+        Claims claims = jws.getBody();
+        if (claims.getExpiration() == null) {
+            // Without an expiry the token could never be evicted on time
+            return;
+        }
+
+        if (verifiedTokens.size() >= verifiedCacheSize) {
+            verifiedTokens.values().removeIf(verified -> isExpired(verified.claims()));
+            if (verifiedTokens.size() >= verifiedCacheSize) {
+                // Still full of live tokens: start over rather than track usage order
+                verifiedTokens.clear();
+            }
+        }
+        verifiedTokens.put(token, new VerifiedToken(claims, jws.getHeader().getKeyId(), resolveVerificationKey(jws.getHeader())));
+    }
 
-        return false;
+    private boolean isExpired(Claims claims) {
+        return claims.getExpiration().getTime() <= System.currentTimeMillis();
     }
 }
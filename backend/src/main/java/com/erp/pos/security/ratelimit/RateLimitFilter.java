@@ -0,0 +1,108 @@
+package com.erp.pos.security.ratelimit;
+
+import com.erp.pos.enums.RateLimitGroup;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.security.authentication.AnonymousAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.util.StringUtils;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Limits the request rate of each terminal per endpoint group. Runs after {@code AuthTokenFilter},
+ * so signed-in clients are limited by user, with each of a bounded number of terminals per user
+ * (named by the {@code X-Terminal-Id} header) getting a bucket of its own; anonymous clients are
+ * limited by address.
+ */
+public class RateLimitFilter extends OncePerRequestFilter {
+    private static final Logger logger = LoggerFactory.getLogger(RateLimitFilter.class);
+
+    public static final String TERMINAL_HEADER = "X-Terminal-Id";
+
+    private static final int MAX_TERMINAL_ID_LENGTH = 64;
+
+    @Autowired
+    private TokenBucketLimiter limiter;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Value("${app.rate-limit.enabled:true}")
+    private boolean enabled;
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !enabled || !request.getRequestURI().startsWith("/api/") || "OPTIONS".equals(request.getMethod());
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        RateLimitGroup group = RateLimitGroup.of(request.getMethod(), request.getRequestURI());
+        String client = username();
+        long waitNanos;
+        if (client != null) {
+            waitNanos = limiter.tryAcquireForUser(group, client, terminalId(request));
+        } else {
+            // Anonymous callers cannot pick their own bucket with the header
+            client = request.getRemoteAddr();
+            waitNanos = limiter.tryAcquireAnonymous(group, client);
+        }
+        if (waitNanos == 0) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+
+        long retryAfterSeconds = Math.max(1, (waitNanos + TimeUnit.SECONDS.toNanos(1) - 1) / TimeUnit.SECONDS.toNanos(1));
+        meterRegistry.counter("rate_limit.rejected", "group", group.getPropertyName()).increment();
+        logger.debug("Rate limited {} on {} {}", client, request.getMethod(), request.getRequestURI());
+
+        response.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
+        response.setHeader(HttpHeaders.RETRY_AFTER, String.valueOf(retryAfterSeconds));
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+
+        final Map<String, Object> body = new HashMap<>();
+        body.put("status", HttpStatus.TOO_MANY_REQUESTS.value());
+        body.put("error", "Too Many Requests");
+        body.put("message", "Rate limit exceeded, retry in " + retryAfterSeconds + "s");
+        body.put("path", request.getServletPath());
+        objectMapper.writeValue(response.getOutputStream(), body);
+    }
+
+    private String username() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication != null && authentication.isAuthenticated()
+                && !(authentication instanceof AnonymousAuthenticationToken)) {
+            return authentication.getName();
+        }
+        return null;
+    }
+
+    private String terminalId(HttpServletRequest request) {
+        String terminal = request.getHeader(TERMINAL_HEADER);
+        if (!StringUtils.hasText(terminal)) {
+            return null;
+        }
+        return terminal.length() > MAX_TERMINAL_ID_LENGTH ? terminal.substring(0, MAX_TERMINAL_ID_LENGTH) : terminal;
+    }
+}
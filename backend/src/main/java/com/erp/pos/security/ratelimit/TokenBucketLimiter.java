@@ -0,0 +1,186 @@
+package com.erp.pos.security.ratelimit;
+
+import com.erp.pos.enums.RateLimitGroup;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.env.Environment;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Lock-free token buckets per client and endpoint group.
+ * <p>
+ * Each bucket is a single {@link AtomicLong} holding the time at which it will be full again
+ * (the generic cell rate algorithm). A request costs one refill interval and is allowed while
+ * that time stays within one burst of now. A bucket whose full-again time has passed is the
+ * same as no bucket, so such entries are swept out and the maps only hold recently active
+ * clients.
+ * <p>
+ * Signed-in users and anonymous addresses are kept apart. A user gets one bucket per terminal for
+ * up to {@code max-terminals-per-user} terminals and shares one more bucket among any others, so
+ * the user buckets are bounded by the number of accounts and always get their own bucket.
+ * Anonymous addresses are bounded by {@code max-clients}; once that is reached, new addresses of a
+ * group share one overflow bucket, which never affects signed-in users.
+ */
+@Component
+public class TokenBucketLimiter {
+    private static final Logger logger = LoggerFactory.getLogger(TokenBucketLimiter.class);
+
+    @Autowired
+    private Environment environment;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${app.rate-limit.max-clients:20000}")
+    private int maxClients;
+
+    @Value("${app.rate-limit.max-terminals-per-user:8}")
+    private int maxTerminalsPerUser;
+
+    private final Map<BucketKey, AtomicLong> userBuckets = new ConcurrentHashMap<>();
+    private final Map<BucketKey, AtomicLong> anonymousBuckets = new ConcurrentHashMap<>();
+    // Terminals recently seen per user, with the time each was last seen
+    private final Map<String, Map<String, Long>> terminals = new ConcurrentHashMap<>();
+    private final Map<RateLimitGroup, Limit> limits = new EnumMap<>(RateLimitGroup.class);
+    private final Map<RateLimitGroup, AtomicLong> overflowBuckets = new EnumMap<>(RateLimitGroup.class);
+    // A terminal unseen for longer than the longest burst has only full buckets left
+    private long terminalIdleNanos;
+
+    private record Limit(long intervalNanos, long burstNanos) {
+    }
+
+    // terminal is null for anonymous clients and for a user's shared bucket
+    private record BucketKey(RateLimitGroup group, String client, String terminal) {
+    }
+
+    @PostConstruct
+    void init() {
+        for (RateLimitGroup group : RateLimitGroup.values()) {
+            String prefix = "app.rate-limit." + group.getPropertyName();
+            int capacity = environment.getRequiredProperty(prefix + ".capacity", Integer.class);
+            double refillPerSecond = environment.getRequiredProperty(prefix + ".refill-per-second", Double.class);
+            if (capacity < 1 || refillPerSecond <= 0) {
+                throw new IllegalArgumentException("Invalid rate limit for " + group.getPropertyName());
+            }
+            long intervalNanos = (long) (TimeUnit.SECONDS.toNanos(1) / refillPerSecond);
+            limits.put(group, new Limit(intervalNanos, intervalNanos * capacity));
+            overflowBuckets.put(group, new AtomicLong(Long.MIN_VALUE));
+            terminalIdleNanos = Math.max(terminalIdleNanos, intervalNanos * capacity);
+        }
+
+        Gauge.builder("rate_limit.buckets", this, limiter -> limiter.userBuckets.size() + limiter.anonymousBuckets.size())
+                .description("Clients with a partly used rate limit bucket")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Take one token from a signed-in user's bucket for the group.
+     *
+     * @param terminal the terminal reported by the client, or null
+     * @return 0 if the request may proceed, otherwise the nanoseconds until a token is available
+     */
+    public long tryAcquireForUser(RateLimitGroup group, String username, String terminal) {
+        long now = System.nanoTime();
+        BucketKey key = new BucketKey(group, username, trackedTerminal(username, terminal, now));
+        return take(limits.get(group), userBuckets.computeIfAbsent(key, ignored -> new AtomicLong(Long.MIN_VALUE)), now);
+    }
+
+    /**
+     * Take one token from an anonymous client's bucket for the group.
+     *
+     * @return 0 if the request may proceed, otherwise the nanoseconds until a token is available
+     */
+    public long tryAcquireAnonymous(RateLimitGroup group, String address) {
+        long now = System.nanoTime();
+        return take(limits.get(group), anonymousBucketFor(group, address, now), now);
+    }
+
+    private long take(Limit limit, AtomicLong bucket, long now) {
+        while (true) {
+            long fullAt = bucket.get();
+            long start = fullAt == Long.MIN_VALUE || fullAt - now < 0 ? now : fullAt;
+            long next = start + limit.intervalNanos();
+            long ahead = next - now;
+            if (ahead > limit.burstNanos()) {
+                return ahead - limit.burstNanos();
+            }
+            if (bucket.compareAndSet(fullAt, next)) {
+                return 0;
+            }
+        }
+    }
+
+    /**
+     * The terminal while the user has fewer than the allowed number of terminals, otherwise null,
+     * which selects the bucket shared by the user's other terminals and by requests without one
+     */
+    private String trackedTerminal(String username, String terminal, long now) {
+        if (terminal == null || maxTerminalsPerUser <= 0) {
+            return null;
+        }
+        boolean[] known = new boolean[1];
+        terminals.compute(username, (user, seen) -> {
+            Map<String, Long> updated = seen != null ? seen : new HashMap<>();
+            if (updated.containsKey(terminal) || updated.size() < maxTerminalsPerUser) {
+                updated.put(terminal, now);
+                known[0] = true;
+            }
+            return updated;
+        });
+        return known[0] ? terminal : null;
+    }
+
+    private AtomicLong anonymousBucketFor(RateLimitGroup group, String address, long now) {
+        BucketKey key = new BucketKey(group, address, null);
+        AtomicLong bucket = anonymousBuckets.get(key);
+        if (bucket != null) {
+            return bucket;
+        }
+
+        if (anonymousBuckets.size() >= maxClients) {
+            evictIdle(anonymousBuckets, now);
+            if (anonymousBuckets.size() >= maxClients) {
+                return overflowBuckets.get(group);
+            }
+        }
+        return anonymousBuckets.computeIfAbsent(key, ignored -> new AtomicLong(Long.MIN_VALUE));
+    }
+
+    @Scheduled(fixedDelayString = "${app.rate-limit.sweep-ms:60000}")
+    public void sweep() {
+        long now = System.nanoTime();
+        int before = userBuckets.size() + anonymousBuckets.size();
+        evictIdle(userBuckets, now);
+        evictIdle(anonymousBuckets, now);
+        int after = userBuckets.size() + anonymousBuckets.size();
+
+        for (String username : terminals.keySet()) {
+            terminals.computeIfPresent(username, (user, seen) -> {
+                seen.values().removeIf(lastSeen -> now - lastSeen > terminalIdleNanos);
+                return seen.isEmpty() ? null : seen;
+            });
+        }
+        logger.debug("Rate limiter holds {} buckets ({} idle removed)", after, before - after);
+    }
+
+    private static void evictIdle(Map<BucketKey, AtomicLong> buckets, long now) {
+        // A full bucket carries no state; a concurrent request on a removed key simply starts a fresh one
+        buckets.values().removeIf(bucket -> {
+            long fullAt = bucket.get();
+            return fullAt == Long.MIN_VALUE || fullAt - now <= 0;
+        });
+    }
+}
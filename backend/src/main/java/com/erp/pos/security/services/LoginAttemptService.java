@@ -0,0 +1,101 @@
+package com.erp.pos.security.services;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Per-username failed login counters, kept in memory. After too many failures in a row the
+ * username is locked for a while and further attempts are refused before any password is hashed.
+ */
+@Service
+public class LoginAttemptService {
+    private static final Logger logger = LoggerFactory.getLogger(LoginAttemptService.class);
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${app.auth.lockout.max-failures:5}")
+    private int maxFailures;
+
+    @Value("${app.auth.lockout.duration-ms:300000}")
+    private long lockoutMs;
+
+    @Value("${app.auth.lockout.max-tracked:10000}")
+    private int maxTracked;
+
+    private final Map<String, Attempts> attempts = new ConcurrentHashMap<>();
+
+    private Counter failures;
+    private Counter lockouts;
+
+    @PostConstruct
+    void init() {
+        failures = Counter.builder("auth.login.failures")
+                .description("Logins rejected because of bad credentials")
+                .register(meterRegistry);
+        lockouts = Counter.builder("auth.login.lockouts")
+                .description("Usernames locked after repeated failed logins")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Milliseconds until the username may try again, or 0 if it is not locked
+     */
+    public long lockedForMs(String username) {
+        Attempts current = attempts.get(key(username));
+        if (current == null) {
+            return 0;
+        }
+        return Math.max(0, current.lockedUntil - System.currentTimeMillis());
+    }
+
+    public void loginSucceeded(String username) {
+        attempts.remove(key(username));
+    }
+
+    public void loginFailed(String username) {
+        failures.increment();
+        long now = System.currentTimeMillis();
+        if (attempts.size() >= maxTracked) {
+            evictStale(now);
+        }
+
+        Attempts updated = attempts.compute(key(username), (name, current) -> {
+            // Failures from before an expired lockout do not count again
+            int previous = current == null || (current.lockedUntil != 0 && current.lockedUntil <= now)
+                    ? 0 : current.failures;
+            int failed = previous + 1;
+            return new Attempts(failed, failed >= maxFailures ? now + lockoutMs : 0);
+        });
+
+        if (updated.failures == maxFailures) {
+            lockouts.increment();
+            logger.warn("Locked username {} for {} ms after {} failed logins", username, lockoutMs, maxFailures);
+        }
+    }
+
+    private void evictStale(long now) {
+        // Expired lockouts first; if that is not enough, unlocked counters go too
+        attempts.values().removeIf(entry -> entry.lockedUntil != 0 && entry.lockedUntil <= now);
+        if (attempts.size() >= maxTracked) {
+            attempts.values().removeIf(entry -> entry.lockedUntil == 0);
+        }
+    }
+
+    private static String key(String username) {
+        return username == null ? "" : username.trim().toLowerCase(Locale.ROOT);
+    }
+
+    private record Attempts(int failures, long lockedUntil) {
+    }
+}
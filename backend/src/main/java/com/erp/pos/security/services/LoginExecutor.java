@@ -0,0 +1,132 @@
+package com.erp.pos.security.services;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.core.Authentication;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * Runs password authentication on a small dedicated pool, so a burst of logins can only use
+ * that many cores for BCrypt and the request threads stay free for the rest of the API.
+ * Logins beyond the queue capacity are rejected immediately instead of piling up.
+ */
+@Component
+public class LoginExecutor {
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    // 0 means half of the available cores
+    @Value("${app.auth.login.threads:0}")
+    private int threads;
+
+    @Value("${app.auth.login.queue-capacity:32}")
+    private int queueCapacity;
+
+    @Value("${app.auth.login.timeout-ms:10000}")
+    private long timeoutMs;
+
+    private ThreadPoolExecutor executor;
+    private Timer queueWait;
+    private Timer duration;
+    private Counter queueFull;
+    private Counter timedOut;
+
+    @PostConstruct
+    void init() {
+        int poolSize = threads > 0 ? threads : Math.max(1, Runtime.getRuntime().availableProcessors() / 2);
+        AtomicInteger threadNumber = new AtomicInteger();
+        executor = new ThreadPoolExecutor(poolSize, poolSize, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity), runnable -> {
+                    Thread thread = new Thread(runnable, "login-" + threadNumber.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                }, new ThreadPoolExecutor.AbortPolicy());
+
+        queueWait = Timer.builder("auth.login.queue.wait")
+                .description("Time a login waited for a hashing thread")
+                .publishPercentiles(0.5, 0.99)
+                .register(meterRegistry);
+        duration = Timer.builder("auth.login.duration")
+                .description("Time spent authenticating a login on the hashing pool")
+                .publishPercentiles(0.5, 0.99)
+                .register(meterRegistry);
+        queueFull = rejections("queue_full");
+        timedOut = rejections("timeout");
+        Gauge.builder("auth.login.queue.size", executor, pool -> pool.getQueue().size())
+                .description("Logins waiting for a hashing thread")
+                .register(meterRegistry);
+        Gauge.builder("auth.login.active", executor, ThreadPoolExecutor::getActiveCount)
+                .description("Logins currently being hashed")
+                .register(meterRegistry);
+    }
+
+    private Counter rejections(String reason) {
+        return Counter.builder("auth.login.rejected")
+                .description("Logins turned away because the hashing pool was saturated")
+                .tag("reason", reason)
+                .register(meterRegistry);
+    }
+
+    /**
+     * Run the authentication on the login pool and wait for its result.
+     *
+     * @throws RejectedExecutionException if the queue is full or the login waited longer than the timeout
+     */
+    public Authentication authenticate(Supplier<Authentication> authentication) {
+        long submittedAt = System.nanoTime();
+        Future<Authentication> result;
+        try {
+            result = executor.submit(() -> {
+                long startedAt = System.nanoTime();
+                queueWait.record(startedAt - submittedAt, TimeUnit.NANOSECONDS);
+                try {
+                    return authentication.get();
+                } finally {
+                    duration.record(System.nanoTime() - startedAt, TimeUnit.NANOSECONDS);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            queueFull.increment();
+            throw e;
+        }
+
+        try {
+            return result.get(timeoutMs, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            result.cancel(true);
+            timedOut.increment();
+            throw new RejectedExecutionException("Login timed out waiting for the hashing pool", e);
+        } catch (InterruptedException e) {
+            result.cancel(true);
+            Thread.currentThread().interrupt();
+            throw new RejectedExecutionException("Interrupted while waiting for login", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            throw new IllegalStateException(e.getCause());
+        }
+    }
+
+    @PreDestroy
+    void shutdown() {
+        executor.shutdownNow();
+    }
+}
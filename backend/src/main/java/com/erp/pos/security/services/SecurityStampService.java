@@ -0,0 +1,95 @@
+package com.erp.pos.security.services;
+
+import com.erp.pos.dto.UserStampRow;
+import com.erp.pos.repository.UserRepository;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Checks the security stamp carried by a JWT against the user's current stamp without a
+ * query per request. Stamps of all users are held in memory and reloaded periodically, so a
+ * role change, password change or deactivation invalidates older tokens within one refresh.
+ * <p>
+ * Stamps are bumped by the database triggers of V11__add_user_security_stamp.sql, which also
+ * cover changes made outside the application, so startup fails when they are missing.
+ */
+@Service
+public class SecurityStampService {
+    private static final Logger logger = LoggerFactory.getLogger(SecurityStampService.class);
+
+    private static final int STAMP_TRIGGERS = 2;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Value("${app.security.stamp-triggers-required:true}")
+    private boolean triggersRequired;
+
+    // Replaced as a whole on refresh; single users are added to the current map as they are looked up
+    private volatile Map<Long, UserStampRow> stamps;
+
+    @PostConstruct
+    void verifyTriggers() {
+        if (!triggersRequired) {
+            logger.warn("Security stamp triggers are not checked; role and password changes may not revoke tokens");
+            return;
+        }
+
+        long found;
+        try {
+            found = userRepository.countSecurityStampTriggers();
+        } catch (RuntimeException e) {
+            throw new IllegalStateException("Could not check for the security stamp triggers of " +
+                    "V11__add_user_security_stamp.sql", e);
+        }
+        if (found < STAMP_TRIGGERS) {
+            throw new IllegalStateException("The security stamp triggers of V11__add_user_security_stamp.sql are " +
+                    "missing, so role and password changes would not revoke tokens; apply the migration");
+        }
+    }
+
+    /**
+     * Whether a token issued with the given stamp is still valid for the user
+     */
+    public boolean isCurrent(Long userId, long stamp) {
+        Map<Long, UserStampRow> current = stamps;
+        if (current == null) {
+            current = load();
+        }
+
+        UserStampRow row = current.get(userId);
+        if (row == null || (row.isActive() && row.getSecurityStamp() < stamp)) {
+            // Unknown user or a token issued after our last refresh: look this one user up.
+            // Missing users are remembered as inactive until the next refresh.
+            row = userRepository.findStampById(userId)
+                    .orElseGet(() -> new UserStampRow(userId, -1L, false));
+            current.put(userId, row);
+        }
+
+        return row.isActive() && row.getSecurityStamp() == stamp;
+    }
+
+    @Scheduled(fixedDelayString = "${app.security.stamp-refresh-ms:30000}",
+            initialDelayString = "${app.security.stamp-refresh-ms:30000}")
+    public void refresh() {
+        load();
+    }
+
+    private Map<Long, UserStampRow> load() {
+        Map<Long, UserStampRow> loaded = new ConcurrentHashMap<>();
+        for (UserStampRow row : userRepository.findAllStamps()) {
+            loaded.put(row.getId(), row);
+        }
+        stamps = loaded;
+        logger.debug("Loaded security stamps for {} users", loaded.size());
+        return loaded;
+    }
+}
@@ -24,6 +24,10 @@ public class UserDetailsImpl implements UserDetails {
     
     private Collection<? extends GrantedAuthority> authorities;
 
+    private long securityStamp;
+
+    private boolean enabled = true;
+
     public UserDetailsImpl(Long id, String username, String email, String password, String fullName,
                            Collection<? extends GrantedAuthority> authorities) {
         this.id = id;
@@ -34,6 +38,13 @@ public class UserDetailsImpl implements UserDetails {
         this.authorities = authorities;
     }
 
+    public UserDetailsImpl(Long id, String username, String email, String password, String fullName,
+                           Collection<? extends GrantedAuthority> authorities, long securityStamp, boolean enabled) {
+        this(id, username, email, password, fullName, authorities);
+        this.securityStamp = securityStamp;
+        this.enabled = enabled;
+    }
+
     public static UserDetailsImpl build(User user) {
         List<GrantedAuthority> authorities = user.getRoles().stream()
                 .map(role -> new SimpleGrantedAuthority(role.getName().name()))
@@ -45,7 +56,9 @@ public class UserDetailsImpl implements UserDetails {
                 user.getEmail(),
                 user.getPassword(),
                 user.getFullName(),
-                authorities);
+                authorities,
+                user.getSecurityStamp() != null ? user.getSecurityStamp() : 0L,
+                user.isActive());
     }
 
     @Override
@@ -65,6 +78,10 @@ public class UserDetailsImpl implements UserDetails {
         return fullName;
     }
 
+    public long getSecurityStamp() {
+        return securityStamp;
+    }
+
     @Override
     public String getPassword() {
         return password;
@@ -92,7 +109,7 @@ public class UserDetailsImpl implements UserDetails {
 
     @Override
     public boolean isEnabled() {
-        return true;
+        return enabled;
     }
 
     @Override
@@ -0,0 +1,9 @@
+package com.erp.pos.service;
+
+import com.erp.pos.dto.CatalogPayload;
+
+public interface CatalogSnapshotService {
+    CatalogPayload getProducts();
+    CatalogPayload getCategories();
+    void invalidate();
+}
@@ -0,0 +1,8 @@
+package com.erp.pos.service;
+
+/**
+ * Source of unique, human-readable order numbers
+ */
+public interface OrderNumberGenerator {
+    String nextOrderNumber();
+}
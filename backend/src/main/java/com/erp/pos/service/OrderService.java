@@ -1,16 +1,24 @@
 package com.erp.pos.service;
 
 import com.erp.pos.dto.AddToTableCartDTO;
+import com.erp.pos.dto.BatchOrderDTO;
+import com.erp.pos.dto.BatchOrderResultDTO;
 import com.erp.pos.dto.CreateTableOrderDTO;
+import com.erp.pos.dto.OrderCursor;
+import com.erp.pos.dto.OrderFilter;
 import com.erp.pos.dto.RemoveFromTableCartDTO;
+import com.erp.pos.dto.TableOrderResponseDTO;
 import com.erp.pos.enums.OrderStatus;
 import com.erp.pos.enums.OrderType;
 import com.erp.pos.model.Order;
 import com.erp.pos.model.OrderItem;
+import com.erp.pos.model.User;
 
+import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.function.Consumer;
 
 public interface OrderService {
     List<Order> getAllOrders();
@@ -21,7 +29,18 @@ public interface OrderService {
     List<Order> getOrdersByStatus(OrderStatus status);
     List<Order> getOrdersByType(OrderType orderType);
     List<Order> getOrdersByTableId(Long tableId);
+
+    // Keyset-paginated and streaming order listings
+    List<Order> getOrdersPage(OrderFilter filter, OrderCursor after, int limit);
+    void streamOrders(OrderFilter filter, Consumer<TableOrderResponseDTO> consumer);
+
+    // Single-query read models for the table order endpoints
+    TableOrderResponseDTO getTableOrderResponse(Long orderId);
+    Optional<TableOrderResponseDTO> getCurrentTableOrderResponse(Long tableId);
+    Optional<TableOrderResponseDTO> getActiveTableOrderResponse(Long tableId);
+
     Order createOrder(Order order);
+    void ingestOrders(Iterator<BatchOrderDTO> orders, User createdBy, Consumer<BatchOrderResultDTO> results);
     Order updateOrder(Long id, Order order);
     void deleteOrder(Long id);
     void addItemToOrder(Long orderId, OrderItem item);
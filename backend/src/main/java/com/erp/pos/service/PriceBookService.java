@@ -0,0 +1,16 @@
+package com.erp.pos.service;
+
+import com.erp.pos.dto.PriceOverrideDTO;
+import com.erp.pos.dto.PriceQuoteDTO;
+
+import java.util.Collection;
+import java.util.List;
+
+public interface PriceBookService {
+    PriceQuoteDTO quote(Collection<Long> productIds);
+    List<PriceOverrideDTO> getAllOverrides();
+    PriceOverrideDTO getOverrideById(Long id);
+    PriceOverrideDTO createOverride(PriceOverrideDTO override);
+    PriceOverrideDTO updateOverride(Long id, PriceOverrideDTO override);
+    void deleteOverride(Long id);
+}
@@ -0,0 +1,11 @@
+package com.erp.pos.service;
+
+import com.erp.pos.dto.ProductScanDTO;
+import com.erp.pos.dto.ProductScanResultDTO;
+
+import java.util.List;
+
+public interface ProductScanService {
+    ProductScanDTO scan(String code);
+    List<ProductScanResultDTO> scanAll(List<String> codes);
+}
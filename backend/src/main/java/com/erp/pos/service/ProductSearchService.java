@@ -0,0 +1,9 @@
+package com.erp.pos.service;
+
+import com.erp.pos.dto.ProductDTO;
+
+import java.util.List;
+
+public interface ProductSearchService {
+    List<ProductDTO> search(String query, int limit);
+}
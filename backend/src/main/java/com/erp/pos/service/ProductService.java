@@ -1,15 +1,25 @@
 package com.erp.pos.service;
 
+import com.erp.pos.dto.ProductImportResultDTO;
+import com.erp.pos.dto.ProductImportRowDTO;
 import com.erp.pos.model.Product;
 
+import java.math.BigDecimal;
+import java.util.Collection;
+import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
 
 public interface ProductService {
     List<Product> getAllProducts();
     Product getProductById(Long id);
+    Map<Long, Product> getProductsByIds(Collection<Long> ids);
     List<Product> getProductsByCategory(Long categoryId);
     List<Product> searchProducts(String name);
     Product createProduct(Product product);
     Product updateProduct(Long id, Product product);
     void deleteProduct(Long id);
+    void importProducts(Iterator<ProductImportRowDTO> rows, Consumer<ProductImportResultDTO> results);
+    int adjustPrices(Long categoryId, BigDecimal percent);
 }
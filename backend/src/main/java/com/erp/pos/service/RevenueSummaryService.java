@@ -0,0 +1,14 @@
+package com.erp.pos.service;
+
+import com.erp.pos.dto.OrderSalesSnapshot;
+import com.erp.pos.model.Order;
+import com.erp.pos.model.RevenueSummary;
+
+import java.util.List;
+
+public interface RevenueSummaryService {
+    RevenueSummary getRevenueSummary();
+    void recordChange(OrderSalesSnapshot before, OrderSalesSnapshot after);
+    void recordNewOrders(List<Order> orders);
+    void reconcile();
+}
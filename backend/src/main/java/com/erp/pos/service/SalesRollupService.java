@@ -0,0 +1,16 @@
+package com.erp.pos.service;
+
+import com.erp.pos.dto.OrderSalesSnapshot;
+import com.erp.pos.dto.SalesBucketDTO;
+import com.erp.pos.enums.RollupGranularity;
+import com.erp.pos.model.Order;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+public interface SalesRollupService {
+    List<SalesBucketDTO> getSales(RollupGranularity granularity, LocalDateTime from, LocalDateTime to);
+    void recordChange(OrderSalesSnapshot before, OrderSalesSnapshot after);
+    void recordNewOrders(List<Order> orders);
+    boolean rebuild(LocalDateTime from, LocalDateTime to);
+}
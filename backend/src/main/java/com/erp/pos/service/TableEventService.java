@@ -0,0 +1,10 @@
+package com.erp.pos.service;
+
+import com.erp.pos.dto.TableDTO;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+public interface TableEventService {
+    SseEmitter subscribe();
+    void tableChanged(TableDTO table);
+    void tableRemoved(Long tableId);
+}
@@ -11,14 +11,17 @@ public interface TableService {
     List<RestaurantTable> getAllTables();
     List<RestaurantTable> getFilteredTables(String status, String location, Integer capacity);
     RestaurantTable getTableById(Long id);
+    RestaurantTable getTableWithCurrentOrder(Long id);
     Optional<RestaurantTable> getTableByNumber(String tableNumber);
     List<RestaurantTable> getTablesByStatus(TableStatus status);
     List<RestaurantTable> getTablesByLocation(String location);
     List<RestaurantTable> getTablesByMinCapacity(Integer capacity);
     RestaurantTable createTable(RestaurantTable table);
     RestaurantTable updateTable(Long id, RestaurantTable table);
+    RestaurantTable updateTablePosition(Long id, RestaurantTable position);
     void deleteTable(Long id);
     RestaurantTable assignOrderToTable(Long tableId, Order order);
+    RestaurantTable assignOrderToTable(RestaurantTable table, Order order);
     RestaurantTable clearTable(Long tableId);
     RestaurantTable changeTableStatus(Long tableId, TableStatus status);
 }
@@ -0,0 +1,166 @@
+package com.erp.pos.service.impl;
+
+import com.erp.pos.repository.OrderNumberCounterRepository;
+import com.erp.pos.service.OrderNumberGenerator;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Issues per-day sequential order numbers (ORD-yyyyMMdd-00001) from blocks reserved in the
+ * order_number_counters table (hi/lo style). Each instance takes a block of numbers with one
+ * round trip and then serves them from memory, so numbers are unique across instances and
+ * increase monotonically within an instance. Unused numbers of a block are skipped after a
+ * restart or at the day boundary.
+ * <p>
+ * Blocks are reserved on a thread of their own, ahead of need: once half of the current block
+ * is used the next one is fetched in the background. Callers run inside order transactions that
+ * already hold a connection, so they never reserve a block themselves; one that finds no number
+ * left waits for the refill without holding the lock, up to the refill timeout.
+ */
+@Service
+@ConditionalOnProperty(name = "app.order-number.strategy", havingValue = "block", matchIfMissing = true)
+public class BlockOrderNumberGenerator implements OrderNumberGenerator {
+    private static final Logger logger = LoggerFactory.getLogger(BlockOrderNumberGenerator.class);
+
+    private static final DateTimeFormatter DATE_FORMAT = DateTimeFormatter.ofPattern("yyyyMMdd");
+
+    @Autowired
+    private OrderNumberCounterRepository orderNumberCounterRepository;
+
+    @Value("${app.order-number.block-size:50}")
+    private long blockSize;
+
+    @Value("${app.order-number.refill-timeout-ms:5000}")
+    private long refillTimeoutMs;
+
+    // ReentrantLock rather than synchronized so waiting threads do not pin carrier threads
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition refilled = lock.newCondition();
+
+    private ExecutorService refiller;
+
+    // Guarded by lock
+    private LocalDate blockDate;
+    private long nextValue;
+    private long blockEnd;
+    private LocalDate reservedDate;
+    private long reservedStart;
+    private boolean refilling;
+    private long failedRefills;
+
+    @PostConstruct
+    void init() {
+        refiller = Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "order-number-refill");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    @PreDestroy
+    void shutdown() {
+        refiller.shutdownNow();
+    }
+
+    @Override
+    public String nextOrderNumber() {
+        LocalDate today = LocalDate.now();
+        long value;
+
+        lock.lock();
+        try {
+            long remainingNanos = TimeUnit.MILLISECONDS.toNanos(refillTimeoutMs);
+            long failedBefore = failedRefills;
+            while (!hasNumber(today)) {
+                if (failedRefills != failedBefore) {
+                    throw new IllegalStateException("Could not reserve a block of order numbers for " + today);
+                }
+                refill(today);
+                if (remainingNanos <= 0) {
+                    throw new IllegalStateException("Timed out waiting for a block of order numbers for " + today);
+                }
+                remainingNanos = refilled.awaitNanos(remainingNanos);
+            }
+            value = nextValue++;
+            if (blockEnd - nextValue <= blockSize / 2 && reservedDate == null) {
+                refill(today);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for a block of order numbers", e);
+        } finally {
+            lock.unlock();
+        }
+
+        // Five digits keeps the numbers distinct from the legacy four-character random suffix
+        return String.format("ORD-%s-%05d", today.format(DATE_FORMAT), value);
+    }
+
+    /**
+     * Whether the current block has a number for this day, switching to the reserved block when
+     * the current one is used up or belongs to an earlier day. Called with the lock held.
+     */
+    private boolean hasNumber(LocalDate today) {
+        if (today.equals(blockDate) && nextValue < blockEnd) {
+            return true;
+        }
+        if (reservedDate != null && !reservedDate.equals(today)) {
+            reservedDate = null;
+        }
+        if (reservedDate == null) {
+            return false;
+        }
+        blockDate = reservedDate;
+        nextValue = reservedStart;
+        blockEnd = reservedStart + blockSize;
+        reservedDate = null;
+        return true;
+    }
+
+    /**
+     * Reserve the next block for this day on the refill thread, unless a reservation is running.
+     * Called with the lock held.
+     */
+    private void refill(LocalDate day) {
+        if (refilling) {
+            return;
+        }
+        refilling = true;
+        refiller.execute(() -> {
+            Long start = null;
+            try {
+                start = orderNumberCounterRepository.allocateBlock(day, blockSize);
+            } catch (RuntimeException e) {
+                logger.warn("Could not reserve a block of order numbers for {}", day, e);
+            }
+
+            lock.lock();
+            try {
+                refilling = false;
+                if (start != null) {
+                    reservedDate = day;
+                    reservedStart = start;
+                } else {
+                    failedRefills++;
+                }
+                refilled.signalAll();
+            } finally {
+                lock.unlock();
+            }
+        });
+    }
+}
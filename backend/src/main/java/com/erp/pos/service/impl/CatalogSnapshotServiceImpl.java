@@ -0,0 +1,165 @@
+package com.erp.pos.service.impl;
+
+import com.erp.pos.dto.CatalogPayload;
+import com.erp.pos.dto.CategoryDTO;
+import com.erp.pos.dto.ProductDTO;
+import com.erp.pos.repository.CategoryRepository;
+import com.erp.pos.repository.ProductRepository;
+import com.erp.pos.service.CatalogSnapshotService;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * The product and category listings, serialized once per catalog change. Readers share the same
+ * immutable byte arrays until a product or category write invalidates them; the next reader then
+ * rebuilds both listings. Catalog changes, made by this instance or any other, invalidate them through
+ * the {@link ProductChangeFeed}.
+ */
+@Service
+public class CatalogSnapshotServiceImpl implements CatalogSnapshotService, ProductChangeListener {
+    private static final Logger logger = LoggerFactory.getLogger(CatalogSnapshotServiceImpl.class);
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private CategoryRepository categoryRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    // Bumped by every invalidation; a snapshot built from an older generation is stale
+    private final AtomicLong generation = new AtomicLong();
+    private final ReentrantLock buildLock = new ReentrantLock();
+    private volatile Snapshot snapshot;
+
+    private Timer buildTimer;
+
+    private record Snapshot(long generation, CatalogPayload products, CatalogPayload categories) {
+    }
+
+    @PostConstruct
+    void initMetrics() {
+        buildTimer = Timer.builder("catalog.snapshot.build")
+                .description("Time to load and serialize the product and category listings")
+                .register(meterRegistry);
+    }
+
+    @Override
+    public CatalogPayload getProducts() {
+        return current().products();
+    }
+
+    @Override
+    public CatalogPayload getCategories() {
+        return current().categories();
+    }
+
+    /**
+     * Mark the listings stale. Call after the change has committed, so the rebuild can see it.
+     */
+    @Override
+    public void invalidate() {
+        generation.incrementAndGet();
+    }
+
+    @Override
+    public void catalogChanged(ProductChangeFeed.Changes changes) {
+        invalidate();
+    }
+
+    private Snapshot current() {
+        Snapshot current = snapshot;
+        if (current != null && current.generation() == generation.get()) {
+            return current;
+        }
+
+        buildLock.lock();
+        try {
+            current = snapshot;
+            if (current != null && current.generation() == generation.get()) {
+                return current;
+            }
+            current = buildTimer.record(this::build);
+            snapshot = current;
+            return current;
+        } finally {
+            buildLock.unlock();
+        }
+    }
+
+    private Snapshot build() {
+        // Read the generation first: an invalidation during the build leaves this snapshot stale
+        long buildGeneration = generation.get();
+        long version = (snapshot != null ? snapshot.products().getVersion() : 0) + 1;
+
+        return new TransactionTemplate(transactionManager).execute(status -> {
+            List<ProductDTO> products = productRepository.findAllWithCategory().stream()
+                    .map(ProductDTO::fromEntity)
+                    .toList();
+            List<CategoryDTO> categories = categoryRepository.findAllOrdered().stream()
+                    .map(CategoryDTO::fromEntity)
+                    .toList();
+
+            logger.info("Built catalog snapshot v{}: {} products, {} categories", version, products.size(), categories.size());
+            return new Snapshot(buildGeneration, serialize(version, products), serialize(version, categories));
+        });
+    }
+
+    private CatalogPayload serialize(long version, Object listing) {
+        try {
+            byte[] json = objectMapper.writeValueAsBytes(listing);
+            return new CatalogPayload(version, eTag(json), json, gzip(json));
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Cannot serialize catalog", e);
+        }
+    }
+
+    /**
+     * A strong ETag from the content, so that every instance serving the same catalog agrees on it
+     */
+    private static String eTag(byte[] json) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(json);
+            return HexFormat.of().formatHex(digest, 0, 16);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static byte[] gzip(byte[] json) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(json.length / 4 + 64);
+        try (GZIPOutputStream gzip = new GZIPOutputStream(out)) {
+            gzip.write(json);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return out.toByteArray();
+    }
+}
@@ -4,6 +4,7 @@ import com.erp.pos.exception.ResourceNotFoundException;
 import com.erp.pos.model.Category;
 import com.erp.pos.repository.CategoryRepository;
 import com.erp.pos.service.CategoryService;
+import com.erp.pos.util.TransactionHooks;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
@@ -16,6 +17,9 @@ public class CategoryServiceImpl implements CategoryService {
     @Autowired
     private CategoryRepository categoryRepository;
 
+    @Autowired
+    private ProductChangeFeed productChangeFeed;
+
     @Override
     public List<Category> getAllCategories() {
         return categoryRepository.findAll();
@@ -37,7 +41,9 @@ public class CategoryServiceImpl implements CategoryService {
     public Category createCategory(Category category) {
         // Ensure no products are attached when creating
         category.setProducts(null);
-        return categoryRepository.save(category);
+        Category saved = categoryRepository.save(category);
+        TransactionHooks.afterCommit(productChangeFeed::sync);
+        return saved;
     }
 
     @Override
@@ -48,7 +54,9 @@ public class CategoryServiceImpl implements CategoryService {
         category.setName(categoryDetails.getName());
         category.setDescription(categoryDetails.getDescription());
 
-        return categoryRepository.save(category);
+        Category saved = categoryRepository.save(category);
+        TransactionHooks.afterCommit(productChangeFeed::sync);
+        return saved;
     }
 
     @Override
@@ -56,5 +64,6 @@ public class CategoryServiceImpl implements CategoryService {
     public void deleteCategory(Long id) {
         Category category = getCategoryById(id);
         categoryRepository.delete(category);
+        TransactionHooks.afterCommit(productChangeFeed::sync);
     }
 }
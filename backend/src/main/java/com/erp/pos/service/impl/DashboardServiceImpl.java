@@ -2,22 +2,24 @@ package com.erp.pos.service.impl;
 
 import com.erp.pos.dto.DashboardStatsDTO;
 import com.erp.pos.dto.RecentOrderDTO;
-import com.erp.pos.enums.OrderStatus;
 import com.erp.pos.model.Order;
 import com.erp.pos.repository.CustomerRepository;
 import com.erp.pos.repository.OrderRepository;
 import com.erp.pos.repository.ProductRepository;
 import com.erp.pos.service.DashboardService;
+import com.erp.pos.service.RevenueSummaryService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 
-import java.math.BigDecimal;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.stream.Collectors;
 
 @Service
 public class DashboardServiceImpl implements DashboardService {
+    private static final Logger logger = LoggerFactory.getLogger(DashboardServiceImpl.class);
 
     @Autowired
     private OrderRepository orderRepository;
@@ -28,6 +30,9 @@ public class DashboardServiceImpl implements DashboardService {
     @Autowired
     private ProductRepository productRepository;
 
+    @Autowired
+    private RevenueSummaryService revenueSummaryService;
+
     @Override
     public DashboardStatsDTO getDashboardStats() {
         DashboardStatsDTO stats = new DashboardStatsDTO();
@@ -41,21 +46,8 @@ public class DashboardServiceImpl implements DashboardService {
         // Get total products count
         stats.setTotalProducts(productRepository.count());
 
-        // Calculate total revenue from all completed orders
-        BigDecimal totalRevenue;
-        try {
-            totalRevenue = orderRepository.findByStatus(OrderStatus.COMPLETED)
-                    .stream()
-                    .map(Order::getTotalAmount)
-                    .reduce(BigDecimal.ZERO, BigDecimal::add);
-        } catch (Exception e) {
-            // Log the error
-            System.err.println("Error calculating total revenue: " + e.getMessage());
-            e.printStackTrace();
-            // Fallback to zero
-            totalRevenue = BigDecimal.ZERO;
-        }
-        stats.setTotalRevenue(totalRevenue);
+        // Total revenue comes from the maintained aggregate instead of summing every completed order
+        stats.setTotalRevenue(revenueSummaryService.getRevenueSummary().getTotalRevenue());
 
         return stats;
     }
@@ -72,8 +64,7 @@ public class DashboardServiceImpl implements DashboardService {
                     .collect(Collectors.toList());
         } catch (Exception e) {
             // Log the error
-            System.err.println("Error fetching recent orders: " + e.getMessage());
-            e.printStackTrace();
+            logger.error("Error fetching recent orders: {}", e.getMessage(), e);
 
             // Return an empty list
             return new ArrayList<>();
@@ -1,6 +1,7 @@
 package com.erp.pos.service.impl;
 
 import com.erp.pos.dto.*;
+import com.erp.pos.enums.BatchOrderStatus;
 import com.erp.pos.enums.OrderStatus;
 import com.erp.pos.enums.OrderType;
 import com.erp.pos.enums.PaymentMethod;
@@ -13,25 +14,48 @@ import com.erp.pos.model.User;
 import com.erp.pos.repository.OrderItemRepository;
 import com.erp.pos.repository.OrderRepository;
 import com.erp.pos.service.CustomerService;
+import com.erp.pos.service.OrderNumberGenerator;
 import com.erp.pos.service.OrderService;
-import com.erp.pos.service.ProductService;
+import com.erp.pos.service.RevenueSummaryService;
+import com.erp.pos.service.SalesRollupService;
 import com.erp.pos.service.TableService;
 import com.erp.pos.util.SecurityUtils;
+import com.erp.pos.util.TransactionHooks;
+import io.micrometer.core.annotation.Timed;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.NestedExceptionUtils;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.math.BigDecimal;
+import java.sql.SQLException;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
-import java.util.UUID;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @Service
 public class OrderServiceImpl implements OrderService {
+    private static final Logger logger = LoggerFactory.getLogger(OrderServiceImpl.class);
 
     @Autowired
     private OrderRepository orderRepository;
@@ -43,10 +67,44 @@ public class OrderServiceImpl implements OrderService {
     private TableService tableService;
 
     @Autowired
-    private ProductService productService;
+    private CustomerService customerService;
 
     @Autowired
-    private CustomerService customerService;
+    private RevenueSummaryService revenueSummaryService;
+
+    @Autowired
+    private SalesRollupService salesRollupService;
+
+    @Autowired
+    private OrderNumberGenerator orderNumberGenerator;
+
+    @Autowired
+    private PriceBookRegistry priceBookRegistry;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Value("${app.orders.batch.chunk-size:100}")
+    private int ingestChunkSize;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private Counter ordersCreated;
+    private Counter itemUnitsAdded;
+
+    @PostConstruct
+    void initMetrics() {
+        ordersCreated = Counter.builder("pos.orders.created")
+                .description("Orders created, including bulk-ingested ones")
+                .register(meterRegistry);
+        itemUnitsAdded = Counter.builder("pos.order.items.added")
+                .description("Item units added to orders")
+                .register(meterRegistry);
+    }
 
     @Override
     public List<Order> getAllOrders() {
@@ -89,12 +147,232 @@ public class OrderServiceImpl implements OrderService {
         return orderRepository.findByTableId(tableId);
     }
 
+    @Override
+    @Transactional(readOnly = true)
+    public List<Order> getOrdersPage(OrderFilter filter, OrderCursor after, int limit) {
+        return orderRepository.findPage(filter, after, limit);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public void streamOrders(OrderFilter filter, Consumer<TableOrderResponseDTO> consumer) {
+        // Rows of one order are contiguous, so only the order being assembled is held in memory
+        try (Stream<OrderLineRow> rows = orderRepository.streamLines(filter)) {
+            TableOrderResponseDTO current = null;
+            for (Iterator<OrderLineRow> it = rows.iterator(); it.hasNext(); ) {
+                OrderLineRow row = it.next();
+                if (current == null || !current.getId().equals(row.getOrderId())) {
+                    if (current != null) {
+                        consumer.accept(current);
+                    }
+                    current = TableOrderResponseDTO.fromRow(row);
+                }
+                if (row.getItemId() != null) {
+                    current.getOrderItems().add(OrderItemDTO.fromRow(row));
+                }
+            }
+            if (current != null) {
+                consumer.accept(current);
+            }
+        }
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public TableOrderResponseDTO getTableOrderResponse(Long orderId) {
+        List<OrderLineRow> rows = orderRepository.findLinesByOrderId(orderId);
+        if (rows.isEmpty()) {
+            throw new ResourceNotFoundException("Order not found with id: " + orderId);
+        }
+        return TableOrderResponseDTO.fromRows(rows);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public Optional<TableOrderResponseDTO> getCurrentTableOrderResponse(Long tableId) {
+        List<OrderLineRow> rows = orderRepository.findCurrentLinesByTableId(tableId, false);
+        return rows.isEmpty() ? Optional.empty() : Optional.of(TableOrderResponseDTO.fromRows(rows));
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public Optional<TableOrderResponseDTO> getActiveTableOrderResponse(Long tableId) {
+        List<OrderLineRow> rows = orderRepository.findCurrentLinesByTableId(tableId, true);
+        return rows.isEmpty() ? Optional.empty() : Optional.of(TableOrderResponseDTO.fromRows(rows));
+    }
+
     @Override
     @Transactional
     public Order createOrder(Order order) {
+        prepareNewOrder(order);
+        Order savedOrder = orderRepository.save(order);
+        recordChange(null, OrderSalesSnapshot.of(savedOrder));
+        countAfterCommit(1, itemUnits(savedOrder));
+        return savedOrder;
+    }
+
+    /**
+     * Ingest orders replayed by a terminal. Orders are written in chunks, each chunk in one
+     * transaction whose inserts go out as JDBC batches. Orders whose idempotency key is already
+     * stored are reported as DUPLICATE and not written again. If a chunk fails, its orders are
+     * retried one per transaction so a single bad order only fails itself. Results are passed
+     * to the consumer in input order as each chunk completes.
+     */
+    @Override
+    public void ingestOrders(Iterator<BatchOrderDTO> orders, User createdBy, Consumer<BatchOrderResultDTO> results) {
+        List<Order> chunk = new ArrayList<>(ingestChunkSize);
+        int chunkStart = 0;
+
+        while (true) {
+            Order order;
+            try {
+                if (!orders.hasNext()) {
+                    break;
+                }
+                order = orders.next().toEntity();
+            } catch (RuntimeException e) {
+                // Malformed input: keep what was read so far and report where it stopped
+                ingestChunk(chunkStart, chunk, results);
+                results.accept(BatchOrderResultDTO.failed(chunkStart + chunk.size(), null, "Malformed order: " + describeFailure(e)));
+                return;
+            }
+
+            order.setCreatedBy(createdBy);
+            chunk.add(order);
+
+            if (chunk.size() == ingestChunkSize) {
+                ingestChunk(chunkStart, chunk, results);
+                chunkStart += chunk.size();
+                chunk.clear();
+            }
+        }
+
+        ingestChunk(chunkStart, chunk, results);
+    }
+
+    private void ingestChunk(int chunkStart, List<Order> chunk, Consumer<BatchOrderResultDTO> results) {
+        if (chunk.isEmpty()) {
+            return;
+        }
+
+        BatchOrderResultDTO[] outcome = new BatchOrderResultDTO[chunk.size()];
+
+        // First occurrence of each key in the chunk; later repeats mirror its outcome
+        Map<String, Integer> firstByKey = new HashMap<>();
+        for (int i = 0; i < chunk.size(); i++) {
+            String key = chunk.get(i).getIdempotencyKey();
+            if (key == null || key.isBlank()) {
+                outcome[i] = BatchOrderResultDTO.failed(chunkStart + i, key, "idempotencyKey is required");
+            } else {
+                firstByKey.putIfAbsent(key, i);
+            }
+        }
+
+        if (!firstByKey.isEmpty()) {
+            for (OrderKeyRow existing : orderRepository.findKeysByIdempotencyKeyIn(firstByKey.keySet())) {
+                int i = firstByKey.get(existing.getIdempotencyKey());
+                outcome[i] = BatchOrderResultDTO.of(chunkStart + i, existing.getIdempotencyKey(),
+                        BatchOrderStatus.DUPLICATE, existing.getOrderId(), existing.getOrderNumber());
+            }
+        }
+
+        List<Integer> pending = new ArrayList<>();
+        for (int i : firstByKey.values()) {
+            if (outcome[i] == null) {
+                pending.add(i);
+            }
+        }
+        Collections.sort(pending);
+
+        try {
+            insertNewOrders(pending.stream().map(chunk::get).toList());
+            for (int i : pending) {
+                Order order = chunk.get(i);
+                outcome[i] = BatchOrderResultDTO.of(chunkStart + i, order.getIdempotencyKey(),
+                        BatchOrderStatus.CREATED, order.getId(), order.getOrderNumber());
+            }
+        } catch (RuntimeException chunkFailure) {
+            logger.warn("Order batch chunk at index {} failed, retrying its orders one by one: {}",
+                    chunkStart, describeFailure(chunkFailure));
+            for (int i : pending) {
+                outcome[i] = ingestSingle(chunkStart + i, chunk.get(i));
+            }
+        }
+
+        for (int i = 0; i < chunk.size(); i++) {
+            if (outcome[i] == null) {
+                BatchOrderResultDTO first = outcome[firstByKey.get(chunk.get(i).getIdempotencyKey())];
+                outcome[i] = first.getStatus() == BatchOrderStatus.FAILED
+                        ? BatchOrderResultDTO.failed(chunkStart + i, first.getIdempotencyKey(), first.getError())
+                        : BatchOrderResultDTO.of(chunkStart + i, first.getIdempotencyKey(),
+                                BatchOrderStatus.DUPLICATE, first.getOrderId(), first.getOrderNumber());
+            }
+            results.accept(outcome[i]);
+        }
+    }
+
+    private BatchOrderResultDTO ingestSingle(int index, Order order) {
+        String key = order.getIdempotencyKey();
+        try {
+            insertNewOrders(List.of(order));
+            return BatchOrderResultDTO.of(index, key, BatchOrderStatus.CREATED, order.getId(), order.getOrderNumber());
+        } catch (RuntimeException e) {
+            // A concurrent replay may have stored the same key in the meantime
+            List<OrderKeyRow> existing = orderRepository.findKeysByIdempotencyKeyIn(List.of(key));
+            if (!existing.isEmpty()) {
+                return BatchOrderResultDTO.of(index, key, BatchOrderStatus.DUPLICATE,
+                        existing.get(0).getOrderId(), existing.get(0).getOrderNumber());
+            }
+            return BatchOrderResultDTO.failed(index, key, describeFailure(e));
+        }
+    }
+
+    /**
+     * First line of the root cause message, leaving out the SQL the driver appends
+     */
+    private String describeFailure(Exception e) {
+        String message = String.valueOf(NestedExceptionUtils.getMostSpecificCause(e).getMessage());
+        int newline = message.indexOf('\n');
+        return newline >= 0 ? message.substring(0, newline).trim() : message;
+    }
+
+    /**
+     * Insert new orders in one transaction and flush them as JDBC batches. The persistence
+     * context is cleared afterwards so a long replay does not accumulate managed entities.
+     */
+    private void insertNewOrders(List<Order> orders) {
+        if (orders.isEmpty()) {
+            return;
+        }
+
+        try {
+            new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+                for (Order order : orders) {
+                    // Replayed orders are always new; drop any ids left by a failed attempt
+                    order.setId(null);
+                    if (order.getOrderItems() != null) {
+                        order.getOrderItems().forEach(item -> item.setId(null));
+                    }
+                    prepareNewOrder(order);
+                    entityManager.persist(order);
+                }
+                entityManager.flush();
+                revenueSummaryService.recordNewOrders(orders);
+                salesRollupService.recordNewOrders(orders);
+                countAfterCommit(orders.size(), orders.stream().mapToLong(this::itemUnits).sum());
+            });
+        } finally {
+            entityManager.clear();
+        }
+    }
+
+    /**
+     * Apply defaults to a new order and link its items so they are cascaded with it
+     */
+    private void prepareNewOrder(Order order) {
         // Generate a unique order number if not provided
         if (order.getOrderNumber() == null || order.getOrderNumber().isEmpty()) {
-            order.setOrderNumber(generateOrderNumber());
+            order.setOrderNumber(orderNumberGenerator.nextOrderNumber());
         }
 
         // Set order date if not provided
@@ -123,24 +401,18 @@ public class OrderServiceImpl implements OrderService {
             order.setTotalAmount(new BigDecimal("0.00"));
         }
 
-        // Save the order first to get an ID
-        Order savedOrder = orderRepository.save(order);
-
-        // Update the order items with the saved order reference
-        if (savedOrder.getOrderItems() != null && !savedOrder.getOrderItems().isEmpty()) {
-            savedOrder.getOrderItems().forEach(item -> {
-                item.setOrder(savedOrder);
-                orderItemRepository.save(item);
-            });
+        // Items are cascaded with the order and flushed as one JDBC batch
+        if (order.getOrderItems() != null) {
+            order.getOrderItems().forEach(item -> item.setOrder(order));
         }
-
-        return savedOrder;
     }
 
     @Override
     @Transactional
     public Order updateOrder(Long id, Order orderDetails) {
         Order order = getOrderById(id);
+        // Captured before any field changes, so a changed total is recorded against the amount that was booked
+        OrderSalesSnapshot before = OrderSalesSnapshot.of(order);
 
         // Update order fields
         order.setOrderDate(orderDetails.getOrderDate());
@@ -154,6 +426,8 @@ public class OrderServiceImpl implements OrderService {
         order.setNumberOfGuests(orderDetails.getNumberOfGuests());
         order.setSpecialInstructions(orderDetails.getSpecialInstructions());
 
+        recordChange(before, OrderSalesSnapshot.of(order));
+
         return orderRepository.save(order);
     }
 
@@ -161,6 +435,7 @@ public class OrderServiceImpl implements OrderService {
     @Transactional
     public void deleteOrder(Long id) {
         Order order = getOrderById(id);
+        recordChange(OrderSalesSnapshot.of(order), null);
         orderRepository.delete(order);
     }
 
@@ -168,6 +443,7 @@ public class OrderServiceImpl implements OrderService {
     @Transactional
     public void addItemToOrder(Long orderId, OrderItem item) {
         Order order = getOrderById(orderId);
+        OrderSalesSnapshot before = OrderSalesSnapshot.of(order);
         item.setOrder(order);
 
         // Save the item
@@ -178,6 +454,7 @@ public class OrderServiceImpl implements OrderService {
 
         // Update order total amount
         order.setTotalAmount(order.getTotalAmount().add(item.getSubtotal()));
+        recordChange(before, OrderSalesSnapshot.of(order));
 
         orderRepository.save(order);
     }
@@ -186,6 +463,7 @@ public class OrderServiceImpl implements OrderService {
     @Transactional
     public void removeItemFromOrder(Long orderId, Long itemId) {
         Order order = getOrderById(orderId);
+        OrderSalesSnapshot before = OrderSalesSnapshot.of(order);
 
         // Find the item to remove
         OrderItem itemToRemove = orderItemRepository.findById(itemId)
@@ -198,6 +476,7 @@ public class OrderServiceImpl implements OrderService {
 
         // Update order total amount
         order.setTotalAmount(order.getTotalAmount().subtract(itemToRemove.getSubtotal()));
+        recordChange(before, OrderSalesSnapshot.of(order));
 
         // Remove from order's items list
         order.getOrderItems().removeIf(item -> item.getId().equals(itemId));
@@ -209,18 +488,17 @@ public class OrderServiceImpl implements OrderService {
     }
 
     /**
-     * Generate a unique order number
-     * @return A unique order number
+     * Keep the revenue aggregate and sales rollups in step with a change of an order, given its
+     * state before (null when it is new) and after (null when it is deleted)
      */
-    private String generateOrderNumber() {
-        // Format: ORD-YYYYMMDD-XXXX (where XXXX is a random alphanumeric string)
-        String datePart = LocalDateTime.now().format(java.time.format.DateTimeFormatter.ofPattern("yyyyMMdd"));
-        String randomPart = UUID.randomUUID().toString().substring(0, 4).toUpperCase();
-        return "ORD-" + datePart + "-" + randomPart;
+    private void recordChange(OrderSalesSnapshot before, OrderSalesSnapshot after) {
+        revenueSummaryService.recordChange(before, after);
+        salesRollupService.recordChange(before, after);
     }
 
     @Override
     @Transactional
+    @Timed(value = "pos.orders.create_table_order", histogram = true)
     public Order createTableOrder(Long tableId, CreateTableOrderDTO orderDTO) {
         // Get the table
         RestaurantTable table = tableService.getTableById(tableId);
@@ -231,7 +509,6 @@ public class OrderServiceImpl implements OrderService {
         order.setTable(table);
         order.setOrderType(OrderType.DINE_IN);
         order.setStatus(OrderStatus.PENDING);
-        order.setTotalAmount(orderDTO.getTotalAmount());
         order.setNumberOfGuests(orderDTO.getNumberOfGuests());
         order.setSpecialInstructions(orderDTO.getSpecialInstructions());
         order.setPaymentMethod(orderDTO.getPaymentMethod());
@@ -248,21 +525,30 @@ public class OrderServiceImpl implements OrderService {
             order.setCreatedBy(currentUser);
         }
 
-        // Convert order items from DTO
+        // Price all items in one pass over the price book; prices and totals sent by the client are ignored.
+        // Products are attached by reference, so no product is loaded.
+        PriceBook.Quote quote = priceBookRegistry.quote(orderDTO.getOrderItems().stream()
+                .map(OrderItemDTO::getProductId)
+                .collect(Collectors.toSet()), order.getOrderDate());
         List<OrderItem> orderItems = new ArrayList<>();
+        BigDecimal totalAmount = BigDecimal.ZERO;
         for (OrderItemDTO itemDTO : orderDTO.getOrderItems()) {
             OrderItem item = new OrderItem();
             item.setOrder(order);
-            item.setProduct(productService.getProductById(itemDTO.getProductId()));
+            item.setProduct(entityManager.getReference(Product.class, itemDTO.getProductId()));
             item.setQuantity(itemDTO.getQuantity());
-            item.setUnitPrice(itemDTO.getUnitPrice());
-            item.setSubtotal(itemDTO.getSubtotal());
+            item.setUnitPrice(quote.price(itemDTO.getProductId()).unitPrice());
+            item.setSubtotal(item.getUnitPrice().multiply(new BigDecimal(item.getQuantity())));
+            totalAmount = totalAmount.add(item.getSubtotal());
             orderItems.add(item);
         }
         order.setOrderItems(orderItems);
+        order.setTotalAmount(totalAmount);
+        order.setPriceBookVersion(quote.version());
 
         // Create the order
         Order createdOrder = createOrder(order);
+        flushProductReferences(quote.prices().keySet());
 
         // Update the table status to OCCUPIED and assign the order
         tableService.assignOrderToTable(tableId, createdOrder);
@@ -299,15 +585,26 @@ public class OrderServiceImpl implements OrderService {
 
     @Override
     @Transactional
+    @Timed(value = "pos.orders.add_item_to_table_order", histogram = true)
     public Order addItemToTableOrder(Long tableId, AddToTableCartDTO cartItemDTO) {
-        // Get the table
-        RestaurantTable table = tableService.getTableById(tableId);
+        // The unit price comes from the price book; the price sent by the client is ignored
+        PriceBook.Quote quote = priceBookRegistry.quote(List.of(cartItemDTO.getProductId()), LocalDateTime.now());
+        BigDecimal unitPrice = quote.price(cartItemDTO.getProductId()).unitPrice();
+
+        // Get the table with its current order, items and products in a single query
+        RestaurantTable table = tableService.getTableWithCurrentOrder(tableId);
+        Order currentOrder = table.getCurrentOrder();
         Order order;
 
         // Check if we need to create a new order or update an existing one
         if (cartItemDTO.getOrderId() != null) {
-            // Use the provided order ID
-            order = getOrderById(cartItemDTO.getOrderId());
+            // Use the provided order ID, reusing the already loaded current order when it matches
+            if (currentOrder != null && currentOrder.getId().equals(cartItemDTO.getOrderId())) {
+                order = currentOrder;
+            } else {
+                order = orderRepository.findWithItemsById(cartItemDTO.getOrderId())
+                        .orElseThrow(() -> new ResourceNotFoundException("Order not found with id: " + cartItemDTO.getOrderId()));
+            }
 
             // Verify this order belongs to the specified table
             if (order.getTable() == null || !order.getTable().getId().equals(tableId)) {
@@ -318,76 +615,110 @@ public class OrderServiceImpl implements OrderService {
             if (order.getStatus() == OrderStatus.COMPLETED || order.getStatus() == OrderStatus.CANCELLED) {
                 throw new IllegalArgumentException("Cannot add items to a completed or cancelled order");
             }
+        } else if (currentOrder != null
+                && currentOrder.getStatus() != OrderStatus.COMPLETED && currentOrder.getStatus() != OrderStatus.CANCELLED) {
+            // Allow adding items to any order that is not COMPLETED or CANCELLED
+            order = currentOrder;
         } else {
-            // Check if there's an existing order for this table
-            if (table.getCurrentOrder() != null) {
-                Order currentOrder = getOrderById(table.getCurrentOrder().getId());
-                // Allow adding items to any order that is not COMPLETED or CANCELLED
-                if (currentOrder.getStatus() != OrderStatus.COMPLETED && currentOrder.getStatus() != OrderStatus.CANCELLED) {
-                    order = currentOrder;
-                } else {
-                    // Create a new order
-                    order = createNewOrder(table, cartItemDTO);
-                }
-            } else {
-                // Create a new order
-                order = createNewOrder(table, cartItemDTO);
-            }
+            // Create a new order
+            order = createNewOrder(table, cartItemDTO);
         }
 
-        // Add the item to the order
-        Product product = productService.getProductById(cartItemDTO.getProductId());
-
-        // Check if this product is already in the order and if the order is still in PENDING status
-        boolean shouldAddNewLineItem = true;
-
         // Only update quantity for existing items if the order is still in PENDING status
         // For orders that are IN_PROGRESS or READY, always add as new line items
+        OrderItem lineItem = null;
+        BigDecimal previousSubtotal = BigDecimal.ZERO;
         if (order.getStatus() == OrderStatus.PENDING) {
             for (OrderItem item : order.getOrderItems()) {
                 if (item.getProduct().getId().equals(cartItemDTO.getProductId())) {
-                    // Update existing item quantity and subtotal only if order is still PENDING
+                    previousSubtotal = item.getSubtotal();
                     item.setQuantity(item.getQuantity() + cartItemDTO.getQuantity());
-                    item.setUnitPrice(cartItemDTO.getUnitPrice()); // Update unit price in case it changed
+                    item.setUnitPrice(unitPrice); // Reprice the line in case the price changed
                     item.setSubtotal(item.getUnitPrice().multiply(new BigDecimal(item.getQuantity())));
-                    shouldAddNewLineItem = false;
+                    lineItem = item;
                     break;
                 }
             }
         }
 
-        // If product not found in order or order is not in PENDING status, add a new order item
-        if (shouldAddNewLineItem) {
-            OrderItem newItem = new OrderItem();
-            newItem.setOrder(order);
-            newItem.setProduct(product);
-            newItem.setQuantity(cartItemDTO.getQuantity());
-            newItem.setUnitPrice(cartItemDTO.getUnitPrice());
-            newItem.setSubtotal(cartItemDTO.getUnitPrice().multiply(new BigDecimal(cartItemDTO.getQuantity())));
-            order.getOrderItems().add(newItem);
+        // If product not found in order or order is not in PENDING status, add a new order item.
+        // The price book has confirmed the product exists, so it is attached by reference without a query.
+        if (lineItem == null) {
+            lineItem = new OrderItem();
+            lineItem.setOrder(order);
+            lineItem.setProduct(entityManager.getReference(Product.class, cartItemDTO.getProductId()));
+            lineItem.setQuantity(cartItemDTO.getQuantity());
+            lineItem.setUnitPrice(unitPrice);
+            lineItem.setSubtotal(unitPrice.multiply(new BigDecimal(cartItemDTO.getQuantity())));
+            order.getOrderItems().add(lineItem);
         }
+        boolean newLine = lineItem.getId() == null;
 
-        // Update order total amount
-        BigDecimal totalAmount = BigDecimal.ZERO;
-        for (OrderItem item : order.getOrderItems()) {
-            totalAmount = totalAmount.add(item.getSubtotal());
-        }
-        order.setTotalAmount(totalAmount);
+        countAfterCommit(0, cartItemDTO.getQuantity());
+
+        // Adjust the total by this line's change instead of re-summing every item
+        order.setTotalAmount(order.getTotalAmount().add(lineItem.getSubtotal().subtract(previousSubtotal)));
+        order.setPriceBookVersion(quote.version());
 
         // Update special instructions if provided
         if (cartItemDTO.getSpecialInstructions() != null) {
             order.setSpecialInstructions(cartItemDTO.getSpecialInstructions());
         }
 
-        // Save the updated order
-        Order updatedOrder = updateOrder(order.getId(), order);
-
-        // If this is a new order, assign it to the table
+        // If this is a new order, assign it to the already loaded table
         if (table.getCurrentOrder() == null) {
-            tableService.assignOrderToTable(tableId, updatedOrder);
+            tableService.assignOrderToTable(table, order);
         }
 
-        return updatedOrder;
+        // The order is managed, so changes are written without a reload. A new item is flushed
+        // here rather than on commit, in case its product no longer exists.
+        if (newLine) {
+            flushProductReferences(List.of(cartItemDTO.getProductId()));
+        }
+        return order;
+    }
+
+    /**
+     * Write the pending line items now, while a failure can still be reported. Products are
+     * attached by reference on the word of the price book, so a product deleted by another
+     * instance since the last sync only shows up as a foreign key violation.
+     */
+    private void flushProductReferences(Collection<Long> productIds) {
+        try {
+            orderRepository.flush();
+        } catch (DataIntegrityViolationException e) {
+            if (isForeignKeyViolation(e)) {
+                throw new ResourceNotFoundException("Product not found with id: "
+                        + productIds.stream().map(String::valueOf).collect(Collectors.joining(", ")));
+            }
+            throw e;
+        }
+    }
+
+    private static boolean isForeignKeyViolation(DataIntegrityViolationException e) {
+        Throwable cause = NestedExceptionUtils.getMostSpecificCause(e);
+        String sqlState = cause instanceof SQLException sqlException ? sqlException.getSQLState() : null;
+        // PostgreSQL reports a missing parent row as 23503, H2 as 23506
+        return "23503".equals(sqlState) || "23506".equals(sqlState);
+    }
+
+    /**
+     * Count created orders and added item units once the current transaction commits
+     */
+    private void countAfterCommit(long orders, long itemUnits) {
+        TransactionHooks.afterCommit(() -> {
+            ordersCreated.increment(orders);
+            itemUnitsAdded.increment(itemUnits);
+        });
+    }
+
+    private long itemUnits(Order order) {
+        if (order.getOrderItems() == null) {
+            return 0;
+        }
+        return order.getOrderItems().stream()
+                .mapToLong(item -> item.getQuantity() != null ? item.getQuantity() : 0)
+                .sum();
     }
 
     /**
@@ -496,6 +827,7 @@ public class OrderServiceImpl implements OrderService {
 
     @Override
     @Transactional
+    @Timed(value = "pos.orders.complete_and_clear_table", histogram = true)
     public Map<String, Object> completeOrderAndClearTable(Long orderId, Map<String, Object> paymentDetails) {
         // Get the order
         Order order = getOrderById(orderId);
@@ -505,6 +837,7 @@ public class OrderServiceImpl implements OrderService {
         }
 
         // Update order status to COMPLETED
+        OrderSalesSnapshot before = OrderSalesSnapshot.of(order);
         order.setStatus(OrderStatus.COMPLETED);
 
         // Update payment information if provided
@@ -521,6 +854,7 @@ public class OrderServiceImpl implements OrderService {
 
         // Save the updated order
         Order completedOrder = updateOrder(orderId, order);
+        recordChange(before, OrderSalesSnapshot.of(completedOrder));
 
         // Clear the table
         Long tableId = order.getTable().getId();
@@ -549,9 +883,12 @@ public class OrderServiceImpl implements OrderService {
         Order order = getOrderById(orderId);
 
         // Update the status
+        OrderSalesSnapshot before = OrderSalesSnapshot.of(order);
         order.setStatus(orderStatus);
 
         // Save and return the updated order
-        return updateOrder(orderId, order);
+        Order updatedOrder = updateOrder(orderId, order);
+        recordChange(before, OrderSalesSnapshot.of(updatedOrder));
+        return updatedOrder;
     }
 }
@@ -0,0 +1,227 @@
+package com.erp.pos.service.impl;
+
+import com.erp.pos.dto.ProductDTO;
+import com.erp.pos.model.PriceOverride;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Effective prices at one version of the catalog: the base price of every product plus the active
+ * price overrides. A book is never modified; changes produce a new book with a higher version, so
+ * every line of an order is priced against the same data and the order can record which version
+ * priced it.
+ * <p>
+ * When overrides are in effect, product overrides win over category overrides. Among several
+ * overrides at the same level, the lowest price wins.
+ */
+public final class PriceBook {
+    static final PriceBook EMPTY = new PriceBook(0, Map.of(), Map.of(), Map.of());
+
+    private static final BigDecimal HUNDRED = BigDecimal.valueOf(100);
+    private static final BigDecimal MIN_PRICE = new BigDecimal("0.01");
+
+    private final long version;
+    private final Map<Long, Entry> products;
+    private final Map<Long, List<Rule>> productRules;
+    private final Map<Long, List<Rule>> categoryRules;
+
+    private record Entry(BigDecimal basePrice, Long categoryId) {
+    }
+
+    /**
+     * Price of one product; {@code overrideId} is null when the base price applies
+     */
+    public record Price(BigDecimal basePrice, BigDecimal unitPrice, Long overrideId) {
+    }
+
+    /**
+     * Prices of several products resolved against one book. Unknown products are left out.
+     */
+    public record Quote(long version, Map<Long, Price> prices) {
+        public Price price(Long productId) {
+            return prices.get(productId);
+        }
+    }
+
+    private PriceBook(long version, Map<Long, Entry> products, Map<Long, List<Rule>> productRules,
+                      Map<Long, List<Rule>> categoryRules) {
+        this.version = version;
+        this.products = products;
+        this.productRules = productRules;
+        this.categoryRules = categoryRules;
+    }
+
+    public long getVersion() {
+        return version;
+    }
+
+    public int size() {
+        return products.size();
+    }
+
+    /**
+     * Resolve the prices of all given products at one point in time
+     */
+    public Quote resolve(Collection<Long> productIds, LocalDateTime at) {
+        Map<Long, Price> prices = new LinkedHashMap<>();
+        for (Long productId : productIds) {
+            Entry entry = products.get(productId);
+            if (entry != null && !prices.containsKey(productId)) {
+                prices.put(productId, price(productId, entry, at));
+            }
+        }
+        return new Quote(version, prices);
+    }
+
+    private Price price(Long productId, Entry entry, LocalDateTime at) {
+        Price price = lowest(productRules.get(productId), entry.basePrice(), at);
+        if (price == null && entry.categoryId() != null) {
+            price = lowest(categoryRules.get(entry.categoryId()), entry.basePrice(), at);
+        }
+        return price != null ? price : new Price(entry.basePrice(), entry.basePrice(), null);
+    }
+
+    private static Price lowest(List<Rule> rules, BigDecimal basePrice, LocalDateTime at) {
+        if (rules == null) {
+            return null;
+        }
+        Price lowest = null;
+        for (Rule rule : rules) {
+            if (rule.appliesAt(at)) {
+                BigDecimal unitPrice = rule.apply(basePrice);
+                if (lowest == null || unitPrice.compareTo(lowest.unitPrice()) < 0) {
+                    lowest = new Price(basePrice, unitPrice, rule.id);
+                }
+            }
+        }
+        return lowest;
+    }
+
+    /**
+     * A book with all products and active overrides
+     */
+    static PriceBook of(long version, Collection<ProductDTO> products, Collection<PriceOverride> overrides) {
+        return EMPTY.withProducts(version, products).withOverrides(version, overrides);
+    }
+
+    /**
+     * A copy with these products added or replaced
+     */
+    PriceBook withProducts(long version, Collection<ProductDTO> changed) {
+        Map<Long, Entry> copy = new HashMap<>(products);
+        for (ProductDTO product : changed) {
+            copy.put(product.getId(), new Entry(product.getPrice(), product.getCategoryId()));
+        }
+        return new PriceBook(version, copy, productRules, categoryRules);
+    }
+
+    /**
+     * A copy without this product
+     */
+    PriceBook withoutProduct(long version, Long productId) {
+        Map<Long, Entry> copy = new HashMap<>(products);
+        copy.remove(productId);
+        return new PriceBook(version, copy, productRules, categoryRules);
+    }
+
+    /**
+     * A copy whose overrides are replaced by these; inactive ones are left out
+     */
+    PriceBook withOverrides(long version, Collection<PriceOverride> overrides) {
+        Map<Long, List<Rule>> byProduct = new HashMap<>();
+        Map<Long, List<Rule>> byCategory = new HashMap<>();
+        for (PriceOverride override : overrides) {
+            if (!override.isActive()) {
+                continue;
+            }
+            Rule rule = new Rule(override);
+            if (override.getProduct() != null) {
+                byProduct.computeIfAbsent(override.getProduct().getId(), id -> new ArrayList<>()).add(rule);
+            } else if (override.getCategory() != null) {
+                byCategory.computeIfAbsent(override.getCategory().getId(), id -> new ArrayList<>()).add(rule);
+            }
+        }
+        return new PriceBook(version, products, Collections.unmodifiableMap(byProduct), Collections.unmodifiableMap(byCategory));
+    }
+
+    /**
+     * An override reduced to what is needed to test and apply it
+     */
+    private static final class Rule {
+        final Long id;
+        // Bit per DayOfWeek ordinal; 0 applies every day
+        final int days;
+        final LocalTime startTime;
+        final LocalTime endTime;
+        final LocalDate validFrom;
+        final LocalDate validTo;
+        final BigDecimal price;
+        final BigDecimal percentOff;
+
+        Rule(PriceOverride override) {
+            id = override.getId();
+            days = daysMask(override.getDaysOfWeek());
+            startTime = override.getStartTime();
+            endTime = override.getEndTime();
+            validFrom = override.getValidFrom();
+            validTo = override.getValidTo();
+            price = override.getPrice();
+            percentOff = override.getPercentOff();
+        }
+
+        boolean appliesAt(LocalDateTime at) {
+            LocalTime time = at.toLocalTime();
+            LocalDate day = at.toLocalDate();
+            if (startTime != null && endTime != null) {
+                if (startTime.isBefore(endTime)) {
+                    if (time.isBefore(startTime) || !time.isBefore(endTime)) {
+                        return false;
+                    }
+                } else if (time.isBefore(endTime)) {
+                    // After midnight in a window that started the evening before, which owns the day and date checks
+                    day = day.minusDays(1);
+                } else if (time.isBefore(startTime)) {
+                    return false;
+                }
+            }
+            if (days != 0 && (days & (1 << day.getDayOfWeek().ordinal())) == 0) {
+                return false;
+            }
+            return (validFrom == null || !day.isBefore(validFrom)) && (validTo == null || !day.isAfter(validTo));
+        }
+
+        BigDecimal apply(BigDecimal basePrice) {
+            if (price != null) {
+                return price;
+            }
+            BigDecimal discounted = basePrice.multiply(HUNDRED.subtract(percentOff))
+                    .divide(HUNDRED, 2, RoundingMode.HALF_UP);
+            return discounted.max(MIN_PRICE);
+        }
+
+        static int daysMask(String daysOfWeek) {
+            int mask = 0;
+            if (daysOfWeek != null) {
+                for (String day : daysOfWeek.split(",")) {
+                    if (!day.isBlank()) {
+                        mask |= 1 << DayOfWeek.valueOf(day.strip().toUpperCase(Locale.ROOT)).ordinal();
+                    }
+                }
+            }
+            return mask;
+        }
+    }
+}
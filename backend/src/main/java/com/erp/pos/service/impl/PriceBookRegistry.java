@@ -0,0 +1,91 @@
+package com.erp.pos.service.impl;
+
+import com.erp.pos.exception.ResourceNotFoundException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+
+/**
+ * Holds the current {@link PriceBook}. Readers take the published book without locking; the
+ * {@link ProductChangeFeed} builds each new book from the committed product and override changes
+ * and publishes it. The first read triggers the first load if the feed has not yet run.
+ * <p>
+ * The version of a book is the catalog change number it was built at. Change numbers follow commit
+ * order and are shared by all instances, so every instance holding the same data reports the same
+ * version, and it never goes backwards. Deleting a product changes no price and keeps the version.
+ */
+@Component
+public class PriceBookRegistry implements ProductChangeListener {
+    private static final Logger logger = LoggerFactory.getLogger(PriceBookRegistry.class);
+
+    @Autowired
+    private ProductChangeFeed productChangeFeed;
+
+    private volatile PriceBook book = PriceBook.EMPTY;
+    private volatile boolean ready;
+
+    /**
+     * The current book, loading it first if this instance has not done so yet
+     */
+    public PriceBook current() {
+        if (!ready) {
+            productChangeFeed.sync();
+        }
+        return book;
+    }
+
+    /**
+     * Resolve the prices of all given products against the current book. A product the book does
+     * not know may have just been created by another instance, so the feed is synced once before
+     * the product is reported as not found.
+     */
+    public PriceBook.Quote quote(Collection<Long> productIds, LocalDateTime at) {
+        PriceBook.Quote quote = current().resolve(productIds, at);
+        if (!isComplete(quote, productIds)) {
+            productChangeFeed.sync();
+            quote = book.resolve(productIds, at);
+            for (Long productId : productIds) {
+                if (quote.price(productId) == null) {
+                    throw new ResourceNotFoundException("Product not found with id: " + productId);
+                }
+            }
+        }
+        return quote;
+    }
+
+    @Override
+    public void catalogChanged(ProductChangeFeed.Changes changes) {
+        if (changes.reload()) {
+            book = PriceBook.of(changes.seq(), changes.products(), changes.overrides());
+            ready = true;
+            logger.info("Loaded price book version {} with {} products", book.getVersion(), changes.products().size());
+            return;
+        }
+
+        PriceBook next = book;
+        if (changes.seq() != next.getVersion()) {
+            if (!changes.products().isEmpty()) {
+                next = next.withProducts(changes.seq(), changes.products());
+            }
+            // Overrides are few, so every new change number rebuilds them
+            next = next.withOverrides(changes.seq(), changes.overrides());
+        }
+        for (Long productId : changes.removedIds()) {
+            next = next.withoutProduct(next.getVersion(), productId);
+        }
+        book = next;
+    }
+
+    private static boolean isComplete(PriceBook.Quote quote, Collection<Long> productIds) {
+        for (Long productId : productIds) {
+            if (quote.price(productId) == null) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
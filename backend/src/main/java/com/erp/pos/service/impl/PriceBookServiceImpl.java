@@ -0,0 +1,123 @@
+package com.erp.pos.service.impl;
+
+import com.erp.pos.dto.PriceOverrideDTO;
+import com.erp.pos.dto.PriceQuoteDTO;
+import com.erp.pos.dto.PriceQuoteLineDTO;
+import com.erp.pos.exception.ResourceNotFoundException;
+import com.erp.pos.model.PriceOverride;
+import com.erp.pos.repository.CategoryRepository;
+import com.erp.pos.repository.PriceOverrideRepository;
+import com.erp.pos.repository.ProductRepository;
+import com.erp.pos.service.PriceBookService;
+import com.erp.pos.util.TransactionHooks;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Price quotes from the in-memory {@link PriceBookRegistry}, and maintenance of the price overrides it applies
+ */
+@Service
+public class PriceBookServiceImpl implements PriceBookService {
+    @Autowired
+    private PriceBookRegistry priceBookRegistry;
+
+    @Autowired
+    private ProductChangeFeed productChangeFeed;
+
+    @Autowired
+    private PriceOverrideRepository priceOverrideRepository;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private CategoryRepository categoryRepository;
+
+    @Override
+    public PriceQuoteDTO quote(Collection<Long> productIds) {
+        LocalDateTime now = LocalDateTime.now();
+        PriceBook.Quote quote = priceBookRegistry.quote(productIds, now);
+        List<PriceQuoteLineDTO> prices = quote.prices().entrySet().stream()
+                .map(entry -> new PriceQuoteLineDTO(entry.getKey(), entry.getValue().basePrice(),
+                        entry.getValue().unitPrice(), entry.getValue().overrideId()))
+                .collect(Collectors.toList());
+        return new PriceQuoteDTO(quote.version(), now, prices);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<PriceOverrideDTO> getAllOverrides() {
+        return priceOverrideRepository.findAll().stream()
+                .map(PriceOverrideDTO::fromEntity)
+                .collect(Collectors.toList());
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public PriceOverrideDTO getOverrideById(Long id) {
+        return PriceOverrideDTO.fromEntity(findOverride(id));
+    }
+
+    @Override
+    @Transactional
+    public PriceOverrideDTO createOverride(PriceOverrideDTO overrideDTO) {
+        PriceOverride override = new PriceOverride();
+        apply(override, overrideDTO);
+        return saveAndPublish(override);
+    }
+
+    @Override
+    @Transactional
+    public PriceOverrideDTO updateOverride(Long id, PriceOverrideDTO overrideDTO) {
+        PriceOverride override = findOverride(id);
+        apply(override, overrideDTO);
+        return saveAndPublish(override);
+    }
+
+    /**
+     * Deactivate the override. It is kept so that an override ID already returned in a quote still resolves.
+     */
+    @Override
+    @Transactional
+    public void deleteOverride(Long id) {
+        PriceOverride override = findOverride(id);
+        override.setActive(false);
+        saveAndPublish(override);
+    }
+
+    private PriceOverride findOverride(Long id) {
+        return priceOverrideRepository.findById(id)
+                .orElseThrow(() -> new ResourceNotFoundException("Price override not found with id: " + id));
+    }
+
+    private void apply(PriceOverride override, PriceOverrideDTO overrideDTO) {
+        override.setName(overrideDTO.getName());
+        override.setProduct(overrideDTO.getProductId() == null ? null : productRepository.findById(overrideDTO.getProductId())
+                .orElseThrow(() -> new ResourceNotFoundException("Product not found with id: " + overrideDTO.getProductId())));
+        override.setCategory(overrideDTO.getCategoryId() == null ? null : categoryRepository.findById(overrideDTO.getCategoryId())
+                .orElseThrow(() -> new ResourceNotFoundException("Category not found with id: " + overrideDTO.getCategoryId())));
+        override.setPrice(overrideDTO.getPrice());
+        override.setPercentOff(overrideDTO.getPercentOff());
+        override.setDaysOfWeek(overrideDTO.daysOfWeekColumn());
+        override.setStartTime(overrideDTO.getStartTime());
+        override.setEndTime(overrideDTO.getEndTime());
+        override.setValidFrom(overrideDTO.getValidFrom());
+        override.setValidTo(overrideDTO.getValidTo());
+        override.setActive(overrideDTO.isActive());
+    }
+
+    /**
+     * Save an override and, once the transaction commits, publish it to the price book
+     */
+    private PriceOverrideDTO saveAndPublish(PriceOverride override) {
+        PriceOverride saved = priceOverrideRepository.saveAndFlush(override);
+        TransactionHooks.afterCommit(productChangeFeed::sync);
+        return PriceOverrideDTO.fromEntity(saved);
+    }
+}
@@ -0,0 +1,158 @@
+package com.erp.pos.service.impl;
+
+import com.erp.pos.dto.ProductDTO;
+import com.erp.pos.model.PriceOverride;
+import com.erp.pos.repository.CatalogChangeRepository;
+import com.erp.pos.repository.PriceOverrideRepository;
+import com.erp.pos.repository.ProductRepository;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Publishes committed catalog changes, made by this instance or any other, to the in-memory views of
+ * the catalog: every {@link ProductChangeListener}.
+ * <p>
+ * Every transaction that writes products, categories or price overrides takes the next number from
+ * the catalog change counter and stamps the products it writes with it (V16). The counter row stays
+ * locked until the writer commits, so numbers are handed out in commit order: once the counter reads
+ * N, every write numbered N or lower has committed, and the products changed since the previous sync
+ * are exactly those stamped above the number it read. Neither clocks nor slow transactions matter.
+ * <p>
+ * Deleted products leave no stamped row. This instance publishes its own deletions itself; others are
+ * noticed by the product count and trigger a full reload. Price overrides are few, so every change
+ * re-reads the active ones.
+ */
+@Component
+public class ProductChangeFeed {
+    private static final Logger logger = LoggerFactory.getLogger(ProductChangeFeed.class);
+
+    private static final int CHANGE_TRIGGERS = 5;
+
+    @Autowired
+    private CatalogChangeRepository catalogChangeRepository;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private PriceOverrideRepository priceOverrideRepository;
+
+    // Looked up on use: listeners that sync on demand depend on the feed in turn
+    @Autowired
+    private ObjectProvider<ProductChangeListener> listeners;
+
+    @Value("${app.catalog.change-triggers-required:true}")
+    private boolean triggersRequired;
+
+    private final ReentrantLock lock = new ReentrantLock();
+
+    // Guarded by lock
+    private boolean loaded;
+    private long lastSeq;
+    private final Set<Long> productIds = new HashSet<>();
+    private List<PriceOverride> overrides = List.of();
+
+    /**
+     * Changes up to change number {@code seq}. A reload carries the whole catalog; otherwise the
+     * products written since the previous changes and the products deleted by this instance.
+     * Either way, the active price overrides as of {@code seq}.
+     */
+    public record Changes(long seq, boolean reload, List<ProductDTO> products, List<Long> removedIds,
+                          List<PriceOverride> overrides) {
+    }
+
+    @PostConstruct
+    void verifyTriggers() {
+        if (!triggersRequired) {
+            logger.warn("Catalog change triggers are not checked; catalog changes of other instances may go unseen");
+            return;
+        }
+
+        long found;
+        try {
+            found = catalogChangeRepository.countChangeTriggers();
+        } catch (RuntimeException e) {
+            throw new IllegalStateException("Could not check for the catalog change triggers of " +
+                    "V16__add_catalog_change_numbers.sql", e);
+        }
+        if (found < CHANGE_TRIGGERS) {
+            throw new IllegalStateException("The catalog change triggers of V16__add_catalog_change_numbers.sql are " +
+                    "missing, so catalog changes would not reach other instances; apply the migration");
+        }
+    }
+
+    /**
+     * Load the catalog on first run, then publish what was committed since the last sync. Call after
+     * a catalog write commits to make it visible at once.
+     */
+    @Scheduled(fixedDelayString = "${app.catalog.sync-ms:5000}")
+    public void sync() {
+        lock.lock();
+        try {
+            // The number before the rows: everything numbered up to it is committed and read below
+            long seq = catalogChangeRepository.findLastSeq().orElse(0L);
+            if (!loaded) {
+                reloadLocked(seq);
+                return;
+            }
+            if (seq == lastSeq) {
+                return;
+            }
+
+            List<ProductDTO> changed = productRepository.findSnapshotsChangedAfter(lastSeq);
+            changed.forEach(product -> productIds.add(product.getId()));
+            if (productRepository.count() != productIds.size()) {
+                // Deleted by another instance
+                reloadLocked(seq);
+                return;
+            }
+            lastSeq = seq;
+            overrides = priceOverrideRepository.findByActiveTrue();
+            publish(new Changes(seq, false, changed, List.of(), overrides));
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Publish a product deletion this instance committed
+     */
+    public void productRemoved(Long productId) {
+        lock.lock();
+        try {
+            if (productIds.remove(productId)) {
+                publish(new Changes(lastSeq, false, List.of(), List.of(productId), overrides));
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void reloadLocked(long seq) {
+        long started = System.nanoTime();
+        List<ProductDTO> products = productRepository.findAllSnapshots();
+        productIds.clear();
+        products.forEach(product -> productIds.add(product.getId()));
+        overrides = priceOverrideRepository.findByActiveTrue();
+        loaded = true;
+        lastSeq = seq;
+        publish(new Changes(seq, true, products, List.of(), overrides));
+        logger.info("Loaded {} products at catalog change {} in {} ms", products.size(), seq,
+                (System.nanoTime() - started) / 1_000_000);
+    }
+
+    private void publish(Changes changes) {
+        listeners.orderedStream().forEach(listener -> listener.catalogChanged(changes));
+    }
+}
@@ -0,0 +1,12 @@
+package com.erp.pos.service.impl;
+
+/**
+ * An in-memory view of the catalog kept up to date by the {@link ProductChangeFeed}
+ */
+public interface ProductChangeListener {
+
+    /**
+     * Apply committed catalog changes. Calls are made one at a time, in commit order.
+     */
+    void catalogChanged(ProductChangeFeed.Changes changes);
+}
@@ -0,0 +1,184 @@
+package com.erp.pos.service.impl;
+
+import com.erp.pos.dto.ProductDTO;
+import com.erp.pos.dto.ProductScanDTO;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Barcode and SKU lookup for scanner input: a concurrent map from normalized code to product
+ * summary. Nothing is allocated for codes that are already trimmed and upper-case.
+ * <p>
+ * Lookups never lock. Writers change the map in place, one product at a time; only a full reload
+ * builds a new map and publishes it. Kept up to date by the {@link ProductChangeFeed}, which
+ * delivers changes in commit order, so the last change applied to a product is always its latest.
+ * Until the first load the index is not {@link #isReady() ready}.
+ * <p>
+ * If several products share a code, the one with the lowest ID wins, as in the database lookup.
+ * The other holders of a shared code are kept in a sorted set, so the code passes to the next of
+ * them in O(log k) for k holders when its owner drops it. Unshared codes need no set.
+ */
+@Component
+public class ProductCodeIndex implements ProductChangeListener {
+    private static final Logger logger = LoggerFactory.getLogger(ProductCodeIndex.class);
+
+    private final ReentrantLock writeLock = new ReentrantLock();
+
+    // Changed in place for single products; replaced as a whole on a full reload
+    private volatile Map<String, ProductScanDTO> codes = new ConcurrentHashMap<>();
+    private volatile boolean ready;
+
+    // Writer state, guarded by writeLock: the entry indexed for each product, to find its old codes,
+    // and the IDs of all products holding each code held by more than one
+    private final Map<Long, ProductScanDTO> byId = new HashMap<>();
+    private final Map<String, NavigableSet<Long>> sharedCodes = new HashMap<>();
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    /**
+     * The product with this barcode or SKU, or null. The returned summary is shared and must not be modified.
+     */
+    public ProductScanDTO find(String code) {
+        String normalized = normalize(code);
+        return normalized.isEmpty() ? null : codes.get(normalized);
+    }
+
+    @Override
+    public void catalogChanged(ProductChangeFeed.Changes changes) {
+        if (changes.reload()) {
+            reload(changes.products());
+            return;
+        }
+        putAll(changes.products());
+        changes.removedIds().forEach(this::remove);
+    }
+
+    void put(ProductDTO product) {
+        putAll(List.of(product));
+    }
+
+    void putAll(Collection<ProductDTO> products) {
+        writeLock.lock();
+        try {
+            products.forEach(product -> putLocked(codes, product));
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    void remove(Long productId) {
+        writeLock.lock();
+        try {
+            ProductScanDTO previous = byId.remove(productId);
+            if (previous != null) {
+                for (String code : codesOf(previous)) {
+                    releaseCode(codes, code, productId);
+                }
+            }
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    private void reload(List<ProductDTO> products) {
+        writeLock.lock();
+        try {
+            long started = System.nanoTime();
+            byId.clear();
+            sharedCodes.clear();
+            Map<String, ProductScanDTO> loaded = new ConcurrentHashMap<>(products.size() * 2);
+            products.forEach(product -> putLocked(loaded, product));
+            codes = loaded;
+            ready = true;
+            logger.info("Indexed {} barcodes and SKUs of {} products in {} ms", loaded.size(), products.size(),
+                    (System.nanoTime() - started) / 1_000_000);
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    private void putLocked(Map<String, ProductScanDTO> target, ProductDTO product) {
+        ProductScanDTO entry = ProductScanDTO.fromProduct(product);
+        ProductScanDTO previous = byId.put(entry.getId(), entry);
+        List<String> entryCodes = codesOf(entry);
+        if (previous != null) {
+            for (String code : codesOf(previous)) {
+                if (!entryCodes.contains(code)) {
+                    releaseCode(target, code, entry.getId());
+                }
+            }
+        }
+        for (String code : entryCodes) {
+            claimCode(target, code, entry);
+        }
+    }
+
+    /**
+     * Give a code to a product that has it: the product's own older entry is replaced, and
+     * between different products the lowest ID wins
+     */
+    private void claimCode(Map<String, ProductScanDTO> target, String code, ProductScanDTO entry) {
+        ProductScanDTO owner = target.get(code);
+        if (owner == null || owner.getId().equals(entry.getId())) {
+            target.put(code, entry);
+            return;
+        }
+        sharedCodes.computeIfAbsent(code, ignored -> new TreeSet<>(List.of(owner.getId()))).add(entry.getId());
+        if (entry.getId() < owner.getId()) {
+            target.put(code, entry);
+        }
+    }
+
+    /**
+     * Take a code away from a product that no longer has it, handing it to the product with the
+     * next lowest ID that does
+     */
+    private void releaseCode(Map<String, ProductScanDTO> target, String code, Long productId) {
+        NavigableSet<Long> holders = sharedCodes.get(code);
+        ProductScanDTO owner = target.get(code);
+        if (holders == null) {
+            if (owner != null && owner.getId().equals(productId)) {
+                target.remove(code);
+            }
+            return;
+        }
+
+        holders.remove(productId);
+        if (owner != null && owner.getId().equals(productId)) {
+            target.put(code, byId.get(holders.first()));
+        }
+        if (holders.size() < 2) {
+            sharedCodes.remove(code);
+        }
+    }
+
+    private static List<String> codesOf(ProductScanDTO product) {
+        String barcode = normalize(product.getBarcode());
+        String sku = normalize(product.getSku());
+        if (barcode.isEmpty()) {
+            return sku.isEmpty() ? List.of() : List.of(sku);
+        }
+        return sku.isEmpty() || sku.equals(barcode) ? List.of(barcode) : List.of(barcode, sku);
+    }
+
+    /**
+     * Scanners may add whitespace or a line ending; SKUs typed by hand may differ in case.
+     * Returns the code itself when it is already normalized.
+     */
+    private static String normalize(String code) {
+        return code == null ? "" : code.strip().toUpperCase(Locale.ROOT);
+    }
+}
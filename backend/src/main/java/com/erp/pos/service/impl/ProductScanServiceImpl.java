@@ -0,0 +1,89 @@
+package com.erp.pos.service.impl;
+
+import com.erp.pos.dto.ProductDTO;
+import com.erp.pos.dto.ProductScanDTO;
+import com.erp.pos.dto.ProductScanResultDTO;
+import com.erp.pos.exception.ResourceNotFoundException;
+import com.erp.pos.model.Product;
+import com.erp.pos.repository.ProductRepository;
+import com.erp.pos.service.ProductScanService;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Barcode and SKU lookups for scanners. Served from {@link ProductCodeIndex}; while the index is
+ * still loading, the database answers instead (barcode first, then SKU).
+ */
+@Service
+public class ProductScanServiceImpl implements ProductScanService {
+    @Autowired
+    private ProductCodeIndex productCodeIndex;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private Timer indexTimer;
+    private Timer databaseTimer;
+
+    @PostConstruct
+    void initMetrics() {
+        indexTimer = Timer.builder("product.scan")
+                .description("Barcode and SKU lookups, per request")
+                .tag("source", "index")
+                .register(meterRegistry);
+        databaseTimer = Timer.builder("product.scan")
+                .description("Barcode and SKU lookups, per request")
+                .tag("source", "database")
+                .register(meterRegistry);
+    }
+
+    @Override
+    public ProductScanDTO scan(String code) {
+        ProductScanDTO product = productCodeIndex.isReady()
+                ? indexTimer.record(() -> productCodeIndex.find(code))
+                : databaseTimer.record(() -> findInDatabase(code));
+        if (product == null) {
+            throw new ResourceNotFoundException("Product not found with barcode or SKU: " + code);
+        }
+        return product;
+    }
+
+    @Override
+    public List<ProductScanResultDTO> scanAll(List<String> codes) {
+        if (productCodeIndex.isReady()) {
+            return indexTimer.record(() -> lookUp(codes, true));
+        }
+        return databaseTimer.record(() -> lookUp(codes, false));
+    }
+
+    private List<ProductScanResultDTO> lookUp(List<String> codes, boolean fromIndex) {
+        List<ProductScanResultDTO> results = new ArrayList<>(codes.size());
+        for (String code : codes) {
+            ProductScanDTO product = fromIndex ? productCodeIndex.find(code) : findInDatabase(code);
+            results.add(new ProductScanResultDTO(code, product));
+        }
+        return results;
+    }
+
+    private ProductScanDTO findInDatabase(String code) {
+        if (code == null || code.isBlank()) {
+            return null;
+        }
+        String trimmed = code.strip();
+        Optional<Product> product = productRepository.findFirstByBarcodeOrderByIdAsc(trimmed);
+        if (product.isEmpty()) {
+            product = productRepository.findFirstBySkuOrderByIdAsc(trimmed);
+        }
+        return product.map(found -> ProductScanDTO.fromProduct(ProductDTO.fromEntity(found))).orElse(null);
+    }
+}
@@ -0,0 +1,544 @@
+package com.erp.pos.service.impl;
+
+import com.erp.pos.dto.ProductDTO;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+import java.util.regex.Pattern;
+
+/**
+ * In-memory typeahead index over product name, category name, SKU and barcode.
+ * <p>
+ * Words are kept in a sorted dictionary, so a prefix lookup is a range scan. For typo tolerance,
+ * every word is also indexed by its trigrams; query words of three or more characters that find
+ * too few prefix matches are compared against words sharing their trigrams by edit distance.
+ * All query words must match, each in any field, so a SKU or barcode can be combined with words
+ * of the name; results are ranked by how well and in which field they matched.
+ * <p>
+ * Kept up to date by the {@link ProductChangeFeed}; until its first load the index is not
+ * {@link #isReady() ready}.
+ */
+@Component
+public class ProductSearchIndex implements ProductChangeListener {
+    private static final Logger logger = LoggerFactory.getLogger(ProductSearchIndex.class);
+
+    private static final Pattern DIACRITICS = Pattern.compile("\\p{M}+");
+    private static final Pattern SEPARATORS = Pattern.compile("[^a-z0-9]+");
+
+    // Bounds the work per query word for short, common prefixes
+    private static final int MAX_TERMS_PER_WORD = 512;
+    private static final int MAX_CANDIDATES = 2048;
+    private static final int FUZZY_MIN_LENGTH = 3;
+
+    private static final int SCORE_CODE_EXACT = 200;
+    private static final int SCORE_CODE_PREFIX = 80;
+    private static final int SCORE_NAME_EXACT = 100;
+    private static final int SCORE_NAME_PREFIX = 60;
+    private static final int SCORE_NAME_FUZZY = 30;
+    private static final int SCORE_CATEGORY_EXACT = 40;
+    private static final int SCORE_CATEGORY_PREFIX = 25;
+    private static final int SCORE_CATEGORY_FUZZY = 10;
+
+    private final ReentrantLock writeLock = new ReentrantLock();
+
+    // Updated in place for single products; replaced as a whole on a full reload
+    private volatile Index index = new Index();
+    private volatile boolean ready;
+
+    /**
+     * Products indexed under a word, by the field the word came from
+     */
+    private static final class Term {
+        final Set<Long> names = ConcurrentHashMap.newKeySet();
+        final Set<Long> categories = ConcurrentHashMap.newKeySet();
+        final Set<Long> codes = ConcurrentHashMap.newKeySet();
+
+        boolean isEmpty() {
+            return names.isEmpty() && categories.isEmpty() && codes.isEmpty();
+        }
+    }
+
+    private record Doc(ProductDTO product, String[] nameWords, String[] categoryWords, String[] codes) {
+    }
+
+    /**
+     * The dictionary, its trigram index and the indexed products. Written under the write lock
+     * only; readers may see a product half-updated, never a half-built index.
+     */
+    private static final class Index {
+        final NavigableMap<String, Term> terms = new ConcurrentSkipListMap<>();
+        final Map<String, Set<String>> termsByTrigram = new ConcurrentHashMap<>();
+        final Map<Long, Doc> docs = new ConcurrentHashMap<>();
+
+        void put(ProductDTO product) {
+            remove(product.getId());
+
+            Doc doc = new Doc(product,
+                    distinct(words(product.getName())),
+                    distinct(words(product.getCategoryName())),
+                    codes(product));
+            docs.put(product.getId(), doc);
+            for (String word : doc.nameWords()) {
+                addTerm(word, true).names.add(product.getId());
+            }
+            for (String word : doc.categoryWords()) {
+                addTerm(word, true).categories.add(product.getId());
+            }
+            for (String code : doc.codes()) {
+                addTerm(code, false).codes.add(product.getId());
+            }
+        }
+
+        void remove(Long productId) {
+            Doc doc = docs.remove(productId);
+            if (doc == null) {
+                return;
+            }
+            for (String word : doc.nameWords()) {
+                removeFromTerm(word, term -> term.names.remove(productId));
+            }
+            for (String word : doc.categoryWords()) {
+                removeFromTerm(word, term -> term.categories.remove(productId));
+            }
+            for (String code : doc.codes()) {
+                removeFromTerm(code, term -> term.codes.remove(productId));
+            }
+        }
+
+        private Term addTerm(String word, boolean fuzzy) {
+            Term term = terms.computeIfAbsent(word, key -> new Term());
+            // Only words from names and categories take part in typo matching; codes match exactly or by prefix
+            if (fuzzy && term.names.isEmpty() && term.categories.isEmpty()) {
+                for (String trigram : trigrams(word)) {
+                    termsByTrigram.computeIfAbsent(trigram, ignored -> ConcurrentHashMap.newKeySet()).add(word);
+                }
+            }
+            return term;
+        }
+
+        private void removeFromTerm(String word, Consumer<Term> removal) {
+            Term term = terms.get(word);
+            if (term == null) {
+                return;
+            }
+            removal.accept(term);
+            if (term.isEmpty()) {
+                terms.remove(word);
+            }
+            if (term.names.isEmpty() && term.categories.isEmpty()) {
+                for (String trigram : trigrams(word)) {
+                    Set<String> words = termsByTrigram.get(trigram);
+                    if (words != null) {
+                        words.remove(word);
+                        if (words.isEmpty()) {
+                            termsByTrigram.remove(trigram);
+                        }
+                    }
+                }
+            }
+        }
+    }
+
+    private enum Field {
+        NAME, CATEGORY, CODE
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    /**
+     * The best-ranked products matching every word of the query. The returned DTOs are shared and must not be modified.
+     */
+    public List<ProductDTO> search(String query, int limit) {
+        List<String> words = words(query);
+        if (words.isEmpty() || limit <= 0) {
+            return List.of();
+        }
+
+        Index current = index;
+
+        // Look up the most selective word in the dictionary, then check the others against each candidate
+        String seed = words.get(0);
+        int seedSize = Integer.MAX_VALUE;
+        for (String word : words) {
+            int size = estimateMatches(current, word);
+            if (size < seedSize) {
+                seed = word;
+                seedSize = size;
+            }
+        }
+        Map<Long, Integer> scores = matchWord(current, seed, limit);
+        for (String word : words) {
+            if (word != seed && !scores.isEmpty()) {
+                Map<String, Integer> matches = matchTerms(current, word);
+                scores.entrySet().removeIf(entry -> {
+                    Doc doc = current.docs.get(entry.getKey());
+                    int score = doc != null ? scoreDoc(doc, matches) : 0;
+                    entry.setValue(entry.getValue() + score);
+                    return score == 0;
+                });
+            }
+        }
+
+        // A scanned or typed code may contain separators that split it into several words
+        String code = String.join("", words);
+        matchCode(current, code, scores);
+
+        return top(current, scores, limit);
+    }
+
+    @Override
+    public void catalogChanged(ProductChangeFeed.Changes changes) {
+        if (changes.reload()) {
+            long started = System.nanoTime();
+            Index loaded = new Index();
+            changes.products().forEach(loaded::put);
+            index = loaded;
+            ready = true;
+            logger.info("Indexed {} products for search in {} ms", changes.products().size(),
+                    (System.nanoTime() - started) / 1_000_000);
+            return;
+        }
+        changes.products().forEach(this::put);
+        changes.removedIds().forEach(this::remove);
+    }
+
+    void put(ProductDTO product) {
+        writeLock.lock();
+        try {
+            index.put(product);
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    void remove(Long productId) {
+        writeLock.lock();
+        try {
+            index.remove(productId);
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    /**
+     * Scores of the products matching one query word: exact and prefix matches first, then
+     * words within a small edit distance if those were not enough to fill the result
+     */
+    private static Map<Long, Integer> matchWord(Index index, String word, int limit) {
+        Map<Long, Integer> scores = new HashMap<>();
+        // Exact matches come first in the dictionary, so the cap only cuts into prefix matches
+        int examined = 0;
+        for (Map.Entry<String, Term> entry : index.terms.tailMap(word, true).entrySet()) {
+            String candidate = entry.getKey();
+            if (!candidate.startsWith(word) || ++examined > MAX_TERMS_PER_WORD) {
+                break;
+            }
+            boolean exact = candidate.length() == word.length();
+            score(scores, entry.getValue(), Field.CODE, exact ? SCORE_CODE_EXACT : SCORE_CODE_PREFIX);
+            score(scores, entry.getValue(), Field.NAME, exact ? SCORE_NAME_EXACT : SCORE_NAME_PREFIX);
+            score(scores, entry.getValue(), Field.CATEGORY, exact ? SCORE_CATEGORY_EXACT : SCORE_CATEGORY_PREFIX);
+        }
+
+        // Numbers (sizes, quantities) are not corrected
+        if (word.length() >= FUZZY_MIN_LENGTH && scores.size() < limit && !containsDigit(word)) {
+            int maxDistance = maxDistance(word);
+            for (String candidate : fuzzyCandidates(index, word, maxDistance)) {
+                int distance = prefixDistance(word, candidate, maxDistance);
+                if (distance > 0 && distance <= maxDistance) {
+                    Term term = index.terms.get(candidate);
+                    if (term != null) {
+                        score(scores, term, Field.NAME, SCORE_NAME_FUZZY - 10 * (distance - 1));
+                        score(scores, term, Field.CATEGORY, SCORE_CATEGORY_FUZZY - 10 * (distance - 1));
+                    }
+                }
+            }
+        }
+        return scores;
+    }
+
+    /**
+     * Dictionary words matching one query word, with their distance from it: 0 for a prefix match
+     * (-1 if exact), otherwise the edit distance. Typos are only considered when nothing matches by prefix.
+     */
+    private static Map<String, Integer> matchTerms(Index index, String word) {
+        Map<String, Integer> matches = new HashMap<>();
+        int examined = 0;
+        for (String candidate : index.terms.tailMap(word, true).keySet()) {
+            if (!candidate.startsWith(word) || ++examined > MAX_TERMS_PER_WORD) {
+                break;
+            }
+            matches.put(candidate, candidate.length() == word.length() ? -1 : 0);
+        }
+        if (matches.isEmpty() && word.length() >= FUZZY_MIN_LENGTH && !containsDigit(word)) {
+            int maxDistance = maxDistance(word);
+            for (String candidate : fuzzyCandidates(index, word, maxDistance)) {
+                int distance = prefixDistance(word, candidate, maxDistance);
+                if (distance <= maxDistance) {
+                    matches.put(candidate, distance);
+                }
+            }
+        }
+        return matches;
+    }
+
+    /**
+     * Score of one product for a query word given the word's {@link #matchTerms matches}; 0 if it does not match
+     */
+    private static int scoreDoc(Doc doc, Map<String, Integer> matches) {
+        int best = 0;
+        for (String name : doc.nameWords()) {
+            Integer distance = matches.get(name);
+            if (distance != null) {
+                best = Math.max(best, fieldScore(distance, SCORE_NAME_EXACT, SCORE_NAME_PREFIX, SCORE_NAME_FUZZY));
+            }
+        }
+        for (String category : doc.categoryWords()) {
+            Integer distance = matches.get(category);
+            if (distance != null) {
+                best = Math.max(best, fieldScore(distance, SCORE_CATEGORY_EXACT, SCORE_CATEGORY_PREFIX, SCORE_CATEGORY_FUZZY));
+            }
+        }
+        for (String code : doc.codes()) {
+            Integer distance = matches.get(code);
+            // Codes match exactly or by prefix only
+            if (distance != null && distance <= 0) {
+                best = Math.max(best, distance < 0 ? SCORE_CODE_EXACT : SCORE_CODE_PREFIX);
+            }
+        }
+        return best;
+    }
+
+    private static int fieldScore(int distance, int exact, int prefix, int fuzzy) {
+        if (distance < 0) {
+            return exact;
+        }
+        return distance == 0 ? prefix : fuzzy - 10 * (distance - 1);
+    }
+
+    /**
+     * Upper bound of the products a word matches by prefix, to pick the most selective word of a query
+     */
+    private static int estimateMatches(Index index, String word) {
+        int total = 0;
+        int examined = 0;
+        for (Map.Entry<String, Term> entry : index.terms.tailMap(word, true).entrySet()) {
+            if (!entry.getKey().startsWith(word) || ++examined > MAX_TERMS_PER_WORD) {
+                break;
+            }
+            Term term = entry.getValue();
+            total += term.names.size() + term.categories.size() + term.codes.size();
+        }
+        return total;
+    }
+
+    private static int maxDistance(String word) {
+        return word.length() >= 7 ? 2 : 1;
+    }
+
+    /**
+     * Dictionary words sharing enough trigrams with the query word to be within the edit distance
+     */
+    private static List<String> fuzzyCandidates(Index index, String word, int maxDistance) {
+        Set<String> queryTrigrams = trigrams(word);
+        // Each edit destroys at most three trigrams
+        int required = Math.max(1, queryTrigrams.size() - 3 * maxDistance);
+
+        Map<String, Integer> shared = new HashMap<>();
+        for (String trigram : queryTrigrams) {
+            Set<String> words = index.termsByTrigram.get(trigram);
+            if (words != null) {
+                words.forEach(candidate -> shared.merge(candidate, 1, Integer::sum));
+            }
+        }
+
+        List<String> candidates = new ArrayList<>();
+        shared.forEach((candidate, count) -> {
+            if (count >= required) {
+                candidates.add(candidate);
+            }
+        });
+        return candidates;
+    }
+
+    private static void matchCode(Index index, String code, Map<Long, Integer> scores) {
+        int examined = 0;
+        for (Map.Entry<String, Term> entry : index.terms.tailMap(code, true).entrySet()) {
+            String candidate = entry.getKey();
+            if (!candidate.startsWith(code) || ++examined > MAX_TERMS_PER_WORD) {
+                break;
+            }
+            boolean exact = candidate.length() == code.length();
+            score(scores, entry.getValue(), Field.CODE, exact ? SCORE_CODE_EXACT : SCORE_CODE_PREFIX);
+        }
+    }
+
+    private static void score(Map<Long, Integer> scores, Term term, Field field, int score) {
+        Set<Long> ids = switch (field) {
+            case NAME -> term.names;
+            case CATEGORY -> term.categories;
+            case CODE -> term.codes;
+        };
+        for (Long id : ids) {
+            if (scores.size() >= MAX_CANDIDATES && !scores.containsKey(id)) {
+                return;
+            }
+            scores.merge(id, score, Math::max);
+        }
+    }
+
+    private static List<ProductDTO> top(Index index, Map<Long, Integer> scores, int limit) {
+        // Min-heap of the best hits seen so far
+        PriorityQueue<Hit> best = new PriorityQueue<>(limit + 1, ProductSearchIndex::compareHits);
+        scores.forEach((id, score) -> {
+            Doc doc = index.docs.get(id);
+            if (doc == null) {
+                return;
+            }
+            Hit hit = new Hit(doc.product(), score);
+            if (best.size() < limit) {
+                best.add(hit);
+            } else if (compareHits(hit, best.peek()) > 0) {
+                best.poll();
+                best.add(hit);
+            }
+        });
+
+        List<ProductDTO> results = new ArrayList<>(best.size());
+        while (!best.isEmpty()) {
+            results.add(best.poll().product());
+        }
+        Collections.reverse(results);
+        return results;
+    }
+
+    private record Hit(ProductDTO product, int score) {
+    }
+
+    /**
+     * Higher score first, then active products, shorter names and lower IDs
+     */
+    private static int compareHits(Hit a, Hit b) {
+        if (a.score() != b.score()) {
+            return Integer.compare(a.score(), b.score());
+        }
+        if (a.product().isActive() != b.product().isActive()) {
+            return a.product().isActive() ? 1 : -1;
+        }
+        int lengths = Integer.compare(nameLength(b.product()), nameLength(a.product()));
+        return lengths != 0 ? lengths : Long.compare(b.product().getId(), a.product().getId());
+    }
+
+    private static boolean containsDigit(String word) {
+        for (int i = 0; i < word.length(); i++) {
+            if (Character.isDigit(word.charAt(i))) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static int nameLength(ProductDTO product) {
+        return product.getName() != null ? product.getName().length() : Integer.MAX_VALUE;
+    }
+
+    private static String[] distinct(List<String> words) {
+        return new LinkedHashSet<>(words).toArray(String[]::new);
+    }
+
+    private static String[] codes(ProductDTO product) {
+        Set<String> codes = new LinkedHashSet<>();
+        for (String code : new String[]{product.getSku(), product.getBarcode()}) {
+            String normalized = String.join("", words(code));
+            if (!normalized.isEmpty()) {
+                codes.add(normalized);
+            }
+        }
+        return codes.toArray(String[]::new);
+    }
+
+    /**
+     * Lower-case words without accents or punctuation
+     */
+    static List<String> words(String text) {
+        if (text == null || text.isBlank()) {
+            return List.of();
+        }
+        String folded = DIACRITICS.matcher(Normalizer.normalize(text, Normalizer.Form.NFD)).replaceAll("");
+        List<String> words = new ArrayList<>();
+        for (String word : SEPARATORS.split(folded.toLowerCase(Locale.ROOT))) {
+            if (!word.isEmpty()) {
+                words.add(word);
+            }
+        }
+        return words;
+    }
+
+    /**
+     * Trigrams of a word, with a start marker so that leading characters weigh in
+     */
+    private static Set<String> trigrams(String word) {
+        String padded = "^" + word;
+        Set<String> trigrams = new HashSet<>();
+        for (int i = 0; i + 3 <= padded.length(); i++) {
+            trigrams.add(padded.substring(i, i + 3));
+        }
+        if (trigrams.isEmpty()) {
+            trigrams.add(padded);
+        }
+        return trigrams;
+    }
+
+    /**
+     * Smallest edit distance between the query word and any prefix of the candidate (so that a
+     * partly typed word can match), or {@code max + 1} once it is certain to exceed {@code max}
+     */
+    static int prefixDistance(String query, String candidate, int max) {
+        int n = candidate.length();
+        int[] previous = new int[n + 1];
+        int[] current = new int[n + 1];
+        for (int j = 0; j <= n; j++) {
+            previous[j] = j;
+        }
+
+        for (int i = 1; i <= query.length(); i++) {
+            current[0] = i;
+            int rowMin = current[0];
+            for (int j = 1; j <= n; j++) {
+                int cost = query.charAt(i - 1) == candidate.charAt(j - 1) ? 0 : 1;
+                current[j] = Math.min(Math.min(current[j - 1] + 1, previous[j] + 1), previous[j - 1] + cost);
+                rowMin = Math.min(rowMin, current[j]);
+            }
+            if (rowMin > max) {
+                return max + 1;
+            }
+            int[] swap = previous;
+            previous = current;
+            current = swap;
+        }
+
+        int best = max + 1;
+        for (int j = 0; j <= n; j++) {
+            best = Math.min(best, previous[j]);
+        }
+        return best;
+    }
+}
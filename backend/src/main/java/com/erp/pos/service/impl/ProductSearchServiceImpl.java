@@ -0,0 +1,72 @@
+package com.erp.pos.service.impl;
+
+import com.erp.pos.dto.ProductDTO;
+import com.erp.pos.model.Product;
+import com.erp.pos.repository.ProductRepository;
+import com.erp.pos.service.ProductSearchService;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataAccessException;
+import org.springframework.stereotype.Service;
+
+import java.util.List;
+
+/**
+ * Typeahead product search. Served from {@link ProductSearchIndex}; while the index is still
+ * loading, the database answers with a trigram similarity query instead.
+ */
+@Service
+public class ProductSearchServiceImpl implements ProductSearchService {
+    private static final Logger logger = LoggerFactory.getLogger(ProductSearchServiceImpl.class);
+
+    @Autowired
+    private ProductSearchIndex productSearchIndex;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private Timer indexTimer;
+    private Timer databaseTimer;
+
+    @PostConstruct
+    void initMetrics() {
+        indexTimer = Timer.builder("product.search")
+                .description("Product typeahead searches")
+                .tag("source", "index")
+                .register(meterRegistry);
+        databaseTimer = Timer.builder("product.search")
+                .description("Product typeahead searches")
+                .tag("source", "database")
+                .register(meterRegistry);
+    }
+
+    @Override
+    public List<ProductDTO> search(String query, int limit) {
+        if (query == null || query.isBlank()) {
+            return List.of();
+        }
+        if (productSearchIndex.isReady()) {
+            return indexTimer.record(() -> productSearchIndex.search(query, limit));
+        }
+        return databaseTimer.record(() -> searchDatabase(query.trim(), limit));
+    }
+
+    private List<ProductDTO> searchDatabase(String query, int limit) {
+        List<Product> products;
+        try {
+            products = productRepository.searchByTrigram(query, limit);
+        } catch (DataAccessException e) {
+            // pg_trgm is not installed (or not Postgres at all): plain substring match
+            logger.warn("Trigram product search unavailable, falling back to LIKE: {}", e.getMessage());
+            products = productRepository.findByNameContainingIgnoreCase(query).stream().limit(limit).toList();
+        }
+        return products.stream().map(ProductDTO::fromEntity).toList();
+    }
+}
@@ -1,19 +1,73 @@
 package com.erp.pos.service.impl;
 
+import com.erp.pos.dto.ProductImportResultDTO;
+import com.erp.pos.dto.ProductImportRowDTO;
+import com.erp.pos.enums.ProductImportStatus;
 import com.erp.pos.exception.ResourceNotFoundException;
+import com.erp.pos.model.Category;
 import com.erp.pos.model.Product;
+import com.erp.pos.repository.CategoryRepository;
 import com.erp.pos.repository.ProductRepository;
 import com.erp.pos.service.ProductService;
+import com.erp.pos.util.TransactionHooks;
+import com.fasterxml.jackson.databind.RuntimeJsonMappingException;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.NestedExceptionUtils;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
 
 @Service
 public class ProductServiceImpl implements ProductService {
+    private static final Logger logger = LoggerFactory.getLogger(ProductServiceImpl.class);
+
     @Autowired
     private ProductRepository productRepository;
 
+    @Autowired
+    private CategoryRepository categoryRepository;
+
+    @Autowired
+    private ProductChangeFeed productChangeFeed;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Autowired
+    private Validator validator;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${app.products.import.chunk-size:500}")
+    private int importChunkSize;
+
     @Override
     public List<Product> getAllProducts() {
         return productRepository.findAll();
@@ -25,6 +79,23 @@ public class ProductServiceImpl implements ProductService {
                 .orElseThrow(() -> new ResourceNotFoundException("Product not found with id: " + id));
     }
 
+    /**
+     * Load several products with one query, keyed by ID
+     */
+    @Override
+    public Map<Long, Product> getProductsByIds(Collection<Long> ids) {
+        Map<Long, Product> products = new HashMap<>();
+        for (Product product : productRepository.findAllById(ids)) {
+            products.put(product.getId(), product);
+        }
+        for (Long id : ids) {
+            if (!products.containsKey(id)) {
+                throw new ResourceNotFoundException("Product not found with id: " + id);
+            }
+        }
+        return products;
+    }
+
     @Override
     public List<Product> getProductsByCategory(Long categoryId) {
         return productRepository.findByCategoryId(categoryId);
@@ -36,29 +107,295 @@ public class ProductServiceImpl implements ProductService {
     }
 
     @Override
+    @Transactional
     public Product createProduct(Product product) {
-        return productRepository.save(product);
+        product.setCategory(resolveCategory(product.getCategory()));
+        return saveAndPublish(product);
     }
 
     @Override
+    @Transactional
     public Product updateProduct(Long id, Product productDetails) {
         Product product = getProductById(id);
-        
+
         product.setName(productDetails.getName());
         product.setDescription(productDetails.getDescription());
         product.setPrice(productDetails.getPrice());
         product.setStockQuantity(productDetails.getStockQuantity());
         product.setSku(productDetails.getSku());
         product.setBarcode(productDetails.getBarcode());
-        product.setCategory(productDetails.getCategory());
+        product.setCategory(resolveCategory(productDetails.getCategory()));
         product.setActive(productDetails.isActive());
-        
-        return productRepository.save(product);
+
+        return saveAndPublish(product);
     }
 
     @Override
+    @Transactional
     public void deleteProduct(Long id) {
         Product product = getProductById(id);
         productRepository.delete(product);
+        TransactionHooks.afterCommit(() -> productChangeFeed.productRemoved(id));
+    }
+
+    /**
+     * Upsert products by SKU. Rows are written in chunks, each chunk in one transaction whose
+     * inserts and updates go out as JDBC batches: the chunk's existing products are loaded with one
+     * query and categories are looked up by name in a map loaded once per import. Invalid rows are
+     * reported and skipped; if a chunk fails to commit, its rows are retried one per transaction.
+     * Results are passed to the consumer in input order as each chunk completes.
+     */
+    @Override
+    public void importProducts(Iterator<ProductImportRowDTO> rows, Consumer<ProductImportResultDTO> results) {
+        Map<String, Category> categoriesByName = new HashMap<>();
+        for (Category category : categoryRepository.findAll()) {
+            categoriesByName.putIfAbsent(category.getName().toLowerCase(Locale.ROOT), category);
+        }
+
+        List<ProductImportRowDTO> chunk = new ArrayList<>(importChunkSize);
+        // Rows the reader could not map, by position in the chunk
+        Map<Integer, String> unreadable = new HashMap<>();
+        int chunkStart = 0;
+
+        while (true) {
+            try {
+                if (!rows.hasNext()) {
+                    break;
+                }
+                chunk.add(rows.next());
+            } catch (RuntimeJsonMappingException e) {
+                // A value that does not fit its column: the reader resumes at the next row
+                unreadable.put(chunk.size(), "Invalid row: " + describeFailure(e));
+                chunk.add(null);
+            } catch (RuntimeException e) {
+                // Malformed input: keep what was read so far and report where it stopped
+                importChunk(chunkStart, chunk, unreadable, categoriesByName, results);
+                report(results, ProductImportResultDTO.failed(chunkStart + chunk.size(), null, "Malformed input: " + describeFailure(e)));
+                return;
+            }
+
+            if (chunk.size() == importChunkSize) {
+                importChunk(chunkStart, chunk, unreadable, categoriesByName, results);
+                chunkStart += chunk.size();
+                chunk.clear();
+                unreadable.clear();
+            }
+        }
+
+        importChunk(chunkStart, chunk, unreadable, categoriesByName, results);
+    }
+
+    private void importChunk(int chunkStart, List<ProductImportRowDTO> chunk, Map<Integer, String> unreadable,
+                             Map<String, Category> categoriesByName, Consumer<ProductImportResultDTO> results) {
+        if (chunk.isEmpty()) {
+            return;
+        }
+
+        ProductImportResultDTO[] outcome = new ProductImportResultDTO[chunk.size()];
+        List<Integer> pending = new ArrayList<>();
+        for (int i = 0; i < chunk.size(); i++) {
+            ProductImportRowDTO row = chunk.get(i);
+            if (row == null) {
+                outcome[i] = ProductImportResultDTO.failed(chunkStart + i, null, unreadable.get(i));
+            } else if (row.getSku() == null || row.getSku().isBlank()) {
+                outcome[i] = ProductImportResultDTO.failed(chunkStart + i, row.getSku(), "sku is required");
+            } else {
+                pending.add(i);
+            }
+        }
+
+        try {
+            writeImportRows(chunkStart, chunk, pending, categoriesByName, outcome);
+        } catch (RuntimeException chunkFailure) {
+            logger.warn("Product import chunk at index {} failed, retrying its rows one by one: {}",
+                    chunkStart, describeFailure(chunkFailure));
+            for (int i : pending) {
+                try {
+                    writeImportRows(chunkStart, chunk, List.of(i), categoriesByName, outcome);
+                } catch (RuntimeException e) {
+                    outcome[i] = ProductImportResultDTO.failed(chunkStart + i, chunk.get(i).getSku(), describeFailure(e));
+                }
+            }
+        }
+
+        for (ProductImportResultDTO result : outcome) {
+            report(results, result);
+        }
+    }
+
+    /**
+     * Apply rows in one transaction, flushed as JDBC batches, then publish the written products.
+     * The persistence context is cleared afterwards so a long import does not accumulate managed entities.
+     */
+    private void writeImportRows(int chunkStart, List<ProductImportRowDTO> chunk, List<Integer> rows,
+                                 Map<String, Category> categoriesByName, ProductImportResultDTO[] outcome) {
+        if (rows.isEmpty()) {
+            return;
+        }
+
+        boolean written;
+        try {
+            written = Boolean.TRUE.equals(new TransactionTemplate(transactionManager).execute(status -> {
+                Set<String> skus = rows.stream().map(i -> chunk.get(i).getSku().strip()).collect(Collectors.toSet());
+                Map<String, Product> bySku = new HashMap<>();
+                for (Product product : productRepository.findBySkuInWithCategory(skus)) {
+                    // SKUs are not unique in the table; the oldest product with the SKU is the one updated
+                    bySku.merge(product.getSku(), product, (first, second) -> first.getId() < second.getId() ? first : second);
+                }
+
+                Set<Product> changed = new LinkedHashSet<>();
+                for (int i : rows) {
+                    outcome[i] = applyImportRow(chunkStart + i, chunk.get(i), bySku, categoriesByName, changed);
+                }
+                entityManager.flush();
+                return !changed.isEmpty();
+            }));
+        } finally {
+            entityManager.clear();
+        }
+        if (written) {
+            productChangeFeed.sync();
+        }
+    }
+
+    private ProductImportResultDTO applyImportRow(int index, ProductImportRowDTO row, Map<String, Product> bySku,
+                                                  Map<String, Category> categoriesByName, Set<Product> changed) {
+        String sku = row.getSku().strip();
+        Category category = null;
+        if (row.getCategory() != null && !row.getCategory().isBlank()) {
+            category = categoriesByName.get(row.getCategory().strip().toLowerCase(Locale.ROOT));
+            if (category == null) {
+                return ProductImportResultDTO.failed(index, sku, "Category not found: " + row.getCategory());
+            }
+        }
+
+        // Validate the outcome on a copy, so that a rejected row leaves the managed product untouched
+        Product existing = bySku.get(sku);
+        Product candidate = existing != null ? copyOf(existing) : new Product();
+        applyImportRow(row, sku, category, candidate);
+        Set<ConstraintViolation<Product>> violations = validator.validate(candidate);
+        if (!violations.isEmpty()) {
+            return ProductImportResultDTO.failed(index, sku, describe(violations));
+        }
+
+        Product product;
+        if (existing != null) {
+            product = existing;
+            applyImportRow(row, sku, category, product);
+        } else {
+            product = candidate;
+            entityManager.persist(product);
+            bySku.put(sku, product);
+        }
+        changed.add(product);
+        return ProductImportResultDTO.of(index, sku,
+                existing == null ? ProductImportStatus.CREATED : ProductImportStatus.UPDATED, product.getId());
+    }
+
+    /**
+     * Set the fields present in the row; absent fields keep the product's current value
+     */
+    private static void applyImportRow(ProductImportRowDTO row, String sku, Category category, Product product) {
+        product.setSku(sku);
+        if (row.getName() != null) {
+            product.setName(row.getName());
+        }
+        if (row.getDescription() != null) {
+            product.setDescription(row.getDescription());
+        }
+        if (row.getPrice() != null) {
+            product.setPrice(row.getPrice());
+        }
+        if (row.getStockQuantity() != null) {
+            product.setStockQuantity(row.getStockQuantity());
+        }
+        if (row.getBarcode() != null) {
+            product.setBarcode(row.getBarcode().strip());
+        }
+        if (category != null) {
+            // Detached, but only its ID is written
+            product.setCategory(category);
+        }
+        if (row.getActive() != null) {
+            product.setActive(row.getActive());
+        }
+    }
+
+    private static Product copyOf(Product product) {
+        Product copy = new Product();
+        copy.setName(product.getName());
+        copy.setDescription(product.getDescription());
+        copy.setPrice(product.getPrice());
+        copy.setStockQuantity(product.getStockQuantity());
+        copy.setSku(product.getSku());
+        copy.setBarcode(product.getBarcode());
+        copy.setCategory(product.getCategory());
+        copy.setActive(product.isActive());
+        return copy;
+    }
+
+    /**
+     * Change prices by a percentage with one UPDATE statement, rounded to cents and at least 0.01
+     */
+    @Override
+    @Transactional
+    public int adjustPrices(Long categoryId, BigDecimal percent) {
+        BigDecimal factor = BigDecimal.ONE.add(percent.movePointLeft(2));
+        LocalDateTime now = LocalDateTime.now();
+        int updated;
+        if (categoryId == null) {
+            updated = productRepository.adjustAllPrices(factor, now);
+        } else {
+            if (!categoryRepository.existsById(categoryId)) {
+                throw new ResourceNotFoundException("Category not found with id: " + categoryId);
+            }
+            updated = productRepository.adjustCategoryPrices(categoryId, factor, now);
+        }
+        logger.info("Adjusted prices of {} products by {}% (category {})", updated, percent, categoryId);
+
+        TransactionHooks.afterCommit(productChangeFeed::sync);
+        return updated;
+    }
+
+    /**
+     * The managed category for a reference that may carry only an ID, so that the saved product
+     * (and everything built from it after commit) sees the category's name
+     */
+    private Category resolveCategory(Category category) {
+        if (category == null || category.getId() == null) {
+            return category;
+        }
+        return categoryRepository.findById(category.getId())
+                .orElseThrow(() -> new ResourceNotFoundException("Category not found with id: " + category.getId()));
+    }
+
+    /**
+     * Save a product and, once the transaction commits, publish it to the catalog snapshot, indexes and price book
+     */
+    private Product saveAndPublish(Product product) {
+        Product saved = productRepository.save(product);
+        TransactionHooks.afterCommit(productChangeFeed::sync);
+        return saved;
+    }
+
+    private void report(Consumer<ProductImportResultDTO> results, ProductImportResultDTO result) {
+        meterRegistry.counter("pos.products.imported", "status", result.getStatus().name().toLowerCase(Locale.ROOT)).increment();
+        results.accept(result);
+    }
+
+    private static String describe(Set<ConstraintViolation<Product>> violations) {
+        return violations.stream()
+                .map(violation -> violation.getPropertyPath() + " " + violation.getMessage())
+                .sorted()
+                .collect(Collectors.joining("; "));
+    }
+
+    /**
+     * First line of the root cause message, leaving out the SQL the driver appends
+     */
+    private static String describeFailure(Exception e) {
+        String message = String.valueOf(NestedExceptionUtils.getMostSpecificCause(e).getMessage());
+        int newline = message.indexOf('\n');
+        return newline >= 0 ? message.substring(0, newline).trim() : message;
     }
 }
@@ -0,0 +1,101 @@
+package com.erp.pos.service.impl;
+
+import com.erp.pos.dto.OrderSalesSnapshot;
+import com.erp.pos.enums.OrderStatus;
+import com.erp.pos.model.Order;
+import com.erp.pos.model.RevenueSummary;
+import com.erp.pos.repository.RevenueSummaryRepository;
+import com.erp.pos.service.RevenueSummaryService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+@Service
+public class RevenueSummaryServiceImpl implements RevenueSummaryService {
+    private static final Logger logger = LoggerFactory.getLogger(RevenueSummaryServiceImpl.class);
+
+    @Autowired
+    private RevenueSummaryRepository revenueSummaryRepository;
+
+    @Value("${app.revenue.reconcile-interval-ms:3600000}")
+    private long reconcileIntervalMs;
+
+    @Override
+    @Transactional(readOnly = true)
+    public RevenueSummary getRevenueSummary() {
+        return revenueSummaryRepository.findById(RevenueSummary.SINGLETON_ID)
+                .orElseGet(() -> new RevenueSummary(RevenueSummary.SINGLETON_ID, BigDecimal.ZERO, 0L, null));
+    }
+
+    /**
+     * Apply a change of an order to the aggregate: the revenue and count it contributed before
+     * (null for a new order) are replaced by what it contributes after (null for a deleted order).
+     * Runs inside the caller's transaction so the aggregate commits or rolls back together with the order.
+     */
+    @Override
+    @Transactional
+    public void recordChange(OrderSalesSnapshot before, OrderSalesSnapshot after) {
+        BigDecimal previousRevenue = before != null ? before.revenue() : BigDecimal.ZERO;
+        BigDecimal newRevenue = after != null ? after.revenue() : BigDecimal.ZERO;
+        long previousCount = before != null && before.isCompleted() ? 1 : 0;
+        long newCount = after != null && after.isCompleted() ? 1 : 0;
+
+        BigDecimal amount = newRevenue.subtract(previousRevenue);
+        long count = newCount - previousCount;
+        if (amount.signum() != 0 || count != 0) {
+            revenueSummaryRepository.increment(RevenueSummary.SINGLETON_ID, amount, count);
+        }
+    }
+
+    /**
+     * Add a set of newly created orders with a single update. Used by bulk ingestion so a
+     * chunk of orders costs one statement rather than one per order.
+     */
+    @Override
+    @Transactional
+    public void recordNewOrders(List<Order> orders) {
+        BigDecimal amount = BigDecimal.ZERO;
+        long count = 0;
+        for (Order order : orders) {
+            if (order.getStatus() == OrderStatus.COMPLETED) {
+                amount = amount.add(order.getTotalAmount() != null ? order.getTotalAmount() : BigDecimal.ZERO);
+                count++;
+            }
+        }
+
+        if (count > 0) {
+            revenueSummaryRepository.increment(RevenueSummary.SINGLETON_ID, amount, count);
+        }
+    }
+
+    /**
+     * Rebuild the aggregate from the orders table. Runs at startup and then on a
+     * fixed interval to correct any drift (e.g. totals edited after completion).
+     * Every instance schedules it, but only one reconciles at a time, and an aggregate reconciled
+     * within the last half interval is left alone, so a cluster does the work about once an interval.
+     */
+    @Override
+    @Transactional
+    @Scheduled(initialDelayString = "${app.revenue.reconcile-initial-delay-ms:0}",
+               fixedDelayString = "${app.revenue.reconcile-interval-ms:3600000}")
+    public void reconcile() {
+        if (!revenueSummaryRepository.tryLockReconcile()) {
+            logger.debug("Revenue summary is being reconciled by another instance");
+            return;
+        }
+        if (revenueSummaryRepository.lockById(RevenueSummary.SINGLETON_ID).isEmpty()) {
+            revenueSummaryRepository.saveAndFlush(
+                    new RevenueSummary(RevenueSummary.SINGLETON_ID, BigDecimal.ZERO, 0L, null));
+        }
+        if (revenueSummaryRepository.reconcile(RevenueSummary.SINGLETON_ID, reconcileIntervalMs / 2000) > 0) {
+            logger.debug("Revenue summary reconciled");
+        }
+    }
+}
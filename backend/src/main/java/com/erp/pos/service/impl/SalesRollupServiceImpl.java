@@ -0,0 +1,195 @@
+package com.erp.pos.service.impl;
+
+import com.erp.pos.dto.OrderSalesSnapshot;
+import com.erp.pos.dto.SalesBucketDTO;
+import com.erp.pos.enums.RollupGranularity;
+import com.erp.pos.model.Order;
+import com.erp.pos.model.SalesRollup;
+import com.erp.pos.repository.SalesRollupRepository;
+import com.erp.pos.service.SalesRollupService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+@Service
+public class SalesRollupServiceImpl implements SalesRollupService {
+    private static final Logger logger = LoggerFactory.getLogger(SalesRollupServiceImpl.class);
+
+    // Upper bound on buckets returned by a single query, e.g. a bit over a year of hourly buckets
+    private static final long MAX_BUCKETS = 10_000;
+
+    @Autowired
+    private SalesRollupRepository salesRollupRepository;
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<SalesBucketDTO> getSales(RollupGranularity granularity, LocalDateTime from, LocalDateTime to) {
+        if (from == null || to == null || !from.isBefore(to)) {
+            throw new IllegalArgumentException("'from' must be before 'to'");
+        }
+
+        LocalDateTime start = granularity.bucketStart(from);
+        long buckets = 0;
+        for (LocalDateTime t = start; t.isBefore(to); t = granularity.nextBucket(t)) {
+            if (++buckets > MAX_BUCKETS) {
+                throw new IllegalArgumentException("Requested range spans more than " + MAX_BUCKETS + " buckets");
+            }
+        }
+
+        List<SalesRollup> rows = salesRollupRepository
+                .findByGranularityAndBucketStartGreaterThanEqualAndBucketStartLessThanOrderByBucketStart(
+                        granularity.name(), start, to);
+
+        // Rows arrive ordered by bucket; fold the breakdown rows of each bucket into one DTO
+        Map<LocalDateTime, SalesBucketDTO> result = new LinkedHashMap<>();
+        for (SalesRollup row : rows) {
+            SalesBucketDTO bucket = result.computeIfAbsent(row.getBucketStart(), bucketStart -> {
+                SalesBucketDTO dto = new SalesBucketDTO();
+                dto.setGranularity(granularity);
+                dto.setBucketStart(bucketStart);
+                return dto;
+            });
+
+            bucket.setRevenue(bucket.getRevenue().add(row.getRevenue()));
+            bucket.setOrderCount(bucket.getOrderCount() + row.getOrderCount());
+            bucket.setGuests(bucket.getGuests() + row.getGuests());
+            bucket.getRevenueByOrderType().merge(row.getOrderType(), row.getRevenue(), BigDecimal::add);
+            bucket.getOrdersByOrderType().merge(row.getOrderType(), row.getOrderCount(), Long::sum);
+            bucket.getRevenueByPaymentMethod().merge(row.getPaymentMethod(), row.getRevenue(), BigDecimal::add);
+            bucket.getOrdersByPaymentMethod().merge(row.getPaymentMethod(), row.getOrderCount(), Long::sum);
+        }
+
+        return new ArrayList<>(result.values());
+    }
+
+    /**
+     * Replace the contribution of an order as it was before (null for a new order) with its
+     * contribution after (null for a deleted order). When only the total or guests changed, this is
+     * one upsert of the difference; when the order moved between buckets, one upsert per bucket.
+     * Runs inside the caller's transaction.
+     */
+    @Override
+    @Transactional
+    public void recordChange(OrderSalesSnapshot before, OrderSalesSnapshot after) {
+        Map<List<Object>, BucketTotals> totals = new LinkedHashMap<>();
+        add(totals, before, -1);
+        add(totals, after, 1);
+        upsert(totals);
+    }
+
+    /**
+     * Add a set of newly created orders, with one upsert per distinct hour, order type and
+     * payment method rather than one per order. Runs inside the caller's transaction.
+     */
+    @Override
+    @Transactional
+    public void recordNewOrders(List<Order> orders) {
+        Map<List<Object>, BucketTotals> totals = new LinkedHashMap<>();
+        for (Order order : orders) {
+            add(totals, OrderSalesSnapshot.of(order), 1);
+        }
+        upsert(totals);
+    }
+
+    /**
+     * Add (sign 1) or subtract (sign -1) a completed order to the totals of its hour, order type and payment method
+     */
+    private static void add(Map<List<Object>, BucketTotals> totals, OrderSalesSnapshot order, int sign) {
+        if (order == null || !order.isCompleted() || order.getOrderDate() == null) {
+            return;
+        }
+
+        LocalDateTime hourStart = RollupGranularity.HOUR.bucketStart(order.getOrderDate());
+        String orderType = order.getOrderType() != null ? order.getOrderType().name() : SalesRollup.UNSPECIFIED;
+        String paymentMethod = order.getPaymentMethod() != null ? order.getPaymentMethod().name() : SalesRollup.UNSPECIFIED;
+
+        BucketTotals bucket = totals.computeIfAbsent(List.of(hourStart, orderType, paymentMethod),
+                key -> new BucketTotals(hourStart, orderType, paymentMethod));
+        BigDecimal revenue = order.revenue();
+        bucket.revenue = bucket.revenue.add(sign > 0 ? revenue : revenue.negate());
+        bucket.orders += sign;
+        bucket.guests += sign * (order.getNumberOfGuests() != null ? order.getNumberOfGuests() : 0);
+    }
+
+    private void upsert(Map<List<Object>, BucketTotals> totals) {
+        for (BucketTotals bucket : totals.values()) {
+            if (bucket.revenue.signum() == 0 && bucket.orders == 0 && bucket.guests == 0) {
+                continue;
+            }
+            salesRollupRepository.upsert(
+                    bucket.hourStart,
+                    RollupGranularity.DAY.bucketStart(bucket.hourStart),
+                    RollupGranularity.MONTH.bucketStart(bucket.hourStart),
+                    bucket.orderType,
+                    bucket.paymentMethod,
+                    bucket.revenue,
+                    bucket.orders,
+                    bucket.guests);
+        }
+    }
+
+    /**
+     * Recompute every bucket overlapping the given range from the orders table. Buckets are
+     * zeroed and then set from the orders in the same transaction, so they are never missing, and
+     * orders completed meanwhile are added once the rebuild commits. Only one rebuild runs at a
+     * time across instances; returns false without changing anything when another one is running.
+     */
+    @Override
+    @Transactional
+    public boolean rebuild(LocalDateTime from, LocalDateTime to) {
+        if (!salesRollupRepository.tryLockRebuild()) {
+            logger.info("Sales rollups from {} to {} not rebuilt: another rebuild is running", from, to);
+            return false;
+        }
+
+        for (RollupGranularity granularity : RollupGranularity.values()) {
+            LocalDateTime start = granularity.bucketStart(from);
+            LocalDateTime end = granularity.bucketStart(to);
+            if (end.isBefore(to)) {
+                end = granularity.nextBucket(end);
+            }
+
+            salesRollupRepository.zeroRange(granularity.name(), start, end);
+            int rows = salesRollupRepository.rebuildRange(granularity.name(), granularity.sqlUnit(), start, end);
+            logger.debug("Rebuilt {} {} rollup rows from {} to {}", rows, granularity, start, end);
+        }
+        return true;
+    }
+
+    /**
+     * Nightly correction of recent buckets, covering the month that contains yesterday. Every
+     * instance schedules it; while one rebuilds, the others skip the run.
+     */
+    @Transactional
+    @Scheduled(cron = "${app.sales-rollup.rebuild-cron:0 30 3 * * *}")
+    public void rebuildRecent() {
+        LocalDateTime from = LocalDate.now().minusDays(1).withDayOfMonth(1).atStartOfDay();
+        rebuild(from, LocalDateTime.now());
+    }
+
+    private static final class BucketTotals {
+        private final LocalDateTime hourStart;
+        private final String orderType;
+        private final String paymentMethod;
+        private BigDecimal revenue = BigDecimal.ZERO;
+        private long orders;
+        private long guests;
+
+        private BucketTotals(LocalDateTime hourStart, String orderType, String paymentMethod) {
+            this.hourStart = hourStart;
+            this.orderType = orderType;
+            this.paymentMethod = paymentMethod;
+        }
+    }
+}
@@ -0,0 +1,240 @@
+package com.erp.pos.service.impl;
+
+import com.erp.pos.dto.TableDTO;
+import com.erp.pos.dto.TableDeltaDTO;
+import com.erp.pos.service.TableEventService;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Pushes floor-plan changes to subscribed clients over Server-Sent Events. A client gets a
+ * "snapshot" event with every table when it connects, then "delta" events. Callers report
+ * changes once they have committed; changes are coalesced per table, so a burst of updates to
+ * one table within the flush interval is sent once with its latest state.
+ * <p>
+ * Events are only queued on the scheduler and request threads. Writing them to the client
+ * sockets happens on a small dedicated pool, one send at a time per client, so a slow client
+ * holds up neither the scheduled jobs nor the other clients. A client that falls more than
+ * max-pending events behind is disconnected, and gets a fresh snapshot when it reconnects.
+ */
+@Service
+public class TableEventServiceImpl implements TableEventService {
+    private static final Logger logger = LoggerFactory.getLogger(TableEventServiceImpl.class);
+
+    @Autowired
+    private TableRegistry tableRegistry;
+
+    @Value("${app.tables.events.timeout-ms:1800000}")
+    private long emitterTimeout;
+
+    @Value("${app.tables.events.sender-threads:4}")
+    private int senderThreads;
+
+    @Value("${app.tables.events.max-pending:32}")
+    private int maxPending;
+
+    private final Set<Subscriber> subscribers = ConcurrentHashMap.newKeySet();
+
+    // Latest state per changed table and deleted table ids, waiting for the next flush
+    private final Map<Long, TableDTO> changedTables = new ConcurrentHashMap<>();
+    private final Set<Long> removedTables = ConcurrentHashMap.newKeySet();
+
+    // Orders snapshots against deltas so a new client never receives a delta older than its snapshot.
+    // Only held while events are queued, never while they are written.
+    private final ReentrantLock queueLock = new ReentrantLock();
+
+    private ExecutorService sender;
+
+    @PostConstruct
+    void init() {
+        AtomicInteger threadNumber = new AtomicInteger();
+        sender = Executors.newFixedThreadPool(senderThreads, runnable -> {
+            Thread thread = new Thread(runnable, "table-events-" + threadNumber.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    @PreDestroy
+    void shutdown() {
+        sender.shutdownNow();
+    }
+
+    @Override
+    public SseEmitter subscribe() {
+        SseEmitter emitter = createEmitter();
+        Subscriber subscriber = new Subscriber(emitter);
+        emitter.onCompletion(() -> subscribers.remove(subscriber));
+        emitter.onTimeout(() -> subscribers.remove(subscriber));
+        emitter.onError(e -> subscribers.remove(subscriber));
+
+        queueLock.lock();
+        try {
+            List<TableDTO> snapshot = tableRegistry.findAll();
+            subscribers.add(subscriber);
+            subscriber.enqueue(SseEmitter.event().name("snapshot").data(snapshot, MediaType.APPLICATION_JSON).build());
+        } finally {
+            queueLock.unlock();
+        }
+
+        return emitter;
+    }
+
+    SseEmitter createEmitter() {
+        return new SseEmitter(emitterTimeout);
+    }
+
+    @Override
+    public void tableChanged(TableDTO table) {
+        removedTables.remove(table.getId());
+        changedTables.put(table.getId(), table);
+    }
+
+    @Override
+    public void tableRemoved(Long tableId) {
+        changedTables.remove(tableId);
+        removedTables.add(tableId);
+    }
+
+    /**
+     * Queue everything reported since the last flush for all clients as one delta
+     */
+    @Scheduled(fixedDelayString = "${app.tables.events.coalesce-ms:250}")
+    public void flushDeltas() {
+        if (changedTables.isEmpty() && removedTables.isEmpty()) {
+            return;
+        }
+
+        queueLock.lock();
+        try {
+            TableDeltaDTO delta = new TableDeltaDTO();
+            for (Long id : new ArrayList<>(changedTables.keySet())) {
+                TableDTO table = changedTables.remove(id);
+                if (table != null) {
+                    delta.getTables().add(table);
+                }
+            }
+            for (Long id : new ArrayList<>(removedTables)) {
+                if (removedTables.remove(id)) {
+                    delta.getRemovedIds().add(id);
+                }
+            }
+
+            if (!delta.getTables().isEmpty() || !delta.getRemovedIds().isEmpty()) {
+                broadcast(SseEmitter.event().name("delta").data(delta, MediaType.APPLICATION_JSON));
+            }
+        } finally {
+            queueLock.unlock();
+        }
+    }
+
+    /**
+     * Keep idle connections open through proxies and drop clients that have gone away
+     */
+    @Scheduled(fixedDelayString = "${app.tables.events.heartbeat-ms:20000}")
+    public void heartbeat() {
+        if (subscribers.isEmpty()) {
+            return;
+        }
+
+        queueLock.lock();
+        try {
+            broadcast(SseEmitter.event().comment("heartbeat"));
+        } finally {
+            queueLock.unlock();
+        }
+    }
+
+    private void broadcast(SseEmitter.SseEventBuilder event) {
+        // Built once: a builder appends to itself each time it is built
+        Set<ResponseBodyEmitter.DataWithMediaType> data = event.build();
+        for (Subscriber subscriber : subscribers) {
+            subscriber.enqueue(data);
+        }
+    }
+
+    /**
+     * A client's queue of events not yet written. At most one sender thread drains it at a time,
+     * so the client receives its events in order.
+     */
+    private final class Subscriber implements Runnable {
+        private final SseEmitter emitter;
+        private final Queue<Set<ResponseBodyEmitter.DataWithMediaType>> pending = new ConcurrentLinkedQueue<>();
+        private final AtomicInteger pendingCount = new AtomicInteger();
+        private final AtomicBoolean draining = new AtomicBoolean();
+
+        private Subscriber(SseEmitter emitter) {
+            this.emitter = emitter;
+        }
+
+        void enqueue(Set<ResponseBodyEmitter.DataWithMediaType> event) {
+            if (pendingCount.incrementAndGet() > maxPending) {
+                drop(new IllegalStateException("more than " + maxPending + " events behind"));
+                return;
+            }
+            pending.add(event);
+            scheduleDrain();
+        }
+
+        private void scheduleDrain() {
+            if (draining.compareAndSet(false, true)) {
+                try {
+                    sender.execute(this);
+                } catch (RejectedExecutionException e) {
+                    draining.set(false);
+                }
+            }
+        }
+
+        @Override
+        public void run() {
+            try {
+                Set<ResponseBodyEmitter.DataWithMediaType> event;
+                while ((event = pending.poll()) != null) {
+                    pendingCount.decrementAndGet();
+                    emitter.send(event);
+                }
+            } catch (IOException | IllegalStateException e) {
+                drop(e);
+            } finally {
+                draining.set(false);
+            }
+            // An event queued after the last poll but before the flag was cleared still gets sent
+            if (!pending.isEmpty() && subscribers.contains(this)) {
+                scheduleDrain();
+            }
+        }
+
+        private void drop(Exception cause) {
+            if (subscribers.remove(this)) {
+                logger.debug("Dropping table event subscriber: {}", cause.getMessage());
+                pending.clear();
+                emitter.completeWithError(cause);
+            }
+        }
+    }
+}
@@ -0,0 +1,142 @@
+package com.erp.pos.service.impl;
+
+import com.erp.pos.dto.TableDTO;
+import com.erp.pos.dto.TableDeltaDTO;
+import com.erp.pos.dto.TableVersionRow;
+import com.erp.pos.repository.TableRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Predicate;
+
+/**
+ * In-memory copy of every restaurant table, loaded on first use. This instance's own changes
+ * are written in after they commit; changes made by other instances are picked up by
+ * {@link #sync()}, which compares modification times against the database.
+ */
+@Component
+public class TableRegistry {
+
+    @Autowired
+    private TableRepository tableRepository;
+
+    private final Map<Long, TableDTO> tables = new ConcurrentHashMap<>();
+    private final ReentrantLock loadLock = new ReentrantLock();
+    private volatile boolean loaded;
+
+    public List<TableDTO> findAll() {
+        return find(table -> true);
+    }
+
+    /**
+     * Tables matching the predicate, ordered by ID. The returned DTOs are shared and must not be modified.
+     */
+    public List<TableDTO> find(Predicate<TableDTO> predicate) {
+        ensureLoaded();
+        return tables.values().stream()
+                .filter(predicate)
+                .sorted(Comparator.comparing(TableDTO::getId))
+                .toList();
+    }
+
+    public Optional<TableDTO> findById(Long id) {
+        ensureLoaded();
+        return Optional.ofNullable(tables.get(id));
+    }
+
+    /**
+     * Store a table's committed state, unless the registry already holds a newer one.
+     * Returns whether the table was stored.
+     */
+    public boolean put(TableDTO table) {
+        return tables.merge(table.getId(), table, (current, incoming) ->
+                isNewer(current.getUpdatedAt(), incoming.getUpdatedAt()) ? current : incoming) == table;
+    }
+
+    public void remove(Long id) {
+        tables.remove(id);
+    }
+
+    /**
+     * Reload tables that were changed or deleted by other instances. Returns what changed so it
+     * can be pushed to floor-plan subscribers.
+     */
+    public TableDeltaDTO sync() {
+        TableDeltaDTO delta = new TableDeltaDTO();
+        if (!loaded) {
+            return delta;
+        }
+
+        // Only tables known before the query can be judged deleted; later ones may simply be newer
+        Set<Long> knownIds = new HashSet<>(tables.keySet());
+        List<TableVersionRow> versions = tableRepository.findAllVersions();
+
+        List<Long> changedIds = new ArrayList<>();
+        Set<Long> presentIds = new HashSet<>();
+        for (TableVersionRow version : versions) {
+            presentIds.add(version.getId());
+            TableDTO current = tables.get(version.getId());
+            if (current == null || !sameTime(current.getUpdatedAt(), version.getUpdatedAt())) {
+                changedIds.add(version.getId());
+            }
+        }
+
+        for (Long id : knownIds) {
+            if (!presentIds.contains(id) && tables.remove(id) != null) {
+                delta.getRemovedIds().add(id);
+            }
+        }
+
+        if (!changedIds.isEmpty()) {
+            for (TableDTO table : tableRepository.findSnapshotsByIdIn(changedIds)) {
+                // A write of this instance may have committed since the read; the newer state wins
+                if (put(table)) {
+                    delta.getTables().add(table);
+                }
+            }
+        }
+
+        return delta;
+    }
+
+    private void ensureLoaded() {
+        if (loaded) {
+            return;
+        }
+
+        loadLock.lock();
+        try {
+            if (!loaded) {
+                for (TableDTO table : tableRepository.findAllSnapshots()) {
+                    tables.put(table.getId(), table);
+                }
+                loaded = true;
+            }
+        } finally {
+            loadLock.unlock();
+        }
+    }
+
+    // The database keeps microseconds while the JVM clock may carry more precision
+    private static boolean sameTime(LocalDateTime a, LocalDateTime b) {
+        if (a == null || b == null) {
+            return a == b;
+        }
+        return Duration.between(a, b).abs().toNanos() < 1_000;
+    }
+
+    private static boolean isNewer(LocalDateTime candidate, LocalDateTime reference) {
+        return candidate != null && reference != null && candidate.isAfter(reference) && !sameTime(candidate, reference);
+    }
+}
@@ -1,86 +1,119 @@
 package com.erp.pos.service.impl;
 
+import com.erp.pos.dto.TableDTO;
+import com.erp.pos.dto.TableDeltaDTO;
 import com.erp.pos.enums.TableStatus;
 import com.erp.pos.exception.ResourceNotFoundException;
 import com.erp.pos.model.Order;
 import com.erp.pos.model.RestaurantTable;
 import com.erp.pos.repository.TableRepository;
+import com.erp.pos.service.TableEventService;
 import com.erp.pos.service.TableService;
+import com.erp.pos.util.TransactionHooks;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
 import java.util.Optional;
-import java.util.stream.Collectors;
+import java.util.function.Predicate;
 
+/**
+ * Reads are served from the in-memory {@link TableRegistry} as detached copies. Writes load the
+ * table from the database, save it, and write the committed state through to the registry and
+ * to floor-plan subscribers.
+ */
 @Service
 public class TableServiceImpl implements TableService {
 
     @Autowired
     private TableRepository tableRepository;
 
+    @Autowired
+    private TableRegistry tableRegistry;
+
+    @Autowired
+    private TableEventService tableEventService;
+
     @Override
     public List<RestaurantTable> getAllTables() {
-        return tableRepository.findAll();
+        return findTables(table -> true);
     }
 
     @Override
     public List<RestaurantTable> getFilteredTables(String status, String location, Integer capacity) {
-        return getAllTables().stream()
-            .filter(table -> {
-                // Status filter
-                if (status != null && !status.isEmpty()) {
-                    try {
-                        TableStatus tableStatus = TableStatus.valueOf(status.toUpperCase());
-                        if (table.getStatus() != tableStatus) {
-                            return false;
-                        }
-                    } catch (IllegalArgumentException e) {
-                        // Invalid status, don't apply this filter
-                    }
-                }
-
-                // Location filter
-                if (location != null && !location.isEmpty() &&
-                    !location.equalsIgnoreCase(table.getLocation())) {
-                    return false;
-                }
-
-                // Capacity filter
-                if (capacity != null && table.getCapacity() < capacity) {
-                    return false;
-                }
-
-                return true;
-            })
-            .collect(Collectors.toList());
+        TableStatus parsedStatus = null;
+        if (status != null && !status.isEmpty()) {
+            try {
+                parsedStatus = TableStatus.valueOf(status.toUpperCase());
+            } catch (IllegalArgumentException e) {
+                // Invalid status, don't apply this filter
+            }
+        }
+
+        TableStatus statusFilter = parsedStatus;
+        return findTables(table -> {
+            // Status filter
+            if (statusFilter != null && table.getStatus() != statusFilter) {
+                return false;
+            }
+
+            // Location filter
+            if (location != null && !location.isEmpty() &&
+                !location.equalsIgnoreCase(table.getLocation())) {
+                return false;
+            }
+
+            // Capacity filter
+            if (capacity != null && table.getCapacity() < capacity) {
+                return false;
+            }
+
+            return true;
+        });
     }
 
     @Override
     public RestaurantTable getTableById(Long id) {
-        return tableRepository.findById(id)
+        return tableRegistry.findById(id)
+                .map(TableDTO::toEntity)
+                .orElseGet(() -> {
+                    // May have been created by another instance since the last registry sync
+                    RestaurantTable table = loadTable(id);
+                    tableRegistry.put(TableDTO.fromEntity(table));
+                    return table;
+                });
+    }
+
+    /**
+     * Load a table together with its current order, the order's items and their products in one query
+     * (plus one for the roles of the order's creator)
+     */
+    @Override
+    public RestaurantTable getTableWithCurrentOrder(Long id) {
+        return tableRepository.findWithCurrentOrderItemsById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Table not found with id: " + id));
     }
 
     @Override
     public Optional<RestaurantTable> getTableByNumber(String tableNumber) {
-        return tableRepository.findByTableNumber(tableNumber);
+        return findTables(table -> table.getTableNumber().equals(tableNumber)).stream().findFirst();
     }
 
     @Override
     public List<RestaurantTable> getTablesByStatus(TableStatus status) {
-        return tableRepository.findByStatus(status);
+        return findTables(table -> table.getStatus() == status);
     }
 
     @Override
     public List<RestaurantTable> getTablesByLocation(String location) {
-        return tableRepository.findByLocation(location);
+        return findTables(table -> location != null && location.equals(table.getLocation()));
     }
 
     @Override
     public List<RestaurantTable> getTablesByMinCapacity(Integer capacity) {
-        return tableRepository.findByCapacityGreaterThanEqual(capacity);
+        return findTables(table -> table.getCapacity() >= capacity);
     }
 
     @Override
@@ -91,34 +124,73 @@ public class TableServiceImpl implements TableService {
             table.setStatus(TableStatus.AVAILABLE);
         }
 
-        return tableRepository.save(table);
+        return saveAndPublish(table);
     }
 
     @Override
     @Transactional
     public RestaurantTable updateTable(Long id, RestaurantTable tableDetails) {
-        RestaurantTable table = getTableById(id);
+        RestaurantTable table = loadTable(id);
 
         table.setTableNumber(tableDetails.getTableNumber());
         table.setCapacity(tableDetails.getCapacity());
         table.setStatus(tableDetails.getStatus());
         table.setLocation(tableDetails.getLocation());
+        applyPosition(table, tableDetails);
+
+        return saveAndPublish(table);
+    }
+
+    @Override
+    @Transactional
+    public RestaurantTable updateTablePosition(Long id, RestaurantTable position) {
+        RestaurantTable table = loadTable(id);
+        applyPosition(table, position);
+        return saveAndPublish(table);
+    }
 
-        return tableRepository.save(table);
+    /**
+     * Copy the floor plan fields that are supplied; the others keep their current value
+     */
+    private void applyPosition(RestaurantTable table, RestaurantTable position) {
+        if (position.getPositionX() != null) {
+            table.setPositionX(position.getPositionX());
+        }
+        if (position.getPositionY() != null) {
+            table.setPositionY(position.getPositionY());
+        }
+        if (position.getWidth() != null) {
+            table.setWidth(position.getWidth());
+        }
+        if (position.getHeight() != null) {
+            table.setHeight(position.getHeight());
+        }
+        if (position.getShape() != null) {
+            table.setShape(position.getShape());
+        }
     }
 
     @Override
     @Transactional
     public void deleteTable(Long id) {
-        RestaurantTable table = getTableById(id);
+        RestaurantTable table = loadTable(id);
         tableRepository.delete(table);
+
+        TransactionHooks.afterCommit(() -> {
+            tableRegistry.remove(id);
+            tableEventService.tableRemoved(id);
+        });
     }
 
     @Override
     @Transactional
     public RestaurantTable assignOrderToTable(Long tableId, Order order) {
-        RestaurantTable table = getTableById(tableId);
+        return assignOrderToTable(loadTable(tableId), order);
+    }
 
+    @Override
+    @Transactional
+    public RestaurantTable assignOrderToTable(RestaurantTable table, Order order) {
         // Check if table is available
         if (table.getStatus() != TableStatus.AVAILABLE && table.getStatus() != TableStatus.RESERVED) {
             throw new IllegalStateException("Table is not available for assignment");
@@ -127,27 +199,65 @@ public class TableServiceImpl implements TableService {
         table.setCurrentOrder(order);
         table.setStatus(TableStatus.OCCUPIED);
 
-        return tableRepository.save(table);
+        return saveAndPublish(table);
     }
 
     @Override
     @Transactional
     public RestaurantTable clearTable(Long tableId) {
-        RestaurantTable table = getTableById(tableId);
+        RestaurantTable table = loadTable(tableId);
 
         table.setCurrentOrder(null);
         table.setStatus(TableStatus.CLEANING);
 
-        return tableRepository.save(table);
+        return saveAndPublish(table);
     }
 
     @Override
     @Transactional
     public RestaurantTable changeTableStatus(Long tableId, TableStatus status) {
-        RestaurantTable table = getTableById(tableId);
+        RestaurantTable table = loadTable(tableId);
 
         table.setStatus(status);
 
-        return tableRepository.save(table);
+        return saveAndPublish(table);
+    }
+
+    /**
+     * Pick up tables changed or deleted by other instances and pass them on to floor-plan subscribers
+     */
+    @Scheduled(fixedDelayString = "${app.tables.registry.sync-ms:1000}")
+    public void syncRegistry() {
+        TableDeltaDTO delta = tableRegistry.sync();
+        delta.getTables().forEach(tableEventService::tableChanged);
+        delta.getRemovedIds().forEach(tableEventService::tableRemoved);
+    }
+
+    private List<RestaurantTable> findTables(Predicate<TableDTO> predicate) {
+        return tableRegistry.find(predicate).stream()
+                .map(TableDTO::toEntity)
+                .toList();
+    }
+
+    /**
+     * Load the managed table from the database; writes never start from the registry copy
+     */
+    private RestaurantTable loadTable(Long id) {
+        return tableRepository.findById(id)
+                .orElseThrow(() -> new ResourceNotFoundException("Table not found with id: " + id));
+    }
+
+    /**
+     * Save a table and, once the transaction commits, write its state through to the registry
+     * and queue it for floor-plan subscribers
+     */
+    private RestaurantTable saveAndPublish(RestaurantTable table) {
+        RestaurantTable saved = tableRepository.save(table);
+        TransactionHooks.afterCommit(() -> {
+            TableDTO committed = TableDTO.fromEntity(saved);
+            tableRegistry.put(committed);
+            tableEventService.tableChanged(committed);
+        });
+        return saved;
     }
 }
@@ -1,6 +1,7 @@
 package com.erp.pos.util;
 
 import com.erp.pos.model.User;
+import com.erp.pos.security.services.UserDetailsImpl;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.core.userdetails.UserDetails;
@@ -32,20 +33,22 @@ public class SecurityUtils {
     }
     
     /**
-     * Create a simplified User object for the current authenticated user
+     * Create a simplified User object for the current authenticated user, taken from the principal
+     * without a database lookup
      * 
-     * @return a User object with username and a default ID
+     * @return a User object with the username and ID, or null if not authenticated
      */
     public static User getCurrentUser() {
-        String username = getCurrentUsername();
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
         
-        if (username == null) {
+        if (authentication == null || !authentication.isAuthenticated()
+                || !(authentication.getPrincipal() instanceof UserDetailsImpl principal)) {
             return null;
         }
         
         User user = new User();
-        user.setUsername(username);
-        user.setId(1L); // This is a simplification - in a real app, you'd look up the user ID
+        user.setUsername(principal.getUsername());
+        user.setId(principal.getId());
         
         return user;
     }
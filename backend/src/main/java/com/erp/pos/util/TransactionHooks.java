@@ -0,0 +1,30 @@
+package com.erp.pos.util;
+
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Utility class for work that must only happen once the data it depends on is committed.
+ */
+public class TransactionHooks {
+
+    /**
+     * Run an action after the current transaction commits, or right away when no transaction is
+     * active. The action is dropped if the transaction rolls back.
+     *
+     * @param action the work to run, such as updating a cache or publishing an event
+     */
+    public static void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+}
@@ -0,0 +1,3 @@
+-- Client-generated key so terminals can replay queued orders without creating duplicates
+ALTER TABLE orders ADD COLUMN IF NOT EXISTS idempotency_key VARCHAR(100);
+CREATE UNIQUE INDEX IF NOT EXISTS uk_orders_idempotency_key ON orders(idempotency_key);
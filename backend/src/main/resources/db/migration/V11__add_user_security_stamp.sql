@@ -0,0 +1,36 @@
+-- Security stamp: a per-user version embedded in issued JWTs. Any change to a user's roles,
+-- password, username or active flag bumps it, which invalidates tokens issued before the change.
+ALTER TABLE users ADD COLUMN IF NOT EXISTS security_stamp BIGINT NOT NULL DEFAULT 0;
+
+CREATE OR REPLACE FUNCTION bump_user_security_stamp() RETURNS trigger AS $$
+BEGIN
+    IF NEW.active IS DISTINCT FROM OLD.active
+        OR NEW.password IS DISTINCT FROM OLD.password
+        OR NEW.username IS DISTINCT FROM OLD.username THEN
+        NEW.security_stamp := OLD.security_stamp + 1;
+    END IF;
+    RETURN NEW;
+END;
+$$ LANGUAGE plpgsql;
+
+DROP TRIGGER IF EXISTS trg_users_security_stamp ON users;
+CREATE TRIGGER trg_users_security_stamp
+    BEFORE UPDATE ON users
+    FOR EACH ROW EXECUTE FUNCTION bump_user_security_stamp();
+
+CREATE OR REPLACE FUNCTION bump_user_roles_security_stamp() RETURNS trigger AS $$
+BEGIN
+    IF TG_OP IN ('DELETE', 'UPDATE') THEN
+        UPDATE users SET security_stamp = security_stamp + 1 WHERE id = OLD.user_id;
+    END IF;
+    IF TG_OP IN ('INSERT', 'UPDATE') THEN
+        UPDATE users SET security_stamp = security_stamp + 1 WHERE id = NEW.user_id;
+    END IF;
+    RETURN NULL;
+END;
+$$ LANGUAGE plpgsql;
+
+DROP TRIGGER IF EXISTS trg_user_roles_security_stamp ON user_roles;
+CREATE TRIGGER trg_user_roles_security_stamp
+    AFTER INSERT OR UPDATE OR DELETE ON user_roles
+    FOR EACH ROW EXECUTE FUNCTION bump_user_roles_security_stamp();
@@ -0,0 +1,3 @@
+-- Trigram index for product search while the in-memory search index is still loading
+CREATE EXTENSION IF NOT EXISTS pg_trgm;
+CREATE INDEX IF NOT EXISTS idx_products_name_trgm ON products USING gin (name gin_trgm_ops);
@@ -0,0 +1,3 @@
+-- Barcode and SKU lookups (scanner fallback while the in-memory code index loads, and product imports)
+CREATE INDEX IF NOT EXISTS idx_products_barcode ON products(barcode);
+CREATE INDEX IF NOT EXISTS idx_products_sku ON products(sku);
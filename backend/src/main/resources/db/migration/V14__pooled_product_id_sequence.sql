@@ -0,0 +1,5 @@
+-- Products take ids from a pooled sequence so Hibernate can batch the inserts of a catalog import.
+-- Each nextval reserves a block of 50 ids; existing ids are kept and the sequence is moved past
+-- the current maximum so the first block starts right after it.
+ALTER SEQUENCE products_id_seq AS BIGINT INCREMENT BY 50;
+SELECT setval('products_id_seq', GREATEST(COALESCE((SELECT MAX(id) FROM products), 0), 1));
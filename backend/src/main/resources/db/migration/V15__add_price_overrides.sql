@@ -0,0 +1,24 @@
+-- Time-window price overrides (happy hours, weekday specials) for a product or a whole category.
+-- An override sets a fixed price or takes a percentage off the base price. Days are comma-separated
+-- day names (null = every day); a window whose end is not after its start runs past midnight.
+CREATE TABLE price_overrides (
+    id BIGSERIAL PRIMARY KEY,
+    name VARCHAR(100) NOT NULL,
+    product_id BIGINT REFERENCES products(id) ON DELETE CASCADE,
+    category_id BIGINT REFERENCES categories(id) ON DELETE CASCADE,
+    price DECIMAL(10, 2),
+    percent_off DECIMAL(5, 2),
+    days_of_week VARCHAR(70),
+    start_time TIME,
+    end_time TIME,
+    valid_from DATE,
+    valid_to DATE,
+    active BOOLEAN NOT NULL DEFAULT TRUE,
+    created_at TIMESTAMP NOT NULL,
+    updated_at TIMESTAMP NOT NULL,
+    CONSTRAINT ck_price_overrides_target CHECK ((product_id IS NULL) <> (category_id IS NULL)),
+    CONSTRAINT ck_price_overrides_amount CHECK ((price IS NULL) <> (percent_off IS NULL))
+);
+
+-- Version of the server-side price book that priced a table order (null for client-priced orders)
+ALTER TABLE orders ADD COLUMN IF NOT EXISTS price_book_version BIGINT;
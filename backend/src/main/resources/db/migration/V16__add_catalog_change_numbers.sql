@@ -0,0 +1,86 @@
+-- Catalog change numbers. Every transaction that writes products, categories or price overrides takes
+-- the next number from catalog_changes and stamps the products it writes with it. The counter row stays
+-- locked until the writer commits, so numbers are handed out in commit order: once the counter reads N,
+-- every write numbered N or lower has committed. Instances re-read the products stamped above the last
+-- number they saw, without relying on clocks or on how long a transaction ran (see ProductChangeFeed).
+-- Catalog writers queue on the counter row; orders never write these tables.
+CREATE TABLE IF NOT EXISTS catalog_changes (
+    id INT PRIMARY KEY,
+    seq BIGINT NOT NULL
+);
+
+-- Start above every price book version recorded so far (modification times in epoch microseconds),
+-- so that versions keep increasing once they are change numbers
+INSERT INTO catalog_changes (id, seq)
+SELECT 1, COALESCE(MAX(price_book_version), 0) FROM orders
+ON CONFLICT (id) DO NOTHING;
+
+ALTER TABLE products ADD COLUMN IF NOT EXISTS change_seq BIGINT NOT NULL DEFAULT 0;
+CREATE INDEX IF NOT EXISTS idx_products_change_seq ON products(change_seq);
+
+-- The change number of the current transaction, taken from the counter on first use
+CREATE OR REPLACE FUNCTION catalog_change_seq() RETURNS BIGINT AS $$
+DECLARE
+    next_seq BIGINT := NULLIF(current_setting('pos.catalog_change_seq', true), '')::BIGINT;
+BEGIN
+    IF next_seq IS NULL THEN
+        INSERT INTO catalog_changes (id, seq) VALUES (1, 1)
+        ON CONFLICT (id) DO UPDATE SET seq = catalog_changes.seq + 1
+        RETURNING seq INTO next_seq;
+        -- Local to the transaction (and undone with a rolled-back savepoint, like the counter update)
+        PERFORM set_config('pos.catalog_change_seq', next_seq::TEXT, true);
+    END IF;
+    RETURN next_seq;
+END;
+$$ LANGUAGE plpgsql;
+
+-- Runs before a statement touches any row, so a writer holds the counter before it locks catalog rows
+-- and two writers cannot deadlock over it. Deletions leave no stamped row but still move the counter.
+CREATE OR REPLACE FUNCTION take_catalog_change_seq() RETURNS trigger AS $$
+BEGIN
+    PERFORM catalog_change_seq();
+    RETURN NULL;
+END;
+$$ LANGUAGE plpgsql;
+
+CREATE OR REPLACE FUNCTION stamp_product_change_seq() RETURNS trigger AS $$
+BEGIN
+    NEW.change_seq := catalog_change_seq();
+    RETURN NEW;
+END;
+$$ LANGUAGE plpgsql;
+
+-- Products carry their category's name, so a renamed category re-stamps its products
+CREATE OR REPLACE FUNCTION stamp_category_products() RETURNS trigger AS $$
+BEGIN
+    IF NEW.name IS DISTINCT FROM OLD.name THEN
+        UPDATE products SET change_seq = catalog_change_seq() WHERE category_id = NEW.id;
+    END IF;
+    RETURN NULL;
+END;
+$$ LANGUAGE plpgsql;
+
+DROP TRIGGER IF EXISTS trg_products_catalog_change ON products;
+CREATE TRIGGER trg_products_catalog_change
+    BEFORE INSERT OR UPDATE OR DELETE ON products
+    FOR EACH STATEMENT EXECUTE FUNCTION take_catalog_change_seq();
+
+DROP TRIGGER IF EXISTS trg_categories_catalog_change ON categories;
+CREATE TRIGGER trg_categories_catalog_change
+    BEFORE INSERT OR UPDATE OR DELETE ON categories
+    FOR EACH STATEMENT EXECUTE FUNCTION take_catalog_change_seq();
+
+DROP TRIGGER IF EXISTS trg_price_overrides_catalog_change ON price_overrides;
+CREATE TRIGGER trg_price_overrides_catalog_change
+    BEFORE INSERT OR UPDATE OR DELETE ON price_overrides
+    FOR EACH STATEMENT EXECUTE FUNCTION take_catalog_change_seq();
+
+DROP TRIGGER IF EXISTS trg_products_change_seq ON products;
+CREATE TRIGGER trg_products_change_seq
+    BEFORE INSERT OR UPDATE ON products
+    FOR EACH ROW EXECUTE FUNCTION stamp_product_change_seq();
+
+DROP TRIGGER IF EXISTS trg_categories_stamp_products ON categories;
+CREATE TRIGGER trg_categories_stamp_products
+    AFTER UPDATE ON categories
+    FOR EACH ROW EXECUTE FUNCTION stamp_category_products();
@@ -0,0 +1,16 @@
+-- Maintained revenue aggregate read by the dashboard
+CREATE TABLE revenue_summary (
+    id BIGINT PRIMARY KEY,
+    total_revenue DECIMAL(14, 2) NOT NULL DEFAULT 0,
+    completed_orders BIGINT NOT NULL DEFAULT 0,
+    reconciled_at TIMESTAMP
+);
+
+-- Seed the aggregate from existing order history
+INSERT INTO revenue_summary (id, total_revenue, completed_orders, reconciled_at)
+SELECT 1, COALESCE(SUM(total_amount), 0), COUNT(*), NOW()
+FROM orders
+WHERE status = 'COMPLETED';
+
+-- Speeds up reconciliation and status filtering
+CREATE INDEX IF NOT EXISTS idx_orders_status ON orders(status);
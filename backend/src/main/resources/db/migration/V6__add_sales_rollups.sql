@@ -0,0 +1,25 @@
+-- Pre-aggregated sales buckets (HOUR, DAY, MONTH) by order type and payment method
+CREATE TABLE sales_rollups (
+    id BIGSERIAL PRIMARY KEY,
+    granularity VARCHAR(10) NOT NULL,
+    bucket_start TIMESTAMP NOT NULL,
+    order_type VARCHAR(20) NOT NULL,
+    payment_method VARCHAR(20) NOT NULL,
+    revenue DECIMAL(14, 2) NOT NULL DEFAULT 0,
+    order_count BIGINT NOT NULL DEFAULT 0,
+    guests BIGINT NOT NULL DEFAULT 0,
+    CONSTRAINT uk_sales_rollups_bucket UNIQUE (granularity, bucket_start, order_type, payment_method)
+);
+
+-- Backfill from existing completed orders
+INSERT INTO sales_rollups (granularity, bucket_start, order_type, payment_method, revenue, order_count, guests)
+SELECT g.granularity, date_trunc(g.unit, o.order_date),
+       COALESCE(o.order_type, 'UNSPECIFIED'), COALESCE(o.payment_method, 'UNSPECIFIED'),
+       SUM(o.total_amount), COUNT(*), COALESCE(SUM(o.number_of_guests), 0)
+FROM orders o
+CROSS JOIN (VALUES ('HOUR', 'hour'), ('DAY', 'day'), ('MONTH', 'month')) AS g(granularity, unit)
+WHERE o.status = 'COMPLETED'
+GROUP BY g.granularity, date_trunc(g.unit, o.order_date), 3, 4;
+
+-- Supports range rebuilds of the rollups
+CREATE INDEX IF NOT EXISTS idx_orders_order_date ON orders(order_date);
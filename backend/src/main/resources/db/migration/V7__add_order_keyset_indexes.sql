@@ -0,0 +1,8 @@
+-- Composite indexes backing keyset pagination on (order_date, id) for each listing filter
+CREATE INDEX IF NOT EXISTS idx_orders_date_id ON orders(order_date DESC, id DESC);
+CREATE INDEX IF NOT EXISTS idx_orders_status_date_id ON orders(status, order_date DESC, id DESC);
+CREATE INDEX IF NOT EXISTS idx_orders_type_date_id ON orders(order_type, order_date DESC, id DESC);
+CREATE INDEX IF NOT EXISTS idx_orders_customer_date_id ON orders(customer_id, order_date DESC, id DESC);
+
+-- Lets the streaming join pick up an order's items without scanning order_items
+CREATE INDEX IF NOT EXISTS idx_order_items_order_id ON order_items(order_id);
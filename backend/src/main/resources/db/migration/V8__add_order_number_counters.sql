@@ -0,0 +1,5 @@
+-- Per-day counters from which backend instances reserve blocks of order numbers
+CREATE TABLE order_number_counters (
+    business_date DATE PRIMARY KEY,
+    next_value BIGINT NOT NULL
+);
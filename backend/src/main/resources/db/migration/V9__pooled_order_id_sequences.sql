@@ -0,0 +1,8 @@
+-- Orders and order items take ids from pooled sequences so Hibernate can batch their inserts.
+-- Each nextval reserves a block of 50 ids; existing ids are kept and the sequences are moved
+-- past the current maximum so the first block starts right after it.
+ALTER SEQUENCE orders_id_seq AS BIGINT INCREMENT BY 50;
+SELECT setval('orders_id_seq', GREATEST(COALESCE((SELECT MAX(id) FROM orders), 0), 1));
+
+ALTER SEQUENCE order_items_id_seq AS BIGINT INCREMENT BY 50;
+SELECT setval('order_items_id_seq', GREATEST(COALESCE((SELECT MAX(id) FROM order_items), 0), 1));
@@ -0,0 +1,122 @@
+package com.erp.pos;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Timing loops for the *Benchmark test classes. Surefire only picks up *Test classes, so the
+ * benchmarks never run as part of the build; run one with {@code mvn test -Dtest=<class name>}.
+ * <p>
+ * These are plain loops with a warm-up rather than JMH, so the numbers are indicative: compare
+ * results of one run with each other rather than across machines.
+ */
+public final class Benchmarks {
+
+    private Benchmarks() {
+    }
+
+    /**
+     * Latencies of one operation, in microseconds
+     */
+    public record Result(String name, int samples, double mean, double p50, double p99, double max) {
+        @Override
+        public String toString() {
+            return String.format("%-48s samples=%-8d mean=%10.3fus p50=%10.3fus p99=%10.3fus max=%10.3fus",
+                    name, samples, mean, p50, p99, max);
+        }
+    }
+
+    /**
+     * Time an operation on the calling thread. Each sample times {@code batch} consecutive runs
+     * and records their average, so operations shorter than the clock's resolution can be measured.
+     */
+    public static Result measure(String name, int warmup, int samples, int batch, Runnable operation) {
+        for (int i = 0; i < warmup; i++) {
+            operation.run();
+        }
+        long[] nanos = new long[samples];
+        for (int i = 0; i < samples; i++) {
+            long started = System.nanoTime();
+            for (int k = 0; k < batch; k++) {
+                operation.run();
+            }
+            nanos[i] = (System.nanoTime() - started) / batch;
+        }
+        return report(name, nanos);
+    }
+
+    /**
+     * Run an operation on {@code threads} threads at once, each {@code perThread} times after its
+     * warm-up, and record the latency of every run. The threads start measuring together.
+     */
+    public static Result concurrent(String name, int threads, int warmup, int perThread, Runnable operation)
+            throws InterruptedException {
+        long[][] nanos = new long[threads][perThread];
+        CountDownLatch warmedUp = new CountDownLatch(threads);
+        CountDownLatch start = new CountDownLatch(1);
+        CountDownLatch done = new CountDownLatch(threads);
+        AtomicReference<RuntimeException> failure = new AtomicReference<>();
+        List<Thread> workers = new ArrayList<>();
+        for (int t = 0; t < threads; t++) {
+            long[] samples = nanos[t];
+            Thread worker = new Thread(() -> {
+                try {
+                    for (int i = 0; i < warmup; i++) {
+                        operation.run();
+                    }
+                    warmedUp.countDown();
+                    start.await();
+                    for (int i = 0; i < perThread; i++) {
+                        long started = System.nanoTime();
+                        operation.run();
+                        samples[i] = System.nanoTime() - started;
+                    }
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                } catch (RuntimeException e) {
+                    failure.compareAndSet(null, e);
+                    warmedUp.countDown();
+                } finally {
+                    done.countDown();
+                }
+            }, name + "-" + t);
+            worker.setDaemon(true);
+            workers.add(worker);
+            worker.start();
+        }
+        warmedUp.await();
+        start.countDown();
+        if (!done.await(10, TimeUnit.MINUTES)) {
+            workers.forEach(Thread::interrupt);
+            throw new IllegalStateException(name + " did not finish within 10 minutes");
+        }
+        if (failure.get() != null) {
+            throw failure.get();
+        }
+        return report(name, Arrays.stream(nanos).flatMapToLong(Arrays::stream).toArray());
+    }
+
+    private static Result report(String name, long[] nanos) {
+        long[] sorted = nanos.clone();
+        Arrays.sort(sorted);
+        Result result = new Result(name, sorted.length,
+                Arrays.stream(sorted).average().orElse(0) / 1_000.0,
+                percentile(sorted, 0.50) / 1_000.0,
+                percentile(sorted, 0.99) / 1_000.0,
+                sorted.length == 0 ? 0 : sorted[sorted.length - 1] / 1_000.0);
+        System.out.println(result);
+        return result;
+    }
+
+    private static long percentile(long[] sorted, double percentile) {
+        if (sorted.length == 0) {
+            return 0;
+        }
+        int index = (int) Math.ceil(percentile * sorted.length) - 1;
+        return sorted[Math.max(0, Math.min(sorted.length - 1, index))];
+    }
+}
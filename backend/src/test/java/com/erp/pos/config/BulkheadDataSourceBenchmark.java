@@ -0,0 +1,59 @@
+package com.erp.pos.config;
+
+import com.erp.pos.Benchmarks;
+import com.zaxxer.hikari.HikariDataSource;
+import org.junit.jupiter.api.Test;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Throughput and latency of short transactions from 200, 1,000 and 5,000 concurrent clients against a
+ * pool of 10 connections, straight into Hikari and through the bulkhead. Each transaction holds its
+ * connection for a simulated query latency. Run with {@code mvn test -Dtest=BulkheadDataSourceBenchmark}.
+ */
+class BulkheadDataSourceBenchmark {
+    private static final int POOL_SIZE = 10;
+    private static final long QUERY_MS = 2;
+    private static final int TRANSACTIONS = 10_000;
+
+    @Test
+    void throughputByClientCount() throws Exception {
+        try (HikariDataSource hikari = new HikariDataSource()) {
+            hikari.setJdbcUrl("jdbc:h2:mem:bulkhead");
+            hikari.setMaximumPoolSize(POOL_SIZE);
+            hikari.setMinimumIdle(POOL_SIZE);
+            hikari.setConnectionTimeout(60_000);
+            DataSource bulkhead = new BulkheadDataSource(hikari, POOL_SIZE - 2, 60_000);
+
+            System.out.println("cores=" + Runtime.getRuntime().availableProcessors());
+            for (int clients : new int[] {200, 1_000, 5_000}) {
+                run("hikari, " + clients + " clients", hikari, clients);
+                run("bulkhead, " + clients + " clients", bulkhead, clients);
+            }
+        }
+    }
+
+    private static void run(String name, DataSource dataSource, int clients) throws InterruptedException {
+        AtomicInteger failures = new AtomicInteger();
+        int perClient = Math.max(2, TRANSACTIONS / clients);
+        long startedAt = System.nanoTime();
+        Benchmarks.concurrent(name, clients, 1, perClient, () -> {
+            try (Connection connection = dataSource.getConnection(); Statement statement = connection.createStatement()) {
+                statement.execute("SELECT 1");
+                Thread.sleep(QUERY_MS);
+            } catch (SQLException e) {
+                failures.incrementAndGet();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+        double seconds = (System.nanoTime() - startedAt) / 1e9;
+        // Includes the warm-up transaction of every client
+        System.out.printf("%-48s throughput=%.0f tx/s failures=%d%n", name,
+                (double) clients * (perClient + 1) / seconds, failures.get());
+    }
+}
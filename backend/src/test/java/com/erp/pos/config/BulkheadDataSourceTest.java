@@ -0,0 +1,67 @@
+package com.erp.pos.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.mock.env.MockEnvironment;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLTransientConnectionException;
+import java.util.concurrent.Semaphore;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class BulkheadDataSourceTest {
+
+    @Mock
+    private DataSource target;
+
+    @Test
+    void defaultPermitsLeaveHeadroomInThePool() {
+        HikariDataSource hikari = new HikariDataSource();
+        hikari.setMaximumPoolSize(10);
+        BeanPostProcessor postProcessor = DataSourceBulkheadConfig.dataSourceBulkheadPostProcessor(new MockEnvironment());
+
+        Object wrapped = postProcessor.postProcessAfterInitialization(hikari, "dataSource");
+
+        BulkheadDataSource bulkhead = assertInstanceOf(BulkheadDataSource.class, wrapped);
+        assertEquals(8, ((Semaphore) ReflectionTestUtils.getField(bulkhead, "permits")).availablePermits());
+    }
+
+    @Test
+    void permitIsReturnedWhenTheConnectionIsClosed() throws Exception {
+        when(target.getConnection()).thenAnswer(invocation -> mock(Connection.class));
+        BulkheadDataSource bulkhead = new BulkheadDataSource(target, 1, 50);
+
+        Connection first = bulkhead.getConnection();
+        assertThrows(SQLTransientConnectionException.class, bulkhead::getConnection);
+
+        first.close();
+        // A second close must not hand out an extra permit
+        first.close();
+        bulkhead.getConnection();
+        assertThrows(SQLTransientConnectionException.class, bulkhead::getConnection);
+    }
+
+    @Test
+    void permitIsReturnedWhenThePoolFails() throws Exception {
+        when(target.getConnection()).thenThrow(new SQLTransientConnectionException("Connection is not available"));
+        BulkheadDataSource bulkhead = new BulkheadDataSource(target, 1, 50);
+
+        assertThrows(SQLTransientConnectionException.class, bulkhead::getConnection);
+
+        doReturn(mock(Connection.class)).when(target).getConnection();
+        bulkhead.getConnection();
+    }
+}
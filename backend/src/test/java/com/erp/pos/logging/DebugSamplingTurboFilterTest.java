@@ -0,0 +1,69 @@
+package com.erp.pos.logging;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.core.spi.FilterReply;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class DebugSamplingTurboFilterTest {
+    private final LoggerContext context = new LoggerContext();
+    private final DebugSamplingTurboFilter filter = new DebugSamplingTurboFilter();
+    private Logger appLogger;
+
+    @BeforeEach
+    void configure() {
+        filter.setRate(10);
+        filter.setLoggerPrefix("com.erp.pos");
+        appLogger = context.getLogger("com.erp.pos.service.impl.OrderServiceImpl");
+        appLogger.setLevel(Level.DEBUG);
+    }
+
+    @Test
+    void keepsRoughlyOneInRateDebugEvents() {
+        long sampledOutBefore = DebugSamplingTurboFilter.sampledOutCount();
+        int kept = 0;
+        for (int i = 0; i < 10_000; i++) {
+            if (decide(appLogger, Level.DEBUG, "Added item {}") == FilterReply.NEUTRAL) {
+                kept++;
+            }
+        }
+
+        assertTrue(kept > 700 && kept < 1_300, "kept " + kept);
+        assertEquals(10_000 - kept, DebugSamplingTurboFilter.sampledOutCount() - sampledOutBefore);
+    }
+
+    @Test
+    void leavesInfoOtherLoggersAndLevelChecksAlone() {
+        Logger libraryLogger = context.getLogger("org.hibernate.SQL");
+        libraryLogger.setLevel(Level.DEBUG);
+        Logger quietLogger = context.getLogger("com.erp.pos.config.Quiet");
+        quietLogger.setLevel(Level.INFO);
+
+        for (int i = 0; i < 100; i++) {
+            assertEquals(FilterReply.NEUTRAL, decide(appLogger, Level.INFO, "Order created"));
+            assertEquals(FilterReply.NEUTRAL, decide(libraryLogger, Level.DEBUG, "select 1"));
+            // isDebugEnabled() asks without a format
+            assertEquals(FilterReply.NEUTRAL, decide(appLogger, Level.DEBUG, null));
+            // Disabled anyway, so not counted as sampled out
+            assertEquals(FilterReply.NEUTRAL, decide(quietLogger, Level.DEBUG, "Not logged"));
+        }
+    }
+
+    @Test
+    void rateOfOneKeepsEverything() {
+        filter.setRate(1);
+
+        for (int i = 0; i < 100; i++) {
+            assertEquals(FilterReply.NEUTRAL, decide(appLogger, Level.DEBUG, "Added item {}"));
+        }
+    }
+
+    private FilterReply decide(Logger logger, Level level, String format) {
+        return filter.decide(null, logger, level, format, null, null);
+    }
+}
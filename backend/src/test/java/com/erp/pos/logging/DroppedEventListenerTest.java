@@ -0,0 +1,76 @@
+package com.erp.pos.logging;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.classic.spi.LoggingEvent;
+import ch.qos.logback.core.AppenderBase;
+import ch.qos.logback.core.util.Duration;
+import net.logstash.logback.appender.LoggingEventAsyncDisruptorAppender;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.slf4j.MDC;
+
+import java.util.concurrent.CountDownLatch;
+
+import static org.junit.jupiter.api.Assertions.assertTimeoutPreemptively;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * The async appender as logback-spring.xml configures it: a full ring buffer drops and counts
+ * events rather than blocking the caller
+ */
+class DroppedEventListenerTest {
+    private static final int RING_BUFFER_SIZE = 16;
+
+    private final LoggerContext context = new LoggerContext();
+    private final CountDownLatch released = new CountDownLatch(1);
+    private final LoggingEventAsyncDisruptorAppender async = new LoggingEventAsyncDisruptorAppender();
+
+    @BeforeEach
+    void configure() {
+        context.setMDCAdapter(MDC.getMDCAdapter());
+    }
+
+    @AfterEach
+    void releaseAndStop() {
+        released.countDown();
+        async.stop();
+    }
+
+    @Test
+    void fullRingBufferDropsEventsWithoutBlockingTheCaller() {
+        AppenderBase<ILoggingEvent> stuckConsole = new AppenderBase<>() {
+            @Override
+            protected void append(ILoggingEvent event) {
+                try {
+                    released.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+        };
+        stuckConsole.setContext(context);
+        stuckConsole.start();
+        async.setContext(context);
+        async.setRingBufferSize(RING_BUFFER_SIZE);
+        async.setAppendTimeout(Duration.buildByMilliseconds(0));
+        async.addListener(new DroppedEventListener());
+        async.addAppender(stuckConsole);
+        async.start();
+        long droppedBefore = DroppedEventListener.droppedCount();
+
+        // The console never returns, so a caller that waited for space would never finish
+        assertTimeoutPreemptively(java.time.Duration.ofSeconds(5), () -> {
+            for (int i = 0; i < 1_000; i++) {
+                async.doAppend(new LoggingEvent(getClass().getName(), context.getLogger("com.erp.pos.Test"),
+                        Level.INFO, "Event " + i, null, null));
+            }
+        });
+
+        // The console holds one event and the ring buffer the next ones; everything else is dropped
+        long dropped = DroppedEventListener.droppedCount() - droppedBefore;
+        assertTrue(dropped >= 1_000 - RING_BUFFER_SIZE - 1, "dropped " + dropped);
+    }
+}
@@ -0,0 +1,133 @@
+package com.erp.pos.logging;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.classic.encoder.PatternLayoutEncoder;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.Appender;
+import ch.qos.logback.core.OutputStreamAppender;
+import ch.qos.logback.core.encoder.Encoder;
+import ch.qos.logback.core.status.Status;
+import ch.qos.logback.core.util.Duration;
+import com.erp.pos.Benchmarks;
+import net.logstash.logback.appender.LoggingEventAsyncDisruptorAppender;
+import net.logstash.logback.encoder.LogstashEncoder;
+import org.junit.jupiter.api.Test;
+import org.slf4j.MDC;
+
+import java.io.FileNotFoundException;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Logging cost of one request on 8 concurrent request threads: one INFO line and the four DEBUG lines
+ * AuthTokenFilter and the services used to write. Compares logging off, the old synchronous text console
+ * at DEBUG, and the async JSON appender of logback-spring.xml at INFO and at DEBUG sampled 1 in 10.
+ * Output goes to /dev/null, and then to a console that takes 200 us per write, as a stdout pipe does
+ * when the log shipper falls behind. Run with {@code mvn test -Dtest=LoggingBenchmark}.
+ */
+class LoggingBenchmark {
+    private static final int THREADS = 8;
+    private static final int REQUESTS = 20_000;
+    private static final long SLOW_WRITE_NANOS = 200_000;
+
+    @Test
+    void loggingCostPerRequest() throws Exception {
+        run("logging off", Level.OFF, 1, false, 0);
+        run("sync text console, DEBUG", Level.DEBUG, 1, false, 0);
+        run("async json, INFO", Level.INFO, 1, true, 0);
+        run("async json, DEBUG sampled 1 in 10", Level.DEBUG, 10, true, 0);
+        run("slow console: sync text, DEBUG", Level.DEBUG, 1, false, SLOW_WRITE_NANOS);
+        run("slow console: async json, INFO", Level.INFO, 1, true, SLOW_WRITE_NANOS);
+    }
+
+    private static void run(String name, Level level, int sampleRate, boolean async, long writeNanos) throws Exception {
+        LoggerContext context = new LoggerContext();
+        context.setMDCAdapter(MDC.getMDCAdapter());
+        DebugSamplingTurboFilter sampling = new DebugSamplingTurboFilter();
+        sampling.setRate(sampleRate);
+        sampling.setContext(context);
+        sampling.start();
+        context.addTurboFilter(sampling);
+
+        Appender<ILoggingEvent> console = console(context, async ? jsonEncoder(context) : textEncoder(context), writeNanos);
+        Appender<ILoggingEvent> appender = console;
+        if (async) {
+            LoggingEventAsyncDisruptorAppender asyncAppender = new LoggingEventAsyncDisruptorAppender();
+            asyncAppender.setContext(context);
+            asyncAppender.setRingBufferSize(8192);
+            asyncAppender.setAppendTimeout(Duration.buildByMilliseconds(0));
+            asyncAppender.addListener(new DroppedEventListener());
+            asyncAppender.addAppender(console);
+            asyncAppender.start();
+            appender = asyncAppender;
+        }
+        Logger root = context.getLogger(org.slf4j.Logger.ROOT_LOGGER_NAME);
+        root.addAppender(appender);
+        root.setLevel(level);
+        Logger logger = context.getLogger("com.erp.pos.security.jwt.AuthTokenFilter");
+
+        long droppedBefore = DroppedEventListener.droppedCount();
+        Benchmarks.concurrent(name, THREADS, 2_000, REQUESTS / THREADS, () -> {
+            MDC.put(CorrelationIdFilter.REQUEST_ID_KEY, "3f2a9c1e-5b7d-4e8f-9a0b-1c2d3e4f5a6b");
+            logger.debug("Authenticating request to {}", "/api/orders/table/12/cart");
+            logger.debug("Token verified for user {}", "cashier7");
+            logger.debug("Loaded {} roles", 1);
+            logger.debug("Set authentication for {}", "cashier7");
+            logger.info("Added {} x product {} to table {}", 2, 1042, 12);
+            MDC.remove(CorrelationIdFilter.REQUEST_ID_KEY);
+        });
+        if (async) {
+            System.out.printf("%-48s dropped=%d%n", name, DroppedEventListener.droppedCount() - droppedBefore);
+        }
+        // Drop warnings are expected; errors mean events never reached the output
+        context.getStatusManager().getCopyOfStatusList().stream()
+                .filter(status -> status.getLevel() == Status.ERROR)
+                .findFirst()
+                .ifPresent(status -> {
+                    throw new IllegalStateException("Logback failed: " + status);
+                });
+        context.stop();
+    }
+
+    private static Appender<ILoggingEvent> console(LoggerContext context, Encoder<ILoggingEvent> encoder, long writeNanos)
+            throws FileNotFoundException {
+        OutputStreamAppender<ILoggingEvent> appender = new OutputStreamAppender<>();
+        appender.setContext(context);
+        appender.setEncoder(encoder);
+        appender.setOutputStream(new FileOutputStream("/dev/null") {
+            @Override
+            public void write(byte[] bytes) throws IOException {
+                write(bytes, 0, bytes.length);
+            }
+
+            @Override
+            public void write(byte[] bytes, int offset, int length) throws IOException {
+                if (writeNanos > 0) {
+                    LockSupport.parkNanos(writeNanos);
+                }
+                super.write(bytes, offset, length);
+            }
+        });
+        appender.start();
+        return appender;
+    }
+
+    private static Encoder<ILoggingEvent> textEncoder(LoggerContext context) {
+        PatternLayoutEncoder encoder = new PatternLayoutEncoder();
+        encoder.setContext(context);
+        encoder.setPattern("%d{yyyy-MM-dd'T'HH:mm:ss.SSSXXX} %5p --- [%15.15t] %-40.40logger{39} : %m%n");
+        encoder.start();
+        return encoder;
+    }
+
+    private static Encoder<ILoggingEvent> jsonEncoder(LoggerContext context) {
+        LogstashEncoder encoder = new LogstashEncoder();
+        encoder.setContext(context);
+        encoder.setCustomFields("{\"application\":\"erp-pos\"}");
+        encoder.start();
+        return encoder;
+    }
+}
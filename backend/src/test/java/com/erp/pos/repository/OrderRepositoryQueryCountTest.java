@@ -0,0 +1,197 @@
+package com.erp.pos.repository;
+
+import com.erp.pos.config.DataSourceProxyConfig;
+import com.erp.pos.dto.OrderFilter;
+import com.erp.pos.dto.OrderLineRow;
+import com.erp.pos.enums.ERole;
+import com.erp.pos.enums.OrderStatus;
+import com.erp.pos.enums.OrderType;
+import com.erp.pos.enums.TableStatus;
+import com.erp.pos.model.Category;
+import com.erp.pos.model.Customer;
+import com.erp.pos.model.Order;
+import com.erp.pos.model.OrderItem;
+import com.erp.pos.model.Product;
+import com.erp.pos.model.RestaurantTable;
+import com.erp.pos.model.Role;
+import com.erp.pos.model.User;
+import com.erp.pos.monitoring.RequestDbStats;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.Callable;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Counts the statements the order read paths send through the data source proxy, so loading an
+ * association once per order or item fails the build. Every path is also serialized the way the
+ * controllers return it, since that is where lazy associations would be loaded.
+ */
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect")
+@Import({DataSourceProxyConfig.class, OrderRepositoryQueryCountTest.Config.class})
+class OrderRepositoryQueryCountTest {
+    private static final int ORDERS = 12;
+    private static final int ITEMS_PER_ORDER = 3;
+
+    @TestConfiguration
+    static class Config {
+        @Bean
+        MeterRegistry meterRegistry() {
+            return new SimpleMeterRegistry();
+        }
+    }
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private TableRepository tableRepository;
+
+    private final ObjectMapper objectMapper = new ObjectMapper().findAndRegisterModules();
+
+    private Order firstOrder;
+    private RestaurantTable firstTable;
+
+    @BeforeEach
+    void createOrders() {
+        Role cashier = entityManager.persist(role(ERole.ROLE_CASHIER));
+        Role manager = entityManager.persist(role(ERole.ROLE_MANAGER));
+        for (int i = 0; i < ORDERS; i++) {
+            Category category = new Category();
+            category.setName("Category " + i);
+            entityManager.persist(category);
+
+            Customer customer = new Customer();
+            customer.setName("Customer " + i);
+            entityManager.persist(customer);
+
+            User user = new User();
+            user.setUsername("cashier" + i);
+            user.setEmail("cashier" + i + "@example.com");
+            user.setPassword("password");
+            user.setFullName("Cashier " + i);
+            user.getRoles().add(cashier);
+            user.getRoles().add(manager);
+            entityManager.persist(user);
+
+            RestaurantTable table = new RestaurantTable();
+            table.setTableNumber("T" + i);
+            table.setCapacity(4);
+            table.setStatus(TableStatus.OCCUPIED);
+            entityManager.persist(table);
+
+            Order order = new Order();
+            order.setOrderNumber("ORD-" + i);
+            order.setOrderDate(LocalDateTime.of(2026, 3, 14, 12, 0).plusMinutes(i));
+            order.setStatus(OrderStatus.PENDING);
+            order.setOrderType(OrderType.DINE_IN);
+            order.setTotalAmount(BigDecimal.valueOf(ITEMS_PER_ORDER));
+            order.setCustomer(customer);
+            order.setCreatedBy(user);
+            order.setTable(table);
+            for (int k = 0; k < ITEMS_PER_ORDER; k++) {
+                Product product = new Product();
+                product.setName("Product " + i + "-" + k);
+                product.setPrice(BigDecimal.ONE);
+                product.setStockQuantity(10);
+                product.setCategory(category);
+                entityManager.persist(product);
+
+                OrderItem item = new OrderItem();
+                item.setOrder(order);
+                item.setProduct(product);
+                item.setQuantity(1);
+                item.setUnitPrice(BigDecimal.ONE);
+                item.setSubtotal(BigDecimal.ONE);
+                order.getOrderItems().add(item);
+            }
+            entityManager.persist(order);
+            table.setCurrentOrder(order);
+
+            if (i == 0) {
+                firstOrder = order;
+                firstTable = table;
+            }
+        }
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    @AfterEach
+    void stopCounting() {
+        RequestDbStats.stop();
+    }
+
+    @Test
+    void orderPageLoadsInThreeStatementsWhateverItsSize() throws Exception {
+        assertEquals(3, statements(() -> objectMapper.writeValueAsString(
+                orderRepository.findPage(OrderFilter.all(), null, ORDERS))));
+
+        entityManager.clear();
+        assertEquals(3, statements(() -> objectMapper.writeValueAsString(
+                orderRepository.findPage(OrderFilter.all(), null, 2))));
+    }
+
+    @Test
+    void orderLinesLoadInOneStatement() throws Exception {
+        List<OrderLineRow> rows = orderRepository.findLinesByOrderId(firstOrder.getId());
+        assertEquals(ITEMS_PER_ORDER, rows.size());
+
+        entityManager.clear();
+        assertEquals(1, statements(() -> objectMapper.writeValueAsString(
+                orderRepository.findLinesByOrderId(firstOrder.getId()))));
+    }
+
+    @Test
+    void currentTableLinesLoadInOneStatement() throws Exception {
+        assertEquals(1, statements(() -> objectMapper.writeValueAsString(
+                orderRepository.findCurrentLinesByTableId(firstTable.getId(), true))));
+    }
+
+    @Test
+    void orderWithItemsLoadsEachItemOnceInTwoStatements() throws Exception {
+        assertEquals(2, statements(() -> {
+            Order order = orderRepository.findWithItemsById(firstOrder.getId()).orElseThrow();
+            assertEquals(ITEMS_PER_ORDER, order.getOrderItems().size());
+            return objectMapper.writeValueAsString(order);
+        }));
+    }
+
+    @Test
+    void tableWithCurrentOrderLoadsEachItemOnceInTwoStatements() throws Exception {
+        assertEquals(2, statements(() -> {
+            RestaurantTable table = tableRepository.findWithCurrentOrderItemsById(firstTable.getId()).orElseThrow();
+            assertEquals(ITEMS_PER_ORDER, table.getCurrentOrder().getOrderItems().size());
+            return objectMapper.writeValueAsString(table.getCurrentOrder());
+        }));
+    }
+
+    private static Role role(ERole name) {
+        Role role = new Role();
+        role.setName(name);
+        return role;
+    }
+
+    private static int statements(Callable<?> work) throws Exception {
+        RequestDbStats.start();
+        work.call();
+        return RequestDbStats.stop().getStatements();
+    }
+}
@@ -0,0 +1,62 @@
+package com.erp.pos.security.jwt;
+
+import com.erp.pos.Benchmarks;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.Keys;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import javax.crypto.SecretKey;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.mockito.Mockito.mock;
+
+/**
+ * Per-request cost of authenticating an HS512 token: the old filter path, which built the key and a
+ * parser and parsed the token twice, against one parse with the shared parser and a verified-cache hit.
+ * Run with {@code mvn test -Dtest=JwtUtilsBenchmark}.
+ */
+class JwtUtilsBenchmark {
+    private static final int TOKENS = 200_000;
+
+    @Test
+    void authenticationCostPerRequest() {
+        JwtUtils jwtUtils = new JwtUtils();
+        ReflectionTestUtils.setField(jwtUtils, "keyRing", mock(JwtKeyRing.class));
+        ReflectionTestUtils.setField(jwtUtils, "meterRegistry", new SimpleMeterRegistry());
+        ReflectionTestUtils.setField(jwtUtils, "jwtSecret", JwtUtilsTest.SECRET);
+        ReflectionTestUtils.setField(jwtUtils, "jwtExpirationMs", 3_600_000);
+        ReflectionTestUtils.setField(jwtUtils, "verifiedCacheSize", 1024);
+        jwtUtils.init();
+
+        // Distinct tokens so every miss really verifies; the cache is cleared well before it could fill
+        String[] tokens = new String[TOKENS];
+        for (int i = 0; i < TOKENS; i++) {
+            tokens[i] = jwtUtils.generateJwtToken(JwtUtilsTest.authentication(i));
+        }
+        AtomicInteger next = new AtomicInteger();
+        Runnable oldPath = () -> {
+            String token = tokens[next.getAndIncrement() % TOKENS];
+            Jwts.parserBuilder().setSigningKey(oldSigningKey()).build().parseClaimsJws(token);
+            Jwts.parserBuilder().setSigningKey(oldSigningKey()).build().parseClaimsJws(token).getBody().getSubject();
+        };
+        Runnable cacheMiss = () -> {
+            jwtUtils.verifyJwtToken(tokens[next.getAndIncrement() % TOKENS]);
+            if (next.get() % 512 == 0) {
+                ((Map<?, ?>) ReflectionTestUtils.getField(jwtUtils, "verifiedTokens")).clear();
+            }
+        };
+        Runnable cacheHit = () -> jwtUtils.verifyJwtToken(tokens[0]);
+
+        Benchmarks.measure("old path: build key and parser, parse twice", 20_000, 20_000, 1, oldPath);
+        Benchmarks.measure("shared parser, one parse (cache miss)", 20_000, 20_000, 1, cacheMiss);
+        Benchmarks.measure("verified-token cache hit", 20_000, 20_000, 1, cacheHit);
+    }
+
+    private static SecretKey oldSigningKey() {
+        return Keys.hmacShaKeyFor(JwtUtilsTest.SECRET.getBytes(StandardCharsets.UTF_8));
+    }
+}
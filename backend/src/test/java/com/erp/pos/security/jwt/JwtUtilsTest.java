@@ -0,0 +1,92 @@
+package com.erp.pos.security.jwt;
+
+import com.erp.pos.security.services.UserDetailsImpl;
+import io.jsonwebtoken.Claims;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.security.KeyPair;
+import java.security.KeyPairGenerator;
+import java.security.interfaces.RSAPublicKey;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class JwtUtilsTest {
+    static final String SECRET = "erp_pos_test_secret_that_is_long_enough_for_a_512_bit_hmac_key_0123456789";
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final JwtKeyRing keyRing = mock(JwtKeyRing.class);
+
+    @Test
+    void tokenIsVerifiedOnceAndThenAnsweredFromTheCache() {
+        JwtUtils jwtUtils = jwtUtils(SECRET);
+        String token = jwtUtils.generateJwtToken(authentication(1L));
+
+        Claims first = jwtUtils.verifyJwtToken(token);
+        Claims second = jwtUtils.verifyJwtToken(token);
+
+        assertNotNull(first);
+        assertEquals(first, second);
+        assertEquals(1, meterRegistry.get("auth.jwt.verify").timer().count());
+        assertEquals(1, meterRegistry.get("auth.jwt.cache.hits").counter().count());
+        assertEquals(1L, jwtUtils.getPrincipalFromClaims(second).getId());
+    }
+
+    @Test
+    void tamperedTokenIsRejected() {
+        JwtUtils jwtUtils = jwtUtils(SECRET);
+        String token = jwtUtils.generateJwtToken(authentication(1L));
+        String tampered = token.substring(0, token.length() - 2) + (token.endsWith("AA") ? "BB" : "AA");
+
+        assertNull(jwtUtils.verifyJwtToken(tampered));
+    }
+
+    @Test
+    void cachedTokenIsDroppedOnceItsKeyIsRetired() throws Exception {
+        KeyPair keyPair = KeyPairGenerator.getInstance("RSA").generateKeyPair();
+        when(keyRing.isEnabled()).thenReturn(true);
+        when(keyRing.getSigningKey()).thenReturn(
+                new JwtKeyRing.RingKey("k1", (RSAPublicKey) keyPair.getPublic(), keyPair.getPrivate(), 0));
+        when(keyRing.findVerificationKey("k1")).thenReturn(keyPair.getPublic());
+        JwtUtils jwtUtils = jwtUtils("");
+        String token = jwtUtils.generateJwtToken(authentication(1L));
+        assertNotNull(jwtUtils.verifyJwtToken(token));
+
+        when(keyRing.findVerificationKey("k1")).thenReturn(null);
+
+        assertNull(jwtUtils.verifyJwtToken(token));
+    }
+
+    @Test
+    void hmacTokenIsRejectedInRs256ModeOutsideTheTransition() {
+        String hmacToken = jwtUtils(SECRET).generateJwtToken(authentication(1L));
+        when(keyRing.isEnabled()).thenReturn(true);
+
+        assertNull(jwtUtils(SECRET).verifyJwtToken(hmacToken));
+    }
+
+    private JwtUtils jwtUtils(String secret) {
+        JwtUtils jwtUtils = new JwtUtils();
+        ReflectionTestUtils.setField(jwtUtils, "keyRing", keyRing);
+        ReflectionTestUtils.setField(jwtUtils, "meterRegistry", meterRegistry);
+        ReflectionTestUtils.setField(jwtUtils, "jwtSecret", secret);
+        ReflectionTestUtils.setField(jwtUtils, "jwtExpirationMs", 3_600_000);
+        ReflectionTestUtils.setField(jwtUtils, "verifiedCacheSize", 1024);
+        jwtUtils.init();
+        return jwtUtils;
+    }
+
+    static UsernamePasswordAuthenticationToken authentication(long userId) {
+        UserDetailsImpl user = new UserDetailsImpl(userId, "cashier" + userId, null, null, null,
+                List.of(new SimpleGrantedAuthority("ROLE_CASHIER")), 0, true);
+        return new UsernamePasswordAuthenticationToken(user, null, user.getAuthorities());
+    }
+}
@@ -0,0 +1,104 @@
+package com.erp.pos.security.services;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.authentication.BadCredentialsException;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class LoginExecutorTest {
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final CountDownLatch released = new CountDownLatch(1);
+    private LoginExecutor loginExecutor;
+
+    @AfterEach
+    void releaseAndShutdown() {
+        released.countDown();
+        loginExecutor.shutdown();
+    }
+
+    @Test
+    void loginBeyondTheQueueIsRejectedAtOnce() throws Exception {
+        loginExecutor = loginExecutor(1, 1, 10_000);
+        CountDownLatch hashing = new CountDownLatch(1);
+        CompletableFuture.runAsync(() -> loginExecutor.authenticate(() -> {
+            hashing.countDown();
+            return blocked().get();
+        }));
+        assertTrue(hashing.await(5, TimeUnit.SECONDS));
+        CompletableFuture.runAsync(() -> loginExecutor.authenticate(blocked()));
+        waitForQueueSize(1);
+
+        long startedAt = System.nanoTime();
+        assertThrows(RejectedExecutionException.class, () -> loginExecutor.authenticate(blocked()));
+
+        assertTrue(System.nanoTime() - startedAt < TimeUnit.SECONDS.toNanos(1));
+        assertEquals(1, rejected("queue_full"));
+    }
+
+    @Test
+    void loginWaitingLongerThanTheTimeoutIsRejected() {
+        loginExecutor = loginExecutor(1, 4, 100);
+
+        assertThrows(RejectedExecutionException.class, () -> loginExecutor.authenticate(blocked()));
+
+        assertEquals(1, rejected("timeout"));
+    }
+
+    @Test
+    void resultAndAuthenticationFailuresReachTheCaller() {
+        loginExecutor = loginExecutor(1, 4, 10_000);
+        Authentication authentication = new UsernamePasswordAuthenticationToken("cashier", null);
+
+        assertSame(authentication, loginExecutor.authenticate(() -> authentication));
+        assertThrows(BadCredentialsException.class, () -> loginExecutor.authenticate(() -> {
+            throw new BadCredentialsException("Bad credentials");
+        }));
+        assertEquals(0, rejected("queue_full") + rejected("timeout"));
+    }
+
+    private Supplier<Authentication> blocked() {
+        return () -> {
+            try {
+                released.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return null;
+        };
+    }
+
+    private void waitForQueueSize(int size) throws InterruptedException {
+        for (int i = 0; i < 500 && meterRegistry.get("auth.login.queue.size").gauge().value() < size; i++) {
+            Thread.sleep(10);
+        }
+        assertEquals(size, meterRegistry.get("auth.login.queue.size").gauge().value());
+    }
+
+    private double rejected(String reason) {
+        return meterRegistry.get("auth.login.rejected").tag("reason", reason).counter().count();
+    }
+
+    private LoginExecutor loginExecutor(int threads, int queueCapacity, long timeoutMs) {
+        LoginExecutor executor = new LoginExecutor();
+        ReflectionTestUtils.setField(executor, "meterRegistry", meterRegistry);
+        ReflectionTestUtils.setField(executor, "threads", threads);
+        ReflectionTestUtils.setField(executor, "queueCapacity", queueCapacity);
+        ReflectionTestUtils.setField(executor, "timeoutMs", timeoutMs);
+        executor.init();
+        return executor;
+    }
+}
@@ -0,0 +1,107 @@
+package com.erp.pos.security.services;
+
+import com.erp.pos.Benchmarks;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Latency of cart-sized request work on the request threads while a storm of BCrypt logins runs:
+ * with no logins, with the logins hashed on the request threads as before, and with the logins
+ * going through the {@link LoginExecutor}. Run with {@code mvn test -Dtest=LoginStormBenchmark}.
+ */
+class LoginStormBenchmark {
+    private static final int CART_THREADS = 8;
+    private static final int LOGIN_CLIENTS = 32;
+    private static final int CART_REQUESTS = 250;
+
+    private final BCryptPasswordEncoder encoder = new BCryptPasswordEncoder();
+    private final String passwordHash = encoder.encode("password");
+
+    @Test
+    void cartLatencyDuringALoginStorm() throws Exception {
+        LoginExecutor loginExecutor = new LoginExecutor();
+        ReflectionTestUtils.setField(loginExecutor, "meterRegistry", new SimpleMeterRegistry());
+        ReflectionTestUtils.setField(loginExecutor, "threads", 0);
+        ReflectionTestUtils.setField(loginExecutor, "queueCapacity", 32);
+        ReflectionTestUtils.setField(loginExecutor, "timeoutMs", 10_000L);
+        loginExecutor.init();
+        try {
+            System.out.println("cores=" + Runtime.getRuntime().availableProcessors());
+            Benchmarks.concurrent("cart, no logins", CART_THREADS, 20, CART_REQUESTS, LoginStormBenchmark::cart);
+            duringStorm("cart, logins hashed on request threads", this::login);
+            duringStorm("cart, logins on the login pool", () -> {
+                try {
+                    loginExecutor.authenticate(() -> {
+                        login();
+                        return null;
+                    });
+                } catch (RejectedExecutionException e) {
+                    // The client gets a 429 and retries a little later
+                    pause();
+                }
+            });
+        } finally {
+            loginExecutor.shutdown();
+        }
+    }
+
+    private void duringStorm(String name, Runnable login) throws InterruptedException {
+        AtomicBoolean storming = new AtomicBoolean(true);
+        List<Thread> clients = new ArrayList<>();
+        for (int i = 0; i < LOGIN_CLIENTS; i++) {
+            Thread client = new Thread(() -> {
+                while (storming.get()) {
+                    login.run();
+                }
+            }, "login-client-" + i);
+            client.setDaemon(true);
+            clients.add(client);
+            client.start();
+        }
+        try {
+            Benchmarks.concurrent(name, CART_THREADS, 20, CART_REQUESTS, LoginStormBenchmark::cart);
+        } finally {
+            storming.set(false);
+            for (Thread client : clients) {
+                client.join();
+            }
+        }
+    }
+
+    private void login() {
+        encoder.matches("password", passwordHash);
+    }
+
+    /**
+     * Pricing a 30-line ticket a hundred times: a few hundred microseconds of CPU, standing in for
+     * what an add-to-cart spends outside the database on mapping, pricing and serialization
+     */
+    private static void cart() {
+        BigDecimal total = BigDecimal.ZERO;
+        for (int line = 1; line <= 3_000; line++) {
+            BigDecimal price = BigDecimal.valueOf(line * 137L, 2);
+            BigDecimal tax = price.multiply(BigDecimal.valueOf(8, 2)).setScale(2, RoundingMode.HALF_UP);
+            total = total.add(price.add(tax).multiply(BigDecimal.valueOf(line % 4 + 1)));
+        }
+        if (total.signum() < 0) {
+            throw new IllegalStateException();
+        }
+    }
+
+    private static void pause() {
+        try {
+            Thread.sleep(5);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
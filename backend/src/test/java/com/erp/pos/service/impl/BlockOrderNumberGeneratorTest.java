@@ -0,0 +1,72 @@
+package com.erp.pos.service.impl;
+
+import com.erp.pos.repository.OrderNumberCounterRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class BlockOrderNumberGeneratorTest {
+    private static final long BLOCK_SIZE = 4;
+
+    @Mock
+    private OrderNumberCounterRepository orderNumberCounterRepository;
+
+    @InjectMocks
+    private BlockOrderNumberGenerator generator;
+
+    private final List<String> allocatingThreads = new CopyOnWriteArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(generator, "blockSize", BLOCK_SIZE);
+        ReflectionTestUtils.setField(generator, "refillTimeoutMs", 1000L);
+        generator.init();
+    }
+
+    @AfterEach
+    void tearDown() {
+        generator.shutdown();
+    }
+
+    @Test
+    void blocksAreReservedOnTheRefillThreadAndNumbersStaySequential() {
+        AtomicLong counter = new AtomicLong(1);
+        when(orderNumberCounterRepository.allocateBlock(any(), anyLong())).thenAnswer(invocation -> {
+            allocatingThreads.add(Thread.currentThread().getName());
+            return counter.getAndAdd(invocation.getArgument(1));
+        });
+
+        String prefix = "ORD-" + LocalDate.now().format(DateTimeFormatter.ofPattern("yyyyMMdd")) + "-";
+        for (int i = 1; i <= 10; i++) {
+            assertEquals(prefix + String.format("%05d", i), generator.nextOrderNumber());
+        }
+
+        String caller = Thread.currentThread().getName();
+        allocatingThreads.forEach(thread -> assertEquals("order-number-refill", thread, "reserved on " + caller));
+    }
+
+    @Test
+    void callerGivesUpWhenNoBlockCanBeReserved() {
+        when(orderNumberCounterRepository.allocateBlock(any(), anyLong())).thenThrow(new IllegalStateException("pool exhausted"));
+
+        assertThrows(IllegalStateException.class, generator::nextOrderNumber);
+    }
+}
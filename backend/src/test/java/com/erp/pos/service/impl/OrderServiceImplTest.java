@@ -0,0 +1,72 @@
+package com.erp.pos.service.impl;
+
+import com.erp.pos.dto.OrderSalesSnapshot;
+import com.erp.pos.enums.OrderStatus;
+import com.erp.pos.enums.OrderType;
+import com.erp.pos.enums.PaymentMethod;
+import com.erp.pos.model.Order;
+import com.erp.pos.repository.OrderRepository;
+import com.erp.pos.service.RevenueSummaryService;
+import com.erp.pos.service.SalesRollupService;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class OrderServiceImplTest {
+    @Mock
+    private OrderRepository orderRepository;
+
+    @Mock
+    private RevenueSummaryService revenueSummaryService;
+
+    @Mock
+    private SalesRollupService salesRollupService;
+
+    @InjectMocks
+    private OrderServiceImpl orderService;
+
+    @Test
+    void updateRecordsTheBookedTotalAsBeforeAndTheNewTotalAsAfter() {
+        Order stored = order(OrderStatus.COMPLETED, "40.00");
+        when(orderRepository.findById(7L)).thenReturn(Optional.of(stored));
+        when(orderRepository.save(any(Order.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+        orderService.updateOrder(7L, order(OrderStatus.CANCELLED, "55.50"));
+
+        ArgumentCaptor<OrderSalesSnapshot> before = ArgumentCaptor.forClass(OrderSalesSnapshot.class);
+        ArgumentCaptor<OrderSalesSnapshot> after = ArgumentCaptor.forClass(OrderSalesSnapshot.class);
+        verify(salesRollupService).recordChange(before.capture(), after.capture());
+        verify(revenueSummaryService).recordChange(before.getValue(), after.getValue());
+
+        assertThat(before.getValue().getStatus()).isEqualTo(OrderStatus.COMPLETED);
+        assertThat(before.getValue().revenue()).isEqualByComparingTo("40.00");
+        assertThat(after.getValue().getStatus()).isEqualTo(OrderStatus.CANCELLED);
+        assertThat(after.getValue().getTotalAmount()).isEqualByComparingTo("55.50");
+        assertThat(after.getValue().revenue()).isEqualByComparingTo("0");
+    }
+
+    private static Order order(OrderStatus status, String total) {
+        Order order = new Order();
+        order.setId(7L);
+        order.setOrderDate(LocalDateTime.of(2026, 3, 14, 19, 25));
+        order.setStatus(status);
+        order.setTotalAmount(new BigDecimal(total));
+        order.setOrderType(OrderType.DINE_IN);
+        order.setPaymentMethod(PaymentMethod.CASH);
+        order.setNumberOfGuests(2);
+        return order;
+    }
+}
@@ -0,0 +1,93 @@
+package com.erp.pos.service.impl;
+
+import com.erp.pos.dto.ProductDTO;
+import com.erp.pos.exception.ResourceNotFoundException;
+import com.erp.pos.model.PriceOverride;
+import com.erp.pos.model.Product;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+@ExtendWith(MockitoExtension.class)
+class PriceBookRegistryTest {
+    private static final LocalDateTime NOW = LocalDateTime.of(2026, 3, 14, 12, 0);
+
+    @Mock
+    private ProductChangeFeed productChangeFeed;
+
+    @InjectMocks
+    private PriceBookRegistry registry;
+
+    @Test
+    void versionIsTheChangeNumberOfTheLatestChange() {
+        registry.catalogChanged(new ProductChangeFeed.Changes(40, true, List.of(product(1L, "2.00")), List.of(), List.of()));
+        assertEquals(40L, registry.current().getVersion());
+
+        registry.catalogChanged(new ProductChangeFeed.Changes(41, false, List.of(product(1L, "2.50")), List.of(), List.of()));
+
+        PriceBook.Quote quote = registry.quote(List.of(1L), NOW);
+        assertEquals(41L, quote.version());
+        assertEquals(new BigDecimal("2.50"), quote.price(1L).unitPrice());
+    }
+
+    @Test
+    void overridesAreReplacedWithEveryChangeAndKeptByLocalDeletions() {
+        registry.catalogChanged(new ProductChangeFeed.Changes(40, true,
+                List.of(product(1L, "2.00"), product(2L, "3.00")), List.of(), List.of()));
+
+        // An override-only change carries no products
+        registry.catalogChanged(new ProductChangeFeed.Changes(41, false, List.of(), List.of(), List.of(override(1L, "1.00"))));
+        assertEquals(new BigDecimal("1.00"), registry.current().resolve(List.of(1L), NOW).price(1L).unitPrice());
+
+        registry.catalogChanged(new ProductChangeFeed.Changes(41, false, List.of(), List.of(2L), List.of(override(1L, "1.00"))));
+        PriceBook book = registry.current();
+        assertEquals(41L, book.getVersion());
+        assertEquals(1, book.size());
+        assertEquals(new BigDecimal("1.00"), book.resolve(List.of(1L), NOW).price(1L).unitPrice());
+        assertNull(book.resolve(List.of(2L), NOW).price(2L));
+    }
+
+    @Test
+    void unknownProductSyncsTheFeedBeforeItIsReported() {
+        registry.catalogChanged(new ProductChangeFeed.Changes(40, true, List.of(product(1L, "2.00")), List.of(), List.of()));
+        doAnswer(invocation -> {
+            registry.catalogChanged(new ProductChangeFeed.Changes(41, false, List.of(product(2L, "3.00")), List.of(), List.of()));
+            return null;
+        }).when(productChangeFeed).sync();
+
+        assertEquals(new BigDecimal("3.00"), registry.quote(List.of(1L, 2L), NOW).price(2L).unitPrice());
+        assertThrows(ResourceNotFoundException.class, () -> registry.quote(List.of(3L), NOW));
+        verify(productChangeFeed, times(2)).sync();
+    }
+
+    private static ProductDTO product(Long id, String price) {
+        ProductDTO product = new ProductDTO();
+        product.setId(id);
+        product.setName("Product " + id);
+        product.setPrice(new BigDecimal(price));
+        return product;
+    }
+
+    private static PriceOverride override(Long productId, String price) {
+        Product product = new Product();
+        product.setId(productId);
+        PriceOverride override = new PriceOverride();
+        override.setId(productId * 100);
+        override.setProduct(product);
+        override.setPrice(new BigDecimal(price));
+        return override;
+    }
+}
@@ -0,0 +1,147 @@
+package com.erp.pos.service.impl;
+
+import com.erp.pos.dto.ProductDTO;
+import com.erp.pos.model.PriceOverride;
+import com.erp.pos.repository.CatalogChangeRepository;
+import com.erp.pos.repository.PriceOverrideRepository;
+import com.erp.pos.repository.ProductRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.beans.factory.ObjectProvider;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class ProductChangeFeedTest {
+
+    @Mock
+    private CatalogChangeRepository catalogChangeRepository;
+
+    @Mock
+    private ProductRepository productRepository;
+
+    @Mock
+    private PriceOverrideRepository priceOverrideRepository;
+
+    @Mock
+    private ObjectProvider<ProductChangeListener> listeners;
+
+    @InjectMocks
+    private ProductChangeFeed feed;
+
+    private final List<ProductChangeFeed.Changes> published = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        ProductChangeListener listener = published::add;
+        when(listeners.orderedStream()).thenAnswer(invocation -> Stream.of(listener));
+    }
+
+    @Test
+    void firstSyncLoadsTheCatalog() {
+        when(catalogChangeRepository.findLastSeq()).thenReturn(Optional.of(10L));
+        when(productRepository.findAllSnapshots()).thenReturn(List.of(product(1L), product(2L)));
+
+        feed.sync();
+
+        assertEquals(1, published.size());
+        assertTrue(published.get(0).reload());
+        assertEquals(10L, published.get(0).seq());
+        assertEquals(2, published.get(0).products().size());
+    }
+
+    @Test
+    void syncPublishesOnlyProductsStampedAfterTheLastChange() {
+        load(10L, product(1L), product(2L));
+        when(catalogChangeRepository.findLastSeq()).thenReturn(Optional.of(12L));
+        when(productRepository.findSnapshotsChangedAfter(10L)).thenReturn(List.of(product(2L), product(3L)));
+        when(productRepository.count()).thenReturn(3L);
+
+        feed.sync();
+
+        ProductChangeFeed.Changes changes = published.get(1);
+        assertFalse(changes.reload());
+        assertEquals(12L, changes.seq());
+        assertEquals(List.of(2L, 3L), changes.products().stream().map(ProductDTO::getId).toList());
+
+        // The next poll starts from the number read before the rows
+        when(productRepository.findSnapshotsChangedAfter(12L)).thenReturn(List.of());
+        when(catalogChangeRepository.findLastSeq()).thenReturn(Optional.of(13L));
+        feed.sync();
+        verify(productRepository).findSnapshotsChangedAfter(12L);
+    }
+
+    @Test
+    void unchangedCounterPublishesNothing() {
+        load(10L, product(1L));
+
+        feed.sync();
+
+        assertEquals(1, published.size());
+        verify(productRepository, never()).findSnapshotsChangedAfter(anyLong());
+    }
+
+    @Test
+    void deletionByAnotherInstanceReloads() {
+        load(10L, product(1L), product(2L));
+        when(catalogChangeRepository.findLastSeq()).thenReturn(Optional.of(11L));
+        when(productRepository.findSnapshotsChangedAfter(10L)).thenReturn(List.of());
+        when(productRepository.count()).thenReturn(1L);
+        when(productRepository.findAllSnapshots()).thenReturn(List.of(product(1L)));
+
+        feed.sync();
+
+        assertTrue(published.get(1).reload());
+        assertEquals(1, published.get(1).products().size());
+    }
+
+    @Test
+    void localDeletionIsPublishedOnceAndKeepsTheCountInStep() {
+        PriceOverride override = new PriceOverride();
+        when(priceOverrideRepository.findByActiveTrue()).thenReturn(List.of(override));
+        load(10L, product(1L), product(2L));
+
+        feed.productRemoved(2L);
+        feed.productRemoved(2L);
+
+        assertEquals(2, published.size());
+        assertEquals(List.of(2L), published.get(1).removedIds());
+        // Overrides are unchanged by a deletion
+        assertEquals(List.of(override), published.get(1).overrides());
+
+        when(catalogChangeRepository.findLastSeq()).thenReturn(Optional.of(11L));
+        when(productRepository.findSnapshotsChangedAfter(10L)).thenReturn(List.of());
+        when(productRepository.count()).thenReturn(1L);
+        feed.sync();
+
+        assertFalse(published.get(2).reload());
+    }
+
+    private void load(long seq, ProductDTO... products) {
+        when(catalogChangeRepository.findLastSeq()).thenReturn(Optional.of(seq));
+        when(productRepository.findAllSnapshots()).thenReturn(List.of(products));
+        feed.sync();
+    }
+
+    private static ProductDTO product(Long id) {
+        ProductDTO product = new ProductDTO();
+        product.setId(id);
+        product.setName("Product " + id);
+        return product;
+    }
+}
@@ -0,0 +1,99 @@
+package com.erp.pos.service.impl;
+
+import com.erp.pos.Benchmarks;
+import com.erp.pos.dto.ProductDTO;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Scan lookups against a catalog of 100k SKUs, on their own and while a writer keeps updating
+ * products, and the cost of the writes: a product changing its SKU, and the owner of a code shared
+ * by 1,000 products dropping it. The target is a lookup p99 below 1 ms.
+ * Run with {@code mvn test -Dtest=ProductCodeIndexBenchmark}.
+ */
+class ProductCodeIndexBenchmark {
+    private static final int PRODUCTS = 100_000;
+    private static final int SHARED_HOLDERS = 1_000;
+    private static final long FIRST_BARCODE = 4_000_000_000_000L;
+
+    @Test
+    void lookupAndWriteLatency() throws InterruptedException {
+        ProductCodeIndex index = new ProductCodeIndex();
+        List<ProductDTO> products = new ArrayList<>(PRODUCTS);
+        for (long id = 1; id <= PRODUCTS; id++) {
+            // The last products all carry the same supplier code as their SKU
+            String sku = id > PRODUCTS - SHARED_HOLDERS ? "SHARED" : "SKU-" + id;
+            products.add(product(id, sku, String.valueOf(FIRST_BARCODE + id)));
+        }
+        long started = System.nanoTime();
+        index.catalogChanged(new ProductChangeFeed.Changes(1, true, products, List.of(), List.of()));
+        System.out.printf("load of %d products: %d ms%n", PRODUCTS, (System.nanoTime() - started) / 1_000_000);
+
+        // Barcodes, SKUs typed in lower case, scanner line endings and unknown codes
+        Random random = new Random(7);
+        String[] codes = new String[1 << 18];
+        for (int i = 0; i < codes.length; i++) {
+            long id = random.nextInt(PRODUCTS - SHARED_HOLDERS) + 1;
+            codes[i] = switch (i % 4) {
+                case 0 -> String.valueOf(FIRST_BARCODE + id);
+                case 1 -> "sku-" + id;
+                case 2 -> (FIRST_BARCODE + id) + "\r\n";
+                default -> "MISSING-" + id;
+            };
+        }
+        AtomicInteger next = new AtomicInteger();
+        Runnable lookup = () -> index.find(codes[next.getAndIncrement() & (codes.length - 1)]);
+
+        Benchmarks.Result idle = Benchmarks.measure("find, no writes", 200_000, 200_000, 1, lookup);
+
+        AtomicBoolean writing = new AtomicBoolean(true);
+        Thread writer = new Thread(() -> {
+            long id = 0;
+            while (writing.get()) {
+                id = id % (PRODUCTS - SHARED_HOLDERS) + 1;
+                index.put(product(id, "SKU-" + id, String.valueOf(FIRST_BARCODE + id)));
+            }
+        }, "code-index-writer");
+        writer.setDaemon(true);
+        writer.start();
+        Benchmarks.Result busy;
+        try {
+            busy = Benchmarks.concurrent("find, 2 readers and a writer", 2, 50_000, 100_000, lookup);
+        } finally {
+            writing.set(false);
+            writer.join();
+        }
+
+        AtomicInteger renamed = new AtomicInteger();
+        Benchmarks.measure("put, product changes its SKU", 5_000, 20_000, 1, () -> {
+            int n = renamed.getAndIncrement();
+            long id = n % (PRODUCTS - SHARED_HOLDERS) + 1;
+            index.put(product(id, "SKU-" + id + (n % 2 == 0 ? "-B" : ""), String.valueOf(FIRST_BARCODE + id)));
+        });
+
+        long owner = PRODUCTS - SHARED_HOLDERS + 1;
+        ProductDTO ownerProduct = products.get((int) owner - 1);
+        Benchmarks.measure("remove and re-add owner of code shared by 1000", 5_000, 20_000, 1, () -> {
+            index.remove(owner);
+            index.put(ownerProduct);
+        });
+        assertEquals(owner, index.find("SHARED").getId());
+
+        assertTrue(idle.p99() < 1_000, "p99 without writes: " + idle.p99() + "us");
+        assertTrue(busy.p99() < 1_000, "p99 with writes: " + busy.p99() + "us");
+    }
+
+    private static ProductDTO product(long id, String sku, String barcode) {
+        return new ProductDTO(id, "Product " + id, null, BigDecimal.ONE, 1, sku, barcode, 1L, "Groceries", true,
+                null, null);
+    }
+}
@@ -0,0 +1,96 @@
+package com.erp.pos.service.impl;
+
+import com.erp.pos.dto.ProductDTO;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ProductCodeIndexTest {
+
+    private static final LocalDateTime T0 = LocalDateTime.of(2025, 1, 1, 12, 0);
+
+    private final ProductCodeIndex index = new ProductCodeIndex();
+
+    @Test
+    void sharedCodeResolvesToLowestIdAndPassesOnWhenRemoved() {
+        index.putAll(List.of(product(7L, "Seven", "SHARED", T0), product(3L, "Three", "shared", T0)));
+        assertEquals(3L, index.find("shared").getId());
+
+        index.remove(3L);
+        assertEquals(7L, index.find("SHARED").getId());
+
+        index.remove(7L);
+        assertNull(index.find("SHARED"));
+    }
+
+    @Test
+    void updateReplacesEntryAndDropsOldCode() {
+        index.put(product(1L, "Old", "A1", T0));
+        index.put(product(1L, "New", "B1", T0.plusMinutes(1)));
+
+        assertNull(index.find("A1"));
+        assertEquals("New", index.find("b1").getName());
+    }
+
+    @Test
+    void laterChangeWinsWhateverItsTimestamp() {
+        // Changes arrive in commit order; a skewed clock may stamp the later one earlier
+        index.put(product(1L, "First", "A1", T0.plusMinutes(1)));
+        index.put(product(1L, "Second", "A1", T0));
+
+        assertEquals("Second", index.find("A1").getName());
+    }
+
+    @Test
+    void sharedCodePassesToTheNextLowestHolder() {
+        index.putAll(List.of(product(5L, "Five", "X", T0), product(2L, "Two", "X", T0), product(9L, "Nine", "X", T0)));
+        assertEquals(2L, index.find("X").getId());
+
+        // The owner moves to another code; a holder that is not the owner leaves without a change
+        index.put(product(2L, "Two", "Y", T0));
+        assertEquals(5L, index.find("X").getId());
+        index.remove(9L);
+        assertEquals(5L, index.find("X").getId());
+
+        index.remove(5L);
+        assertNull(index.find("X"));
+        assertEquals(2L, index.find("Y").getId());
+    }
+
+    @Test
+    void updatedHolderIsWhatTheCodePassesTo() {
+        index.putAll(List.of(product(1L, "One", "X", T0), product(2L, "Old", "X", T0)));
+        index.put(product(2L, "New", "X", T0));
+
+        index.remove(1L);
+        assertEquals("New", index.find("X").getName());
+    }
+
+    @Test
+    void reloadReplacesTheWholeIndex() {
+        index.putAll(List.of(product(1L, "One", "X", T0), product(2L, "Two", "X", T0)));
+
+        index.catalogChanged(new ProductChangeFeed.Changes(3, true, List.of(product(2L, "Two", "X", T0)), List.of(),
+                List.of()));
+        assertTrue(index.isReady());
+        assertEquals(2L, index.find("X").getId());
+
+        index.catalogChanged(new ProductChangeFeed.Changes(3, false, List.of(), List.of(2L), List.of()));
+        assertNull(index.find("X"));
+    }
+
+    private static ProductDTO product(Long id, String name, String sku, LocalDateTime updatedAt) {
+        ProductDTO product = new ProductDTO();
+        product.setId(id);
+        product.setName(name);
+        product.setSku(sku);
+        product.setActive(true);
+        product.setUpdatedAt(updatedAt);
+        return product;
+    }
+}
@@ -0,0 +1,73 @@
+package com.erp.pos.service.impl;
+
+import com.erp.pos.dto.ProductDTO;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ProductSearchIndexTest {
+
+    private final ProductSearchIndex index = new ProductSearchIndex();
+
+    @BeforeEach
+    void setUp() {
+        index.put(product(1L, "Cola Zero 330ml", "Drinks", "COLA-330", "5449000131805"));
+        index.put(product(2L, "Cola Zero 500ml", "Drinks", "COLA-500", "5449000131812"));
+        index.put(product(3L, "Cola Classic 330ml", "Drinks", "CLS-330", null));
+    }
+
+    @Test
+    void skuCombinedWithNameWordsFindsTheProduct() {
+        assertEquals(List.of(2L), ids(index.search("cola zero cola500", 10)));
+        assertEquals(List.of(1L), ids(index.search("zero 5449000131805", 10)));
+    }
+
+    @Test
+    void codePrefixNarrowsNameMatches() {
+        assertEquals(List.of(3L), ids(index.search("cola cls", 10)));
+    }
+
+    @Test
+    void exactCodeRanksFirst() {
+        assertEquals(1L, index.search("COLA-330", 10).get(0).getId());
+    }
+
+    @Test
+    void publishedChangesReplaceProductsAndDropRemovedOnes() {
+        // A category rename re-stamps its products, so they arrive with the new name
+        ProductDTO renamed = product(1L, "Cola Zero 330ml", "Soft Drinks", "COLA-330", "5449000131805");
+        index.catalogChanged(new ProductChangeFeed.Changes(2, false, List.of(renamed), List.of(3L), List.of()));
+
+        assertEquals(List.of(1L), ids(index.search("soft", 10)));
+        assertEquals(List.of(), ids(index.search("classic", 10)));
+    }
+
+    @Test
+    void reloadReplacesTheWholeIndex() {
+        index.catalogChanged(new ProductChangeFeed.Changes(5, true,
+                List.of(product(9L, "Orange Juice 1l", "Juices", "OJ-1", null)), List.of(), List.of()));
+
+        assertTrue(index.isReady());
+        assertEquals(List.of(), ids(index.search("cola", 10)));
+        assertEquals(List.of(9L), ids(index.search("juice", 10)));
+    }
+
+    private static ProductDTO product(Long id, String name, String category, String sku, String barcode) {
+        ProductDTO product = new ProductDTO();
+        product.setId(id);
+        product.setName(name);
+        product.setCategoryName(category);
+        product.setSku(sku);
+        product.setBarcode(barcode);
+        product.setActive(true);
+        return product;
+    }
+
+    private static List<Long> ids(List<ProductDTO> products) {
+        return products.stream().map(ProductDTO::getId).toList();
+    }
+}
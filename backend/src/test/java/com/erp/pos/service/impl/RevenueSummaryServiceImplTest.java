@@ -0,0 +1,54 @@
+package com.erp.pos.service.impl;
+
+import com.erp.pos.model.RevenueSummary;
+import com.erp.pos.repository.RevenueSummaryRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.math.BigDecimal;
+import java.util.Optional;
+
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoMoreInteractions;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class RevenueSummaryServiceImplTest {
+    @Mock
+    private RevenueSummaryRepository revenueSummaryRepository;
+
+    @InjectMocks
+    private RevenueSummaryServiceImpl revenueSummaryService;
+
+    @Test
+    void reconcileLocksTheRowBeforeSummingTheOrders() {
+        ReflectionTestUtils.setField(revenueSummaryService, "reconcileIntervalMs", 3_600_000L);
+        when(revenueSummaryRepository.tryLockReconcile()).thenReturn(true);
+        when(revenueSummaryRepository.lockById(RevenueSummary.SINGLETON_ID)).thenReturn(
+                Optional.of(new RevenueSummary(RevenueSummary.SINGLETON_ID, BigDecimal.ZERO, 0L, null)));
+
+        revenueSummaryService.reconcile();
+
+        InOrder order = inOrder(revenueSummaryRepository);
+        order.verify(revenueSummaryRepository).tryLockReconcile();
+        order.verify(revenueSummaryRepository).lockById(RevenueSummary.SINGLETON_ID);
+        order.verify(revenueSummaryRepository).reconcile(RevenueSummary.SINGLETON_ID, 1800);
+        verifyNoMoreInteractions(revenueSummaryRepository);
+    }
+
+    @Test
+    void reconcileIsSkippedWhileAnotherInstanceHoldsTheLock() {
+        when(revenueSummaryRepository.tryLockReconcile()).thenReturn(false);
+
+        revenueSummaryService.reconcile();
+
+        verify(revenueSummaryRepository).tryLockReconcile();
+        verifyNoMoreInteractions(revenueSummaryRepository);
+    }
+}
@@ -0,0 +1,108 @@
+package com.erp.pos.service.impl;
+
+import com.erp.pos.dto.OrderSalesSnapshot;
+import com.erp.pos.enums.OrderStatus;
+import com.erp.pos.enums.OrderType;
+import com.erp.pos.enums.PaymentMethod;
+import com.erp.pos.repository.SalesRollupRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoMoreInteractions;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class SalesRollupServiceImplTest {
+    private static final LocalDateTime ORDER_DATE = LocalDateTime.of(2026, 3, 14, 19, 25);
+    private static final LocalDateTime HOUR = LocalDateTime.of(2026, 3, 14, 19, 0);
+    private static final LocalDateTime DAY = LocalDateTime.of(2026, 3, 14, 0, 0);
+    private static final LocalDateTime MONTH = LocalDateTime.of(2026, 3, 1, 0, 0);
+
+    @Mock
+    private SalesRollupRepository salesRollupRepository;
+
+    @InjectMocks
+    private SalesRollupServiceImpl salesRollupService;
+
+    @Test
+    void totalChangedOnCompletedOrderUpsertsOnlyTheDifference() {
+        salesRollupService.recordChange(completed("40.00", PaymentMethod.CASH), completed("55.50", PaymentMethod.CASH));
+
+        verify(salesRollupRepository).upsert(HOUR, DAY, MONTH, "DINE_IN", "CASH", new BigDecimal("15.50"), 0, 0);
+        verifyNoMoreInteractions(salesRollupRepository);
+    }
+
+    @Test
+    void cancellingCompletedOrderWithChangedTotalSubtractsTheBookedTotal() {
+        OrderSalesSnapshot cancelled = new OrderSalesSnapshot(OrderStatus.CANCELLED, new BigDecimal("55.50"),
+                ORDER_DATE, OrderType.DINE_IN, PaymentMethod.CASH, 2);
+
+        salesRollupService.recordChange(completed("40.00", PaymentMethod.CASH), cancelled);
+
+        verify(salesRollupRepository).upsert(HOUR, DAY, MONTH, "DINE_IN", "CASH", new BigDecimal("-40.00"), -1, -2);
+        verifyNoMoreInteractions(salesRollupRepository);
+    }
+
+    @Test
+    void changedPaymentMethodMovesTheContributionToTheOtherBucket() {
+        salesRollupService.recordChange(completed("40.00", PaymentMethod.CASH), completed("40.00", PaymentMethod.CREDIT_CARD));
+
+        verify(salesRollupRepository).upsert(HOUR, DAY, MONTH, "DINE_IN", "CASH", new BigDecimal("-40.00"), -1, -2);
+        verify(salesRollupRepository).upsert(HOUR, DAY, MONTH, "DINE_IN", "CREDIT_CARD", new BigDecimal("40.00"), 1, 2);
+        verifyNoMoreInteractions(salesRollupRepository);
+    }
+
+    @Test
+    void unchangedOrderWritesNothing() {
+        salesRollupService.recordChange(completed("40.00", PaymentMethod.CASH), completed("40.00", PaymentMethod.CASH));
+
+        verify(salesRollupRepository, never()).upsert(any(), any(), any(), anyString(), anyString(), any(), anyLong(), anyLong());
+    }
+
+    @Test
+    void rebuildZeroesAndUpsertsEachGranularityUnderTheLock() {
+        when(salesRollupRepository.tryLockRebuild()).thenReturn(true);
+
+        assertTrue(salesRollupService.rebuild(ORDER_DATE, ORDER_DATE.plusMinutes(10)));
+
+        InOrder order = inOrder(salesRollupRepository);
+        order.verify(salesRollupRepository).tryLockRebuild();
+        order.verify(salesRollupRepository).zeroRange("HOUR", HOUR, HOUR.plusHours(1));
+        order.verify(salesRollupRepository).rebuildRange("HOUR", "hour", HOUR, HOUR.plusHours(1));
+        order.verify(salesRollupRepository).zeroRange("DAY", DAY, DAY.plusDays(1));
+        order.verify(salesRollupRepository).rebuildRange("DAY", "day", DAY, DAY.plusDays(1));
+        order.verify(salesRollupRepository).zeroRange("MONTH", MONTH, MONTH.plusMonths(1));
+        order.verify(salesRollupRepository).rebuildRange("MONTH", "month", MONTH, MONTH.plusMonths(1));
+        verifyNoMoreInteractions(salesRollupRepository);
+    }
+
+    @Test
+    void rebuildIsSkippedWhileAnotherRebuildHoldsTheLock() {
+        when(salesRollupRepository.tryLockRebuild()).thenReturn(false);
+
+        assertFalse(salesRollupService.rebuild(ORDER_DATE, ORDER_DATE.plusMinutes(10)));
+
+        verify(salesRollupRepository).tryLockRebuild();
+        verifyNoMoreInteractions(salesRollupRepository);
+    }
+
+    private static OrderSalesSnapshot completed(String total, PaymentMethod paymentMethod) {
+        return new OrderSalesSnapshot(OrderStatus.COMPLETED, new BigDecimal(total), ORDER_DATE, OrderType.DINE_IN,
+                paymentMethod, 2);
+    }
+}
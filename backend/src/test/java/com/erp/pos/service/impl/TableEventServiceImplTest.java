@@ -0,0 +1,120 @@
+package com.erp.pos.service.impl;
+
+import com.erp.pos.dto.TableDTO;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.List;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTimeoutPreemptively;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class TableEventServiceImplTest {
+    private final CountDownLatch slowClientReleased = new CountDownLatch(1);
+    private final Queue<RecordingEmitter> nextEmitters = new ArrayDeque<>();
+
+    private TableEventServiceImpl tableEventService;
+
+    @BeforeEach
+    void createService() {
+        tableEventService = new TableEventServiceImpl() {
+            @Override
+            SseEmitter createEmitter() {
+                return nextEmitters.remove();
+            }
+        };
+        TableRegistry tableRegistry = mock(TableRegistry.class);
+        when(tableRegistry.findAll()).thenReturn(List.of());
+        ReflectionTestUtils.setField(tableEventService, "tableRegistry", tableRegistry);
+        ReflectionTestUtils.setField(tableEventService, "senderThreads", 2);
+        ReflectionTestUtils.setField(tableEventService, "maxPending", 4);
+        tableEventService.init();
+    }
+
+    @AfterEach
+    void releaseAndShutdown() {
+        slowClientReleased.countDown();
+        tableEventService.shutdown();
+    }
+
+    @Test
+    void slowClientHoldsUpNeitherTheFlushNorOtherClients() throws Exception {
+        RecordingEmitter slow = subscribe(new RecordingEmitter(slowClientReleased));
+        RecordingEmitter fast = subscribe(new RecordingEmitter(null));
+        assertNotNull(fast.sent.poll(5, TimeUnit.SECONDS), "snapshot");
+
+        tableEventService.tableChanged(table(7L));
+        assertTimeoutPreemptively(Duration.ofSeconds(1), tableEventService::flushDeltas);
+
+        assertNotNull(fast.sent.poll(5, TimeUnit.SECONDS), "delta");
+        assertTrue(slow.sent.isEmpty());
+    }
+
+    @Test
+    void clientTooFarBehindIsDisconnected() throws Exception {
+        RecordingEmitter slow = subscribe(new RecordingEmitter(slowClientReleased));
+
+        for (int i = 0; i < 10; i++) {
+            tableEventService.heartbeat();
+        }
+
+        assertTrue(slow.failed.await(5, TimeUnit.SECONDS));
+    }
+
+    private RecordingEmitter subscribe(RecordingEmitter emitter) {
+        nextEmitters.add(emitter);
+        tableEventService.subscribe();
+        return emitter;
+    }
+
+    private static TableDTO table(Long id) {
+        TableDTO table = new TableDTO();
+        table.setId(id);
+        return table;
+    }
+
+    /**
+     * Records what it is sent; blocks every send until the latch opens when one is given
+     */
+    private static class RecordingEmitter extends SseEmitter {
+        private final CountDownLatch release;
+        private final LinkedBlockingQueue<Set<DataWithMediaType>> sent = new LinkedBlockingQueue<>();
+        private final CountDownLatch failed = new CountDownLatch(1);
+
+        RecordingEmitter(CountDownLatch release) {
+            this.release = release;
+        }
+
+        @Override
+        public void send(Set<ResponseBodyEmitter.DataWithMediaType> items) {
+            if (release != null) {
+                try {
+                    release.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+            }
+            sent.add(items);
+        }
+
+        @Override
+        public void completeWithError(Throwable ex) {
+            failed.countDown();
+        }
+    }
+}
@@ -0,0 +1,264 @@
+package com.erp.pos.service.impl;
+
+import com.erp.pos.config.DataSourceProxyConfig;
+import com.erp.pos.dto.AddToTableCartDTO;
+import com.erp.pos.dto.CreateTableOrderDTO;
+import com.erp.pos.dto.OrderItemDTO;
+import com.erp.pos.enums.ERole;
+import com.erp.pos.enums.OrderStatus;
+import com.erp.pos.enums.OrderType;
+import com.erp.pos.enums.TableStatus;
+import com.erp.pos.model.Category;
+import com.erp.pos.model.Order;
+import com.erp.pos.model.OrderItem;
+import com.erp.pos.model.Product;
+import com.erp.pos.model.RestaurantTable;
+import com.erp.pos.model.Role;
+import com.erp.pos.model.User;
+import com.erp.pos.monitoring.RequestDbStats;
+import com.erp.pos.service.CustomerService;
+import com.erp.pos.service.OrderNumberGenerator;
+import com.erp.pos.service.RevenueSummaryService;
+import com.erp.pos.service.SalesRollupService;
+import com.erp.pos.service.TableEventService;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Answers;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.when;
+
+/**
+ * Counts the statements and round trips of the table order write paths through the data source
+ * proxy, so a reload, a re-save or a round trip per item on these paths fails the build. The price book and
+ * the revenue and rollup aggregates are mocked: they cost the same whatever the order holds.
+ */
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect")
+@Import({DataSourceProxyConfig.class, OrderServiceImpl.class, TableServiceImpl.class,
+        TableOrderStatementCountTest.Config.class})
+class TableOrderStatementCountTest {
+    private static final int SHORT_TICKET = 3;
+    private static final int LONG_TICKET = 30;
+    private static final int LARGE_ORDER = 40;
+
+    @TestConfiguration
+    static class Config {
+        @Bean
+        MeterRegistry meterRegistry() {
+            return new SimpleMeterRegistry();
+        }
+    }
+
+    @MockBean
+    private PriceBookRegistry priceBookRegistry;
+
+    // Mock answers rather than nulls, for the registry sync the scheduler may run before a test starts
+    @MockBean(answer = Answers.RETURNS_MOCKS)
+    private TableRegistry tableRegistry;
+
+    @MockBean
+    private TableEventService tableEventService;
+
+    @MockBean
+    private RevenueSummaryService revenueSummaryService;
+
+    @MockBean
+    private SalesRollupService salesRollupService;
+
+    @MockBean
+    private CustomerService customerService;
+
+    @MockBean
+    private OrderNumberGenerator orderNumberGenerator;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private OrderServiceImpl orderService;
+
+    private final List<Product> products = new ArrayList<>();
+    private User cashier;
+
+    @BeforeEach
+    void createCatalog() {
+        Role role = new Role();
+        role.setName(ERole.ROLE_CASHIER);
+        entityManager.persist(role);
+        cashier = new User();
+        cashier.setUsername("cashier");
+        cashier.setEmail("cashier@example.com");
+        cashier.setPassword("password");
+        cashier.setFullName("Cashier");
+        cashier.getRoles().add(role);
+        entityManager.persist(cashier);
+
+        Category category = new Category();
+        category.setName("Mains");
+        entityManager.persist(category);
+        for (int i = 0; i < LARGE_ORDER; i++) {
+            Product product = new Product();
+            product.setName("Product " + i);
+            product.setPrice(BigDecimal.ONE);
+            product.setStockQuantity(100);
+            product.setCategory(category);
+            products.add(entityManager.persist(product));
+        }
+
+        when(priceBookRegistry.quote(anyCollection(), any())).thenAnswer(invocation -> {
+            Map<Long, PriceBook.Price> prices = new LinkedHashMap<>();
+            for (Long productId : invocation.<Collection<Long>>getArgument(0)) {
+                prices.put(productId, new PriceBook.Price(BigDecimal.ONE, BigDecimal.ONE, null));
+            }
+            return new PriceBook.Quote(1L, prices);
+        });
+        when(orderNumberGenerator.nextOrderNumber()).thenAnswer(invocation -> "ORD-" + System.nanoTime());
+    }
+
+    @AfterEach
+    void stopCounting() {
+        RequestDbStats.stop();
+    }
+
+    @Test
+    void addingANewLineTakesTheSameStatementsWhateverTheTicketSize() {
+        Long shortTable = tableWithTicket("T1", SHORT_TICKET);
+        Long longTable = tableWithTicket("T2", LONG_TICKET);
+
+        // Load the table with its ticket, load the creator's roles, insert the line, update the order total
+        assertEquals(4, statements(() -> orderService.addItemToTableOrder(shortTable, cartItem(LONG_TICKET))));
+        assertEquals(4, statements(() -> orderService.addItemToTableOrder(longTable, cartItem(LONG_TICKET))));
+    }
+
+    @Test
+    void mergingIntoAnExistingLineTakesTheSameStatementsWhateverTheTicketSize() {
+        Long shortTable = tableWithTicket("T1", SHORT_TICKET);
+        Long longTable = tableWithTicket("T2", LONG_TICKET);
+
+        // Load the table with its ticket, load the creator's roles, update the line, update the order total
+        assertEquals(4, statements(() -> orderService.addItemToTableOrder(shortTable, cartItem(0))));
+        assertEquals(4, statements(() -> orderService.addItemToTableOrder(longTable, cartItem(0))));
+    }
+
+    @Test
+    void largeTableOrderIsWrittenInTheSameRoundTripsAsASmallOne() {
+        Long smallTable = emptyTable("T1");
+        Long largeTable = emptyTable("T2");
+        // Reserve the first block of order and item ids, so neither order below has to
+        orderService.createTableOrder(emptyTable("T0"), newOrder(1));
+        entityManager.flush();
+        entityManager.clear();
+
+        RequestDbStats small = stats(() -> orderService.createTableOrder(smallTable, newOrder(1)));
+        RequestDbStats large = stats(() -> orderService.createTableOrder(largeTable, newOrder(LARGE_ORDER)));
+
+        // Load the table, insert the order, insert its items as one batch, update the table
+        assertEquals(4, small.getStatements());
+        assertEquals(4, small.getRoundTrips());
+        // The large order may also take the next block of 50 item ids: one more statement and round trip
+        int idBlocks = large.getStatements() - (3 + LARGE_ORDER);
+        assertTrue(idBlocks == 0 || idBlocks == 1);
+        assertEquals(small.getRoundTrips() + idBlocks, large.getRoundTrips());
+    }
+
+    private Long emptyTable(String tableNumber) {
+        RestaurantTable table = new RestaurantTable();
+        table.setTableNumber(tableNumber);
+        table.setCapacity(4);
+        table.setStatus(TableStatus.AVAILABLE);
+        entityManager.persist(table);
+        entityManager.flush();
+        return table.getId();
+    }
+
+    private CreateTableOrderDTO newOrder(int items) {
+        CreateTableOrderDTO order = new CreateTableOrderDTO();
+        order.setNumberOfGuests(2);
+        order.setOrderItems(new ArrayList<>());
+        for (int i = 0; i < items; i++) {
+            OrderItemDTO item = new OrderItemDTO();
+            item.setProductId(products.get(i).getId());
+            item.setQuantity(1);
+            order.getOrderItems().add(item);
+        }
+        return order;
+    }
+
+    /**
+     * A table with a pending order holding one line for each of the first {@code lines} products
+     */
+    private Long tableWithTicket(String tableNumber, int lines) {
+        RestaurantTable table = new RestaurantTable();
+        table.setTableNumber(tableNumber);
+        table.setCapacity(4);
+        table.setStatus(TableStatus.OCCUPIED);
+        entityManager.persist(table);
+
+        Order order = new Order();
+        order.setOrderNumber("ORD-" + tableNumber);
+        order.setOrderDate(LocalDateTime.now());
+        order.setStatus(OrderStatus.PENDING);
+        order.setOrderType(OrderType.DINE_IN);
+        order.setTotalAmount(BigDecimal.valueOf(lines));
+        order.setTable(table);
+        order.setCreatedBy(cashier);
+        for (int i = 0; i < lines; i++) {
+            OrderItem item = new OrderItem();
+            item.setOrder(order);
+            item.setProduct(products.get(i));
+            item.setQuantity(1);
+            item.setUnitPrice(BigDecimal.ONE);
+            item.setSubtotal(BigDecimal.ONE);
+            order.getOrderItems().add(item);
+        }
+        entityManager.persist(order);
+        table.setCurrentOrder(order);
+        entityManager.flush();
+        entityManager.clear();
+        return table.getId();
+    }
+
+    private AddToTableCartDTO cartItem(int productIndex) {
+        AddToTableCartDTO item = new AddToTableCartDTO();
+        item.setProductId(products.get(productIndex).getId());
+        item.setQuantity(1);
+        return item;
+    }
+
+    private int statements(Runnable work) {
+        return stats(work).getStatements();
+    }
+
+    /**
+     * Database work done by the work, including the flush that would otherwise happen on commit
+     */
+    private RequestDbStats stats(Runnable work) {
+        RequestDbStats.start();
+        work.run();
+        entityManager.flush();
+        RequestDbStats stats = RequestDbStats.stop();
+        entityManager.clear();
+        return stats;
+    }
+}
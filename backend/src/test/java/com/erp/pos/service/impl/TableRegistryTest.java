@@ -0,0 +1,75 @@
+package com.erp.pos.service.impl;
+
+import com.erp.pos.dto.TableDTO;
+import com.erp.pos.dto.TableDeltaDTO;
+import com.erp.pos.dto.TableVersionRow;
+import com.erp.pos.enums.TableStatus;
+import com.erp.pos.repository.TableRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class TableRegistryTest {
+    private static final LocalDateTime LOADED = LocalDateTime.of(2026, 3, 14, 12, 0);
+
+    @Mock
+    private TableRepository tableRepository;
+
+    @InjectMocks
+    private TableRegistry tableRegistry;
+
+    @Test
+    void syncKeepsALocalWriteThatCommittedAfterTheSnapshotWasRead() {
+        when(tableRepository.findAllSnapshots()).thenReturn(List.of(table(TableStatus.AVAILABLE, LOADED)));
+        tableRegistry.findAll();
+
+        // Another instance occupied the table; this instance cleared it right after the sync read it
+        TableDTO occupied = table(TableStatus.OCCUPIED, LOADED.plusSeconds(1));
+        TableDTO cleaning = table(TableStatus.CLEANING, LOADED.plusSeconds(2));
+        when(tableRepository.findAllVersions()).thenReturn(List.of(new TableVersionRow(1L, occupied.getUpdatedAt())));
+        when(tableRepository.findSnapshotsByIdIn(anyCollection())).thenAnswer(invocation -> {
+            tableRegistry.put(cleaning);
+            return List.of(occupied);
+        });
+
+        TableDeltaDTO delta = tableRegistry.sync();
+
+        assertTrue(delta.getTables().isEmpty());
+        assertEquals(TableStatus.CLEANING, tableRegistry.findById(1L).orElseThrow().getStatus());
+    }
+
+    @Test
+    void syncPublishesATableChangedByAnotherInstance() {
+        when(tableRepository.findAllSnapshots()).thenReturn(List.of(table(TableStatus.AVAILABLE, LOADED)));
+        tableRegistry.findAll();
+
+        TableDTO occupied = table(TableStatus.OCCUPIED, LOADED.plusSeconds(1));
+        when(tableRepository.findAllVersions()).thenReturn(List.of(new TableVersionRow(1L, occupied.getUpdatedAt())));
+        when(tableRepository.findSnapshotsByIdIn(anyCollection())).thenReturn(List.of(occupied));
+
+        TableDeltaDTO delta = tableRegistry.sync();
+
+        assertEquals(List.of(occupied), delta.getTables());
+        assertEquals(TableStatus.OCCUPIED, tableRegistry.findById(1L).orElseThrow().getStatus());
+    }
+
+    private static TableDTO table(TableStatus status, LocalDateTime updatedAt) {
+        TableDTO table = new TableDTO();
+        table.setId(1L);
+        table.setTableNumber("T1");
+        table.setStatus(status);
+        table.setUpdatedAt(updatedAt);
+        return table;
+    }
+}
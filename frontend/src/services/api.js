@@ -421,10 +421,22 @@ export const updateCategory = async (id, category) => {
 };
 
 // Orders API
+
+// Order lists are paged; follow the X-Next-Cursor header until the last page
+const getAllOrderPages = async (url) => {
+  const orders = [];
+  let cursor = null;
+  do {
+    const response = await axios.get(url, { params: { cursor: cursor || undefined, limit: 1000 } });
+    orders.push(...response.data);
+    cursor = response.headers['x-next-cursor'] || null;
+  } while (cursor);
+  return orders;
+};
+
 export const getAllOrders = async () => {
   try {
-    const response = await axios.get(`${API_URL}/orders`);
-    return response.data;
+    return await getAllOrderPages(`${API_URL}/orders`);
   } catch (error) {
     throw error;
   }
@@ -527,8 +539,7 @@ export const deleteOrder = async (id) => {
 
 export const getOrdersByType = async (orderType) => {
   try {
-    const response = await axios.get(`${API_URL}/orders/type/${orderType}`);
-    return response.data;
+    return await getAllOrderPages(`${API_URL}/orders/type/${orderType}`);
   } catch (error) {
     throw error;
   }